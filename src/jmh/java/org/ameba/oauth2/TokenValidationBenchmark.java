@@ -0,0 +1,140 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.oauth2;
+
+import com.auth0.jwk.Jwk;
+import com.auth0.jwk.SigningKeyNotFoundException;
+import io.jsonwebtoken.Jwts;
+import org.ameba.oauth2.issuer.ConfigurationIssuerWhiteList;
+import org.ameba.oauth2.issuer.ConfiguredIssuer;
+import org.ameba.oauth2.parser.HS512TokenParser;
+import org.ameba.oauth2.parser.JwkPublicKeyStore;
+import org.ameba.oauth2.parser.RSA256TokenParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.net.URI;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A TokenValidationBenchmark measures the cost of validating a Bearer token through the whole pipeline, from the
+ * {@link JwtValidationStrategy} down to the signature verification of the {@link TokenParser}.
+ * <p>
+ * Run with {@code ./mvnw -Pbenchmark test-compile exec:exec}, the GC profiler reports the allocation rate per operation.
+ * Pass JMH options and the benchmarks to run with {@code -Djmh.args="-p algorithm=RS256 TokenValidationBenchmark"}.
+ *
+ * @author Heiko Scherrer
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenValidationBenchmark {
+
+    private static final String KID = "kid-0";
+
+    /** The signing algorithm of the token. */
+    @Param({"HS512", "RS256"})
+    public String algorithm;
+
+    /** Whether the token carries a {@code kid} header. */
+    @Param({"true", "false"})
+    public boolean withKid;
+
+    /** The number of issuers in the whitelist, the token is issued by the last one. */
+    @Param({"1", "100"})
+    public int issuers;
+
+    /** Whether already verified tokens are answered from the {@link VerifiedTokenCache}. */
+    @Param({"false", "true"})
+    public boolean verifiedTokenCache;
+
+    private FilterStrategy strategy;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private JwkPublicKeyStore keyStore;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        var hmacKey = Jwts.SIG.HS512.key().build();
+        var rsaKeys = Jwts.SIG.RS256.keyPair().build();
+        var signingKey = Base64.getEncoder().encodeToString(hmacKey.getEncoded());
+        var jwkUrl = URI.create("http://localhost/jwks").toURL();
+        var configured = new ArrayList<ConfiguredIssuer>();
+        for (var i = 0; i < issuers; i++) {
+            configured.add(new ConfiguredIssuer("http://localhost/realms/r" + i, 0, null, signingKey, jwkUrl, KID));
+        }
+        var whiteList = new ConfigurationIssuerWhiteList(configured);
+        var issuerId = "http://localhost/realms/r" + (issuers - 1);
+
+        var publicKey = (RSAPublicKey) rsaKeys.getPublic();
+        var jwk = Jwk.fromValues(Map.of("kid", KID, "kty", "RSA",
+                "n", Base64.getUrlEncoder().withoutPadding().encodeToString(publicKey.getModulus().toByteArray()),
+                "e", Base64.getUrlEncoder().withoutPadding().encodeToString(publicKey.getPublicExponent().toByteArray())));
+        keyStore = new JwkPublicKeyStore(kid -> {
+            if (!KID.equals(kid)) {
+                throw new SigningKeyNotFoundException("Unknown kid " + kid, null);
+            }
+            return jwk;
+        });
+        List<TokenParser> parsers = List.of(new HS512TokenParser(), new RSA256TokenParser(keyStore));
+        var extractor = new BearerTokenExtractor(whiteList, parsers, verifiedTokenCache ? new VerifiedTokenCache() : null, null,
+                TokenMetrics.NOOP);
+        strategy = new JwtValidationStrategy(List.of(extractor));
+
+        var builder = Jwts.builder().issuer(issuerId).subject("alice").audience().add("acme").and();
+        if (withKid) {
+            builder.header().keyId(KID);
+        }
+        var token = "HS512".equals(algorithm)
+                ? builder.signWith(hmacKey, Jwts.SIG.HS512).compact()
+                : builder.signWith(rsaKeys.getPrivate(), Jwts.SIG.RS256).compact();
+        request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        keyStore.close();
+    }
+
+    @Benchmark
+    public void validate() {
+        strategy.doFilter(request, response);
+    }
+}
@@ -46,6 +46,8 @@ public final class Constants {
     public static final String HEADER_VALUE_X_CALLERID = "X-CallerID";
     /** Name of the http attribute to propagate the CallContext. */
     public static final String HEADER_VALUE_X_CALL_CONTEXT = "X-CallContext";
+    /** Name of the http attribute to vouch for an already verified bearer token between services that trust each other. */
+    public static final String HEADER_VALUE_X_VERIFIED_TOKEN = "X-Verified-Token";
 
     /** Standard date time format for APIs. */
     public static final String API_DATE_TIME_FORMAT = "yyyy-MM-dd hh:mm:ss";
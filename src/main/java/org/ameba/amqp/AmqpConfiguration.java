@@ -51,10 +51,17 @@ public class AmqpConfiguration {
 
     public @Bean SimpleRabbitListenerContainerFactoryConfigurerDecorator simpleRabbitListenerCFC(RabbitProperties rabbitProperties,
             SimpleRabbitListenerContainerFactoryConfigurer simpleRabbitListenerContainerFactoryConfigurer,
-            @Autowired(required = false) List<MessagePostProcessorProvider> messagePostProcessorProviders) {
+            @Autowired(required = false) List<MessagePostProcessorProvider> messagePostProcessorProviders,
+            MessageContextBinder messageContextBinder) {
         return new SimpleRabbitListenerContainerFactoryConfigurerDecorator(rabbitProperties,
                 simpleRabbitListenerContainerFactoryConfigurer,
-                messagePostProcessorProviders);
+                messagePostProcessorProviders,
+                messageContextBinder);
+    }
+
+    public @Bean MessageContextBinder messageContextBinder(
+            @Autowired(required = false) List<MessagePostProcessorProvider> messagePostProcessorProviders) {
+        return SimpleRabbitListenerContainerFactoryConfigurerDecorator.binderOf(messagePostProcessorProviders);
     }
 
     public @Bean RabbitTemplateConfigurable rabbitTemplateConfigurable(List<MessageHeaderEnhancer> headerEnhancers) {
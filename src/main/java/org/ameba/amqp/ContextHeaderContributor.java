@@ -0,0 +1,51 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.amqp;
+
+import org.ameba.context.AmebaContext;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A ContextHeaderContributor is a {@link MessageHeaderEnhancer} that derives AMQP headers from the {@link AmebaContext}. All
+ * contributors of a {@link RabbitTemplate} are combined into one {@link ContextHeaderEnhancer}, so that the context is read once
+ * per published message and not once per header.
+ *
+ * @author Heiko Scherrer
+ */
+@FunctionalInterface
+public interface ContextHeaderContributor extends MessageHeaderEnhancer {
+
+    /**
+     * Put the headers derived from the {@code context} into {@code headers}.
+     *
+     * @param context The context of the publisher
+     * @param headers The headers to add to
+     */
+    void contribute(AmebaContext context, Map<String, Object> headers);
+
+    /**
+     * {@inheritDoc}
+     *
+     * Register this contributor alone.
+     */
+    @Override
+    default void enhance(RabbitTemplate rabbitTemplate) {
+        new ContextHeaderEnhancer(List.of(this)).enhance(rabbitTemplate);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.amqp;
+
+import org.ameba.context.AmebaContext;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A ContextHeaderEnhancer combines several {@link ContextHeaderContributor}s into one before-publish {@link MessagePostProcessor}
+ * that reads the {@link AmebaContext} once per message and writes all headers in a single pass.
+ * <p>
+ * When messages are published as batch, e.g. with a {@code BatchingRabbitTemplate} that releases the batch later and possibly on
+ * another thread, capture the headers once with {@link #snapshot()} and pass the returned post-processor with every message of the
+ * batch:
+ *
+ * <pre>
+ *     var headers = enhancer.snapshot();
+ *     orders.forEach(o -&gt; rabbitTemplate.convertAndSend(exchange, routingKey, o, headers));
+ * </pre>
+ *
+ * @author Heiko Scherrer
+ */
+public class ContextHeaderEnhancer implements MessageHeaderEnhancer {
+
+    private final List<ContextHeaderContributor> contributors;
+
+    /**
+     * Create an instance.
+     *
+     * @param contributors The contributors to combine
+     */
+    public ContextHeaderEnhancer(List<ContextHeaderContributor> contributors) {
+        this.contributors = List.copyOf(contributors);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Register one post-processor for all contributors.
+     */
+    @Override
+    public void enhance(RabbitTemplate rabbitTemplate) {
+        if (contributors.isEmpty()) {
+            return;
+        }
+        rabbitTemplate.addBeforePublishPostProcessors(m -> {
+            var context = AmebaContext.current();
+            var headers = m.getMessageProperties().getHeaders();
+            for (var contributor : contributors) {
+                contributor.contribute(context, headers);
+            }
+            return m;
+        });
+    }
+
+    /**
+     * Capture the headers of the current context once, to be shared by all messages of a batch.
+     *
+     * @return A post-processor that puts the captured headers into each message
+     */
+    public MessagePostProcessor snapshot() {
+        var context = AmebaContext.current();
+        var captured = new HashMap<String, Object>();
+        for (var contributor : contributors) {
+            contributor.contribute(context, captured);
+        }
+        var headers = Map.copyOf(captured);
+        return m -> {
+            m.getMessageProperties().getHeaders().putAll(headers);
+            return m;
+        };
+    }
+}
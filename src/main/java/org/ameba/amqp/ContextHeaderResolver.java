@@ -0,0 +1,52 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.amqp;
+
+import org.ameba.context.AmebaContext;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+
+import java.util.List;
+
+/**
+ * A ContextHeaderResolver is a {@link MessagePostProcessorProvider} that derives parts of the {@link AmebaContext} from the
+ * headers of a received AMQP message, it is the counterpart of a {@link ContextHeaderContributor}. All resolvers of a listener
+ * container are combined into one {@link MessageContextBinder} that binds a fresh context per message.
+ *
+ * @author Heiko Scherrer
+ */
+@FunctionalInterface
+public interface ContextHeaderResolver extends MessagePostProcessorProvider {
+
+    /**
+     * Resolve the values of this resolver from the {@code message} into the {@code context}.
+     *
+     * @param message The received message
+     * @param context The context resolved so far
+     * @return The {@code context} or a copy with the resolved values
+     */
+    AmebaContext resolve(Message message, AmebaContext context);
+
+    /**
+     * {@inheritDoc}
+     *
+     * Bind the context resolved by this resolver alone.
+     */
+    @Override
+    default MessagePostProcessor getMessagePostProcessor() {
+        return new MessageContextBinder(List.of(this)).getMessagePostProcessor();
+    }
+}
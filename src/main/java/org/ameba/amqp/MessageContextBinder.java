@@ -0,0 +1,152 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.amqp;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.ameba.context.AmebaContext;
+import org.ameba.context.ContextSlot;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * A MessageContextBinder combines several {@link ContextHeaderResolver}s and binds the {@link AmebaContext} of received AMQP
+ * messages. Each message is resolved from an empty context, so no value of a former message survives. The
+ * {@link #getCleanupAdvice() cleanup advice} clears the context of the consumer thread after the listener has been invoked.
+ * <p>
+ * With batch listeners all messages of a batch are post-processed before the listener is called, so the bound context is the one
+ * of the last message. Batch listeners therefore process the batch per tenant:
+ *
+ * <pre>
+ *     &#064;RabbitListener(queues = "orders", batch = "true")
+ *     void onOrders(List&lt;Message&gt; messages) {
+ *         binder.forEachTenant(messages, (tenant, ofTenant) -&gt; service.process(ofTenant));
+ *     }
+ * </pre>
+ *
+ * @author Heiko Scherrer
+ */
+public class MessageContextBinder {
+
+    private final List<ContextHeaderResolver> resolvers;
+
+    /**
+     * Create an instance.
+     *
+     * @param resolvers The resolvers to combine
+     */
+    public MessageContextBinder(List<ContextHeaderResolver> resolvers) {
+        this.resolvers = List.copyOf(resolvers);
+    }
+
+    /**
+     * Check whether there is any resolver.
+     *
+     * @return {@literal true} if none
+     */
+    public boolean isEmpty() {
+        return resolvers.isEmpty();
+    }
+
+    /**
+     * Resolve the context of the {@code message}, starting from an empty context.
+     *
+     * @param message The received message
+     * @return The context
+     */
+    public AmebaContext resolve(Message message) {
+        var result = AmebaContext.empty();
+        for (var resolver : resolvers) {
+            result = resolver.resolve(message, result);
+        }
+        return result;
+    }
+
+    /**
+     * Get a post-processor that binds the context resolved from each message to the consumer thread.
+     *
+     * @return The post-processor
+     */
+    public MessagePostProcessor getMessagePostProcessor() {
+        return m -> {
+            AmebaContext.set(resolve(m));
+            return m;
+        };
+    }
+
+    /**
+     * Get an advice for the listener container that clears the context of the consumer thread after the listener has been invoked
+     * with a message or a batch of messages.
+     *
+     * @return The advice
+     */
+    public MethodInterceptor getCleanupAdvice() {
+        return invocation -> {
+            try {
+                return invocation.proceed();
+            } finally {
+                AmebaContext.set(AmebaContext.empty());
+            }
+        };
+    }
+
+    /**
+     * Execute the {@code call} with the context of the {@code message}.
+     *
+     * @param message The received message
+     * @param call The operation
+     * @param <R> The type of the result
+     * @param <X> The type of the exception
+     * @return The result of the operation
+     * @throws X if the operation fails
+     */
+    public <R, X extends Throwable> R callWith(Message message, ContextSlot.ScopedCall<R, X> call) throws X {
+        return AmebaContext.callWhere(resolve(message), call);
+    }
+
+    /**
+     * Group the {@code messages} of a batch by their tenant, keeping the order of the messages.
+     *
+     * @param messages The messages of the batch
+     * @return The messages per tenant, the tenant is {@literal null} for messages without tenant
+     */
+    public Map<String, List<Message>> groupByTenant(List<Message> messages) {
+        var result = new LinkedHashMap<String, List<Message>>();
+        for (var message : messages) {
+            result.computeIfAbsent(resolve(message).getTenant(), k -> new ArrayList<>()).add(message);
+        }
+        return result;
+    }
+
+    /**
+     * Process the {@code messages} of a batch per tenant, with the tenant bound for each group.
+     *
+     * @param messages The messages of the batch
+     * @param action Called once per tenant with the messages of that tenant
+     */
+    public void forEachTenant(List<Message> messages, BiConsumer<String, List<Message>> action) {
+        groupByTenant(messages).forEach((tenant, ofTenant) ->
+                AmebaContext.callWhere(AmebaContext.empty().withTenant(tenant), () -> {
+                    action.accept(tenant, ofTenant);
+                    return null;
+                }));
+    }
+}
@@ -17,10 +17,12 @@ package org.ameba.amqp;
 
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
- * A RabbitTemplateConfigurerAdapter is using {@link MessageHeaderEnhancer} instances to configure the {@link RabbitTemplate}.
+ * A RabbitTemplateConfigurerAdapter is using {@link MessageHeaderEnhancer} instances to configure the {@link RabbitTemplate}. All
+ * {@link ContextHeaderContributor}s are combined into one {@link ContextHeaderEnhancer}.
  *
  * @author Heiko Scherrer
  */
@@ -38,7 +40,15 @@ public class RabbitTemplateConfigurerAdapter implements RabbitTemplateConfigurab
     @Override
     public void configure(RabbitTemplate rabbitTemplate) {
         if (headerEnhancers != null) {
-            headerEnhancers.forEach(he -> he.enhance(rabbitTemplate));
+            var contributors = new ArrayList<ContextHeaderContributor>(headerEnhancers.size());
+            for (var he : headerEnhancers) {
+                if (he instanceof ContextHeaderContributor contributor) {
+                    contributors.add(contributor);
+                } else {
+                    he.enhance(rabbitTemplate);
+                }
+            }
+            new ContextHeaderEnhancer(contributors).enhance(rabbitTemplate);
         }
     }
 }
@@ -15,6 +15,7 @@
  */
 package org.ameba.amqp;
 
+import org.aopalliance.aop.Advice;
 import org.springframework.amqp.core.MessagePostProcessor;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
@@ -22,11 +23,16 @@ import org.springframework.boot.amqp.autoconfigure.AbstractRabbitListenerContain
 import org.springframework.boot.amqp.autoconfigure.RabbitProperties;
 import org.springframework.boot.amqp.autoconfigure.SimpleRabbitListenerContainerFactoryConfigurer;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * A SimpleRabbitListenerContainerFactoryConfigurerDecorator takes the {@link SimpleRabbitListenerContainerFactoryConfigurer} from
  * SpringBoot and decorates it with additional functionality. This decorator only works with an override of the {@code SimpleRabbitListenerContainerFactory}.
+ * <p>
+ * All {@link ContextHeaderResolver}s are combined into one {@link MessageContextBinder} that binds the context per received message,
+ * its cleanup advice is appended to the advice chain of the container.
  *
  * @author Heiko Scherrer
  */
@@ -37,22 +43,58 @@ public class SimpleRabbitListenerContainerFactoryConfigurerDecorator
 
     private List<MessagePostProcessorProvider> messagePostProcessorProviders;
 
+    private final MessageContextBinder messageContextBinder;
+
     protected SimpleRabbitListenerContainerFactoryConfigurerDecorator(RabbitProperties rabbitProperties,
             SimpleRabbitListenerContainerFactoryConfigurer simpleRabbitListenerContainerFactoryConfigurer,
             List<MessagePostProcessorProvider> messagePostProcessorProviders) {
+        this(rabbitProperties, simpleRabbitListenerContainerFactoryConfigurer, messagePostProcessorProviders,
+                binderOf(messagePostProcessorProviders));
+    }
+
+    protected SimpleRabbitListenerContainerFactoryConfigurerDecorator(RabbitProperties rabbitProperties,
+            SimpleRabbitListenerContainerFactoryConfigurer simpleRabbitListenerContainerFactoryConfigurer,
+            List<MessagePostProcessorProvider> messagePostProcessorProviders, MessageContextBinder messageContextBinder) {
         super(rabbitProperties);
         this.simpleRabbitListenerContainerFactoryConfigurer = simpleRabbitListenerContainerFactoryConfigurer;
         this.messagePostProcessorProviders = messagePostProcessorProviders;
+        this.messageContextBinder = messageContextBinder;
+    }
+
+    /**
+     * Combine all {@link ContextHeaderResolver}s of the {@code providers}.
+     *
+     * @param providers All providers, may be {@literal null}
+     * @return The binder
+     */
+    static MessageContextBinder binderOf(List<MessagePostProcessorProvider> providers) {
+        return new MessageContextBinder(providers == null ? List.of() : providers.stream()
+                .filter(ContextHeaderResolver.class::isInstance)
+                .map(ContextHeaderResolver.class::cast)
+                .toList());
     }
 
     @Override
     public void configure(SimpleRabbitListenerContainerFactory factory, ConnectionFactory connectionFactory) {
         if (messagePostProcessorProviders != null) {
-            factory.setAfterReceivePostProcessors(messagePostProcessorProviders.stream()
+            var processors = new ArrayList<MessagePostProcessor>(messagePostProcessorProviders.size());
+            if (!messageContextBinder.isEmpty()) {
+                processors.add(messageContextBinder.getMessagePostProcessor());
+            }
+            messagePostProcessorProviders.stream()
+                    .filter(p -> !(p instanceof ContextHeaderResolver))
                     .map(MessagePostProcessorProvider::getMessagePostProcessor)
-                    .toArray(MessagePostProcessor[]::new)
-            );
+                    .forEach(processors::add);
+            factory.setAfterReceivePostProcessors(processors.toArray(MessagePostProcessor[]::new));
         }
         simpleRabbitListenerContainerFactoryConfigurer.configure(factory, connectionFactory);
+        if (!messageContextBinder.isEmpty()) {
+            var adviceChain = new ArrayList<Advice>();
+            if (factory.getAdviceChain() != null) {
+                adviceChain.addAll(Arrays.asList(factory.getAdviceChain()));
+            }
+            adviceChain.add(messageContextBinder.getCleanupAdvice());
+            factory.setAdviceChain(adviceChain.toArray(Advice[]::new));
+        }
     }
 }
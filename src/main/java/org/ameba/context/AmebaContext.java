@@ -0,0 +1,320 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.context;
+
+import org.ameba.http.ctx.CallContext;
+import org.ameba.tenancy.Tenant;
+import org.ameba.tenancy.Tenants;
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * An AmebaContext is an immutable snapshot of the context of the current execution: tenant, identity, request ID,
+ * {@link CallContext} and, if captured, the SLF4J MDC.
+ * <p>
+ * The holders ({@code TenantHolder}, {@code IdentityContextHolder}, {@code RequestIDHolder} and {@code CallContextHolder}) are views
+ * on one AmebaContext that is stored in a single {@link ContextSlot}. Capturing and restoring the whole context is therefore one read
+ * and one write of that slot (plus the MDC) instead of one per holder.
+ *
+ * <pre>
+ *     var ctx = AmebaContext.capture();
+ *     executor.execute(() -&gt; {
+ *         try (var scope = ctx.restore()) {
+ *             // tenant, identity, request ID, CallContext and MDC of the caller are available
+ *         }
+ *     });
+ * </pre>
+ *
+ * Use {@link #wrap(Executor)}, {@link #wrap(ExecutorService)}, {@link AmebaContextTaskDecorator} or
+ * {@link AmebaContextFutures} to let this happen for every task. The {@link CallContext} is shared, not copied. The tenant is kept
+ * as {@link Tenant}, the canonical instance if it is registered.
+ *
+ * @author Heiko Scherrer
+ */
+public final class AmebaContext {
+
+    private static final AmebaContext EMPTY = new AmebaContext(null, null, null, null, null);
+    private static final ContextSlot<AmebaContext> SLOT = ContextSlot.newSlot();
+
+    private final Tenant tenant;
+    private final String identity;
+    private final String requestID;
+    private final CallContext callContext;
+    private final Map<String, String> mdc;
+
+    /**
+     * A Scope is returned by {@link #restore()} and puts the previous context back in place when closed.
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        /**
+         * {@inheritDoc}
+         *
+         * Restore the previous context.
+         */
+        @Override
+        void close();
+    }
+
+    private AmebaContext(Tenant tenant, String identity, String requestID, CallContext callContext, Map<String, String> mdc) {
+        this.tenant = tenant;
+        this.identity = identity;
+        this.requestID = requestID;
+        this.callContext = callContext;
+        this.mdc = mdc;
+    }
+
+    /**
+     * Get the context of the current execution, without MDC.
+     *
+     * @return The current context, never {@literal null}
+     */
+    public static AmebaContext current() {
+        var result = SLOT.get();
+        return result == null ? EMPTY : result;
+    }
+
+    /**
+     * Get the empty context.
+     *
+     * @return The context without any value
+     */
+    public static AmebaContext empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Capture the context of the current execution including the MDC to pass it to other threads.
+     *
+     * @return The snapshot
+     */
+    public static AmebaContext capture() {
+        var current = current();
+        var contextMap = MDC.getCopyOfContextMap();
+        return contextMap == null || contextMap.isEmpty()
+                ? current
+                : new AmebaContext(current.tenant, current.identity, current.requestID, current.callContext, contextMap);
+    }
+
+    /**
+     * Replace the context of the current execution imperatively. Used by the holders.
+     *
+     * @param context The new context, the MDC of it is ignored
+     */
+    public static void set(AmebaContext context) {
+        if (context == null || context.isEmpty()) {
+            SLOT.remove();
+        } else {
+            SLOT.set(context);
+        }
+    }
+
+    /**
+     * Execute the {@code call} with {@code context} bound for the scope of the call, the MDC of it is ignored. Used by the holders.
+     *
+     * @param context The context to bind
+     * @param call The operation
+     * @param <R> The type of the result
+     * @param <X> The type of the exception
+     * @return The result of the operation
+     * @throws X if the operation fails
+     */
+    public static <R, X extends Throwable> R callWhere(AmebaContext context, ContextSlot.ScopedCall<R, X> call) throws X {
+        return SLOT.callWhere(context, call);
+    }
+
+    /**
+     * Make this the context of the current execution, including the MDC if captured.
+     *
+     * @return A Scope that must be closed to restore the previous context
+     */
+    public Scope restore() {
+        var previous = SLOT.get();
+        var previousMdc = mdc == null ? null : MDC.getCopyOfContextMap();
+        set(this);
+        if (mdc != null) {
+            MDC.setContextMap(mdc);
+        }
+        return () -> {
+            set(previous);
+            if (mdc != null) {
+                if (previousMdc == null) {
+                    MDC.clear();
+                } else {
+                    MDC.setContextMap(previousMdc);
+                }
+            }
+        };
+    }
+
+    /**
+     * Execute the {@code call} within this context.
+     *
+     * @param call The operation
+     * @param <R> The type of the result
+     * @param <X> The type of the exception
+     * @return The result of the operation
+     * @throws X if the operation fails
+     */
+    public <R, X extends Throwable> R call(ContextSlot.ScopedCall<R, X> call) throws X {
+        if (mdc == null) {
+            return SLOT.callWhere(this, call);
+        }
+        var scope = restore();
+        try {
+            return call.call();
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * Capture the current context and return a Runnable that executes {@code task} within it.
+     *
+     * @param task The task
+     * @return The wrapped task
+     */
+    public static Runnable wrap(Runnable task) {
+        var context = capture();
+        return () -> context.call(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Capture the current context and return a Callable that executes {@code task} within it.
+     *
+     * @param task The task
+     * @param <T> The type of the result
+     * @return The wrapped task
+     */
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        var context = capture();
+        return () -> context.call(task::call);
+    }
+
+    /**
+     * Decorate the {@code executor} to execute every task within the context of the submitting thread.
+     *
+     * @param executor The executor to decorate
+     * @return The decorated executor
+     */
+    public static Executor wrap(Executor executor) {
+        return task -> executor.execute(wrap(task));
+    }
+
+    /**
+     * Decorate the {@code executorService} to execute every task within the context of the submitting thread.
+     *
+     * @param executorService The executor service to decorate
+     * @return The decorated executor service
+     */
+    public static ExecutorService wrap(ExecutorService executorService) {
+        return new AmebaContextExecutorService(executorService);
+    }
+
+    /**
+     * Get a copy of this context with another tenant.
+     *
+     * @param tenant The tenant
+     * @return The copy
+     */
+    public AmebaContext withTenant(String tenant) {
+        if (this.tenant != null && this.tenant.getName().equals(tenant)) {
+            return this;
+        }
+        return withTenant(Tenants.of(tenant));
+    }
+
+    /**
+     * Get a copy of this context with another tenant.
+     *
+     * @param tenant The interned tenant
+     * @return The copy
+     */
+    public AmebaContext withTenant(Tenant tenant) {
+        return new AmebaContext(tenant, identity, requestID, callContext, mdc);
+    }
+
+    /**
+     * Get a copy of this context with another identity.
+     *
+     * @param identity The identity
+     * @return The copy
+     */
+    public AmebaContext withIdentity(String identity) {
+        return new AmebaContext(tenant, identity, requestID, callContext, mdc);
+    }
+
+    /**
+     * Get a copy of this context with another request ID.
+     *
+     * @param requestID The request ID
+     * @return The copy
+     */
+    public AmebaContext withRequestID(String requestID) {
+        return new AmebaContext(tenant, identity, requestID, callContext, mdc);
+    }
+
+    /**
+     * Get a copy of this context with another CallContext.
+     *
+     * @param callContext The CallContext
+     * @return The copy
+     */
+    public AmebaContext withCallContext(CallContext callContext) {
+        return new AmebaContext(tenant, identity, requestID, callContext, mdc);
+    }
+
+    public String getTenant() {
+        return tenant == null ? null : tenant.getName();
+    }
+
+    public Tenant getInternedTenant() {
+        return tenant;
+    }
+
+    public String getIdentity() {
+        return identity;
+    }
+
+    public String getRequestID() {
+        return requestID;
+    }
+
+    public CallContext getCallContext() {
+        return callContext;
+    }
+
+    /**
+     * Get the captured MDC.
+     *
+     * @return An unmodifiable copy or {@literal null} if not captured
+     */
+    public Map<String, String> getMdc() {
+        return mdc == null ? null : Map.copyOf(mdc);
+    }
+
+    private boolean isEmpty() {
+        return tenant == null && identity == null && requestID == null && callContext == null;
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.context;
+
+import org.ameba.annotation.ExcludeFromScan;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * An AmebaContextConfiguration registers the {@link AmebaContextTaskDecorator}, so that tasks of the Spring Boot task executor, like
+ * {@code @Async} methods, run within the {@link AmebaContext} of the caller. Disable with {@code ameba.context.task-decorator.enabled=false}.
+ *
+ * @author Heiko Scherrer
+ */
+@ExcludeFromScan
+@AutoConfiguration
+@ConditionalOnProperty(name = "ameba.context.task-decorator.enabled", havingValue = "true", matchIfMissing = true)
+public class AmebaContextConfiguration {
+
+    @ConditionalOnMissingBean(TaskDecorator.class)
+    @Bean
+    public AmebaContextTaskDecorator amebaContextTaskDecorator() {
+        return new AmebaContextTaskDecorator();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.context;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * An AmebaContextFutures creates {@link CompletableFuture}s whose asynchronous stages run within the {@link AmebaContext} of the
+ * calling thread. Dependent stages ({@code thenApplyAsync} etc.) use the decorated executor of the returned future as default.
+ *
+ * @author Heiko Scherrer
+ */
+public final class AmebaContextFutures {
+
+    private AmebaContextFutures() { }
+
+    /**
+     * Like {@link CompletableFuture#supplyAsync(Supplier, Executor)} within the current context.
+     *
+     * @param supplier The supplier
+     * @param executor The executor
+     * @param <T> The type of the result
+     * @return The future
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier, Executor executor) {
+        return new ContextFuture<T>(AmebaContext.wrap(executor)).completeAsync(supplier);
+    }
+
+    /**
+     * Like {@link CompletableFuture#supplyAsync(Supplier)} within the current context.
+     *
+     * @param supplier The supplier
+     * @param <T> The type of the result
+     * @return The future
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        return supplyAsync(supplier, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Like {@link CompletableFuture#runAsync(Runnable, Executor)} within the current context.
+     *
+     * @param runnable The task
+     * @param executor The executor
+     * @return The future
+     */
+    public static CompletableFuture<Void> runAsync(Runnable runnable, Executor executor) {
+        return supplyAsync(() -> {
+            runnable.run();
+            return null;
+        }, executor);
+    }
+
+    /**
+     * Like {@link CompletableFuture#runAsync(Runnable)} within the current context.
+     *
+     * @param runnable The task
+     * @return The future
+     */
+    public static CompletableFuture<Void> runAsync(Runnable runnable) {
+        return runAsync(runnable, ForkJoinPool.commonPool());
+    }
+
+    private static final class ContextFuture<T> extends CompletableFuture<T> {
+
+        private final Executor executor;
+
+        ContextFuture(Executor executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public Executor defaultExecutor() {
+            return executor;
+        }
+
+        @Override
+        public <U> CompletableFuture<U> newIncompleteFuture() {
+            return new ContextFuture<>(executor);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.context;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * An AmebaContextTaskDecorator is a Spring {@link TaskDecorator} that executes every task within the {@link AmebaContext} of the
+ * submitting thread. Registered as bean it is applied to the executor of {@code @Async} methods by Spring Boot.
+ *
+ * @author Heiko Scherrer
+ */
+public class AmebaContextTaskDecorator implements TaskDecorator {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return AmebaContext.wrap(runnable);
+    }
+}
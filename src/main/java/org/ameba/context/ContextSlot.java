@@ -0,0 +1,242 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.context;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * A ContextSlot holds one context value of the current execution in the configured {@link ContextStorage}.
+ * <p>
+ * Values are either set imperatively with {@link #set(Object)} and {@link #remove()}, or, preferably, bound for the scope of a
+ * call with {@link #callWhere(Object, ScopedCall)}. With {@link ContextStorage#SCOPED_VALUE} only the latter uses a
+ * {@code ScopedValue}; a value set or removed imperatively within a scope takes precedence over the bound one until the scope ends.
+ * The {@code ScopedValue} API is accessed
+ * reflectively, because it is a preview API in Java 21. If it is not available, the slot falls back to
+ * {@link ContextStorage#THREAD_LOCAL}.
+ *
+ * @param <T> The type of the value
+ * @author Heiko Scherrer
+ */
+public final class ContextSlot<T> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContextSlot.class);
+    private static final ContextStorage STORAGE = ContextStorage.configured();
+    /** Stored in the ThreadLocal to shadow the value bound by the enclosing scope after a {@link #remove()}. */
+    private static final Object CLEARED = new Object();
+
+    private final ThreadLocal<Object> threadLocal;
+    private final ScopedValues scopedValues;
+    private final Object scopedValue;
+
+    /**
+     * A ScopedCall is an operation executed while a value is bound.
+     *
+     * @param <R> The type of the result
+     * @param <X> The type of the exception
+     */
+    @FunctionalInterface
+    public interface ScopedCall<R, X extends Throwable> {
+
+        /**
+         * Execute the operation.
+         *
+         * @return The result
+         * @throws X in case of failure
+         */
+        R call() throws X;
+    }
+
+    private ContextSlot(ContextStorage storage) {
+        this.threadLocal = storage == ContextStorage.INHERITABLE_THREAD_LOCAL ? new InheritableThreadLocal<>() : new ThreadLocal<>();
+        this.scopedValues = storage == ContextStorage.SCOPED_VALUE ? ScopedValuesHolder.INSTANCE : null;
+        this.scopedValue = scopedValues == null ? null : scopedValues.newInstance();
+    }
+
+    /**
+     * Create a slot in the configured storage.
+     *
+     * @param <T> The type of the value
+     * @return The instance
+     */
+    public static <T> ContextSlot<T> newSlot() {
+        return new ContextSlot<>(STORAGE);
+    }
+
+    static <T> ContextSlot<T> newSlot(ContextStorage storage) {
+        return new ContextSlot<>(storage);
+    }
+
+    /**
+     * Get the storage all slots use.
+     *
+     * @return The effective storage
+     */
+    public static ContextStorage getStorage() {
+        return STORAGE == ContextStorage.SCOPED_VALUE && ScopedValuesHolder.INSTANCE == null ? ContextStorage.THREAD_LOCAL : STORAGE;
+    }
+
+    /**
+     * Get the current value.
+     *
+     * @return The imperatively set value, or the value bound by the innermost scope, or {@literal null}
+     */
+    @SuppressWarnings("unchecked")
+    public T get() {
+        var result = threadLocal.get();
+        if (result == null && scopedValue != null && scopedValues.isBound(scopedValue)) {
+            return (T) scopedValues.get(scopedValue);
+        }
+        return result == CLEARED ? null : (T) result;
+    }
+
+    /**
+     * Set the value imperatively, it must be removed with {@link #remove()} afterwards.
+     *
+     * @param value The value, {@literal null} is the same as {@link #remove()}
+     */
+    public void set(T value) {
+        if (value == null) {
+            remove();
+        } else {
+            threadLocal.set(value);
+        }
+    }
+
+    /**
+     * Remove the imperatively set value. Within a scope, the value bound by the scope is hidden as well until the scope ends.
+     */
+    public void remove() {
+        if (scopedValue != null && scopedValues.isBound(scopedValue)) {
+            threadLocal.set(CLEARED);
+        } else {
+            threadLocal.remove();
+        }
+    }
+
+    /**
+     * Execute the {@code call} with {@code value} bound to this slot, the previous value is in place again afterwards.
+     *
+     * @param value The value to bind
+     * @param call The operation
+     * @param <R> The type of the result
+     * @param <X> The type of the exception
+     * @return The result of the operation
+     * @throws X if the operation fails
+     */
+    public <R, X extends Throwable> R callWhere(T value, ScopedCall<R, X> call) throws X {
+        var previous = threadLocal.get();
+        if (scopedValue != null) {
+            if (previous != null) {
+                threadLocal.remove();
+            }
+            try {
+                return scopedValues.callWhere(scopedValue, value, call);
+            } finally {
+                if (previous != null) {
+                    threadLocal.set(previous);
+                } else if (threadLocal.get() != null) {
+                    threadLocal.remove();
+                }
+            }
+        }
+        threadLocal.set(value);
+        try {
+            return call.call();
+        } finally {
+            if (previous == null) {
+                threadLocal.remove();
+            } else {
+                threadLocal.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Looks up the {@code ScopedValue} API on first use.
+     */
+    private static final class ScopedValuesHolder {
+        static final ScopedValues INSTANCE = ScopedValues.lookup();
+    }
+
+    /**
+     * Reflective access to {@code java.lang.ScopedValue}.
+     */
+    private record ScopedValues(MethodHandle newInstanceHandle, MethodHandle whereHandle, MethodHandle runHandle,
+            MethodHandle isBoundHandle, MethodHandle getHandle) {
+
+        static ScopedValues lookup() {
+            try {
+                var lookup = MethodHandles.publicLookup();
+                var type = Class.forName("java.lang.ScopedValue");
+                var carrier = Class.forName("java.lang.ScopedValue$Carrier");
+                return new ScopedValues(
+                        lookup.findStatic(type, "newInstance", MethodType.methodType(type)),
+                        lookup.findStatic(type, "where", MethodType.methodType(carrier, type, Object.class)),
+                        lookup.findVirtual(carrier, "run", MethodType.methodType(void.class, Runnable.class)),
+                        lookup.findVirtual(type, "isBound", MethodType.methodType(boolean.class)),
+                        lookup.findVirtual(type, "get", MethodType.methodType(Object.class)));
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                LOGGER.warn("ScopedValue is not available in this JVM, falling back to [{}]: [{}]", ContextStorage.THREAD_LOCAL, e.getMessage());
+                return null;
+            }
+        }
+
+        Object newInstance() {
+            return invoke(() -> newInstanceHandle.invoke());
+        }
+
+        boolean isBound(Object scopedValue) {
+            return (boolean) invoke(() -> isBoundHandle.invoke(scopedValue));
+        }
+
+        Object get(Object scopedValue) {
+            return invoke(() -> getHandle.invoke(scopedValue));
+        }
+
+        @SuppressWarnings("unchecked")
+        <R, X extends Throwable> R callWhere(Object scopedValue, Object value, ScopedCall<R, X> call) throws X {
+            var result = new Object[1];
+            var failure = new Throwable[1];
+            Runnable op = () -> {
+                try {
+                    result[0] = call.call();
+                } catch (Throwable t) {
+                    failure[0] = t;
+                }
+            };
+            invoke(() -> runHandle.invoke(whereHandle.invoke(scopedValue, value), op));
+            if (failure[0] != null) {
+                throw (X) failure[0];
+            }
+            return (R) result[0];
+        }
+
+        private static Object invoke(ScopedCall<Object, Throwable> call) {
+            try {
+                return call.call();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.context;
+
+import java.util.Locale;
+
+/**
+ * A ContextStorage is the backend used to store the {@link AmebaContext} that backs the context holders ({@code TenantHolder},
+ * {@code IdentityContextHolder}, {@code RequestIDHolder} and {@code CallContextHolder}).
+ * <p>
+ * The storage is selected once at startup with the system property {@value #PROPERTY} or the environment variable
+ * {@code AMEBA_CONTEXT_STORAGE}, because the holders are static.
+ *
+ * @author Heiko Scherrer
+ */
+public enum ContextStorage {
+
+    /** Values are stored in an {@link InheritableThreadLocal} and copied into every child thread (default). */
+    INHERITABLE_THREAD_LOCAL,
+    /** Values are stored in a {@link ThreadLocal} and not copied into child threads. */
+    THREAD_LOCAL,
+    /**
+     * Values are bound with a {@code java.lang.ScopedValue} for the scope of a call, suitable for virtual threads. Values that are
+     * set imperatively outside a scope are stored in a {@link ThreadLocal}.
+     */
+    SCOPED_VALUE;
+
+    /** Name of the system property to select the storage. */
+    public static final String PROPERTY = "ameba.context.storage";
+
+    /**
+     * Get the configured storage.
+     *
+     * @return The storage, {@link #INHERITABLE_THREAD_LOCAL} if not configured
+     */
+    public static ContextStorage configured() {
+        var value = System.getProperty(PROPERTY, System.getenv("AMEBA_CONTEXT_STORAGE"));
+        if (value == null || value.isBlank()) {
+            return INHERITABLE_THREAD_LOCAL;
+        }
+        return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * This package contains types to store and propagate the context of the current execution.
+ */
+package org.ameba.context;
\ No newline at end of file
@@ -0,0 +1,288 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.http;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.ameba.Constants;
+import org.ameba.IDGenerator;
+import org.ameba.LoggingCategories;
+import org.ameba.context.AmebaContext;
+import org.ameba.http.ctx.CallContextCodec;
+import org.ameba.http.ctx.CallContextHolder;
+import org.ameba.http.ctx.CallContextProvider;
+import org.ameba.http.identity.IdentityResolverStrategy;
+import org.ameba.http.identity.RequestHeaders;
+import org.ameba.tenancy.TenantMdc;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * A ContextBindingFilter replaces the chain of {@link RequestIDFilter}, {@code IdentityFilter}, {@code MultiTenantSessionFilter},
+ * {@code SLF4JMappedDiagnosticContextFilter} and the {@code CallContextInterceptor} with one filter. The request headers are read
+ * in a single pass, the identity strategy reads only the headers it asks for, the resulting {@link AmebaContext} is bound once
+ * for the scope of the filter chain, the MDC is populated once and everything is torn down once afterwards. The settings are
+ * fixed at construction time.
+ * <p>
+ * Requests that have been processed by this filter carry the request attribute {@link #BOUND}, the former filters and the
+ * interceptor step aside for them.
+ *
+ * @author Heiko Scherrer
+ */
+public class ContextBindingFilter extends OncePerRequestFilter {
+
+    /** Name of the request attribute that marks a request as processed by this filter. */
+    public static final String BOUND = ContextBindingFilter.class.getName() + ".BOUND";
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoggingCategories.BOOT);
+
+    private final IDGenerator<String> requestIDGenerator;
+    private final boolean multiTenancy;
+    private final boolean tenantRequired;
+    private final boolean tenantMdc;
+    private final UrlPatterns tenantUrlPatterns;
+    private final IdentityResolverStrategy identityStrategy;
+    private final boolean identityRequired;
+    private final UrlPatterns identityUrlPatterns;
+    private final CallContextProvider callContextProvider;
+    private final CallContextCodec callContextCodec;
+    private final boolean marksBound;
+
+    private ContextBindingFilter(Builder builder) {
+        requestIDGenerator = builder.requestIDGenerator;
+        multiTenancy = builder.multiTenancy;
+        tenantRequired = builder.tenantRequired;
+        tenantMdc = builder.tenantMdc;
+        tenantUrlPatterns = builder.tenantUrlPatterns;
+        identityStrategy = builder.identityStrategy;
+        identityRequired = builder.identityRequired;
+        identityUrlPatterns = builder.identityUrlPatterns;
+        callContextProvider = builder.callContextProvider;
+        callContextCodec = builder.callContextCodec;
+        marksBound = builder.marksBound;
+        if (marksBound) {
+            LOGGER.info("Initialized filter {}", this.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Create a new Builder.
+     *
+     * @return The builder instance
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String requestID = null, tenant = null, callContext = null, callerID = null;
+        var names = request.getHeaderNames();
+        while (names.hasMoreElements()) {
+            var name = names.nextElement();
+            if (Constants.HEADER_VALUE_X_REQUESTID.equalsIgnoreCase(name)) {
+                requestID = request.getHeader(name);
+            } else if (Constants.HEADER_VALUE_X_TENANT.equalsIgnoreCase(name)) {
+                tenant = request.getHeader(name);
+            } else if (Constants.HEADER_VALUE_X_CALL_CONTEXT.equalsIgnoreCase(name)) {
+                callContext = request.getHeader(name);
+            } else if (Constants.HEADER_VALUE_X_CALLERID.equalsIgnoreCase(name)) {
+                callerID = request.getHeader(name);
+            }
+        }
+
+        var ctx = AmebaContext.current();
+        if (requestIDGenerator != null) {
+            ctx = ctx.withRequestID(requestID == null ? requestIDGenerator.generate() : requestID);
+        }
+        if (multiTenancy && !"OPTIONS".equalsIgnoreCase(request.getMethod()) && tenantUrlPatterns.matches(request)) {
+            if (tenant == null || tenant.isEmpty()) {
+                if (tenantRequired) {
+                    response.setStatus(HttpStatus.BAD_REQUEST.value());
+                    throw new IllegalArgumentException(String.format("No tenant information available in http header. Expected header [%s] attribute not present.", Constants.HEADER_VALUE_X_TENANT));
+                }
+            } else {
+                ctx = ctx.withTenant(tenant);
+            }
+        }
+        if (identityStrategy != null && identityUrlPatterns.matches(request)) {
+            var identity = identityStrategy.getIdentity(RequestHeaders.of(request));
+            if (identity.isPresent()) {
+                ctx = ctx.withIdentity(identity.get().getId());
+            } else if (identityRequired) {
+                response.setStatus(HttpStatus.BAD_REQUEST.value());
+                throw new IllegalArgumentException(String.format("No identity information available in http header. Expected header [%s] attribute not set", Constants.HEADER_VALUE_X_IDENTITY));
+            }
+        }
+        if (callContextProvider != null && ctx.getCallContext() == null) {
+            ctx = ctx.withCallContext(CallContextHolder.resolve(callContextCodec, callContext, callerID, callContextProvider.getInitialCallContext()));
+        }
+
+        if (marksBound) {
+            request.setAttribute(BOUND, Boolean.TRUE);
+        }
+        var mdc = tenantMdc && ctx.getInternedTenant() != null;
+        if (mdc) {
+            TenantMdc.setContext(ctx.getInternedTenant(), ctx.getRequestID());
+        }
+        try {
+            var bound = ctx;
+            ScopedFilterChain.proceed(() -> AmebaContext.callWhere(bound, ScopedFilterChain.of(filterChain, request, response)));
+        } finally {
+            if (mdc) {
+                TenantMdc.clearContext();
+            }
+        }
+    }
+
+    /**
+     * {@code ContextBindingFilter} builder static inner class.
+     */
+    public static final class Builder {
+
+        private IDGenerator<String> requestIDGenerator;
+        private boolean multiTenancy;
+        private boolean tenantRequired;
+        private boolean tenantMdc;
+        private UrlPatterns tenantUrlPatterns = UrlPatterns.ALL;
+        private IdentityResolverStrategy identityStrategy;
+        private boolean identityRequired;
+        private UrlPatterns identityUrlPatterns = UrlPatterns.ALL;
+        private CallContextProvider callContextProvider;
+        private CallContextCodec callContextCodec;
+        private boolean marksBound = true;
+
+        private Builder() {
+        }
+
+        /**
+         * Used by facades that bind a part of the context only, so that the other filters do not step aside.
+         *
+         * @return a reference to this Builder
+         */
+        Builder asFacade() {
+            marksBound = false;
+            return this;
+        }
+
+        /**
+         * Bind the request ID, taken from the {@value Constants#HEADER_VALUE_X_REQUESTID} header or generated with {@code val}.
+         *
+         * @param val The generator of new request IDs
+         * @return a reference to this Builder
+         */
+        public Builder withRequestIDGenerator(IDGenerator<String> val) {
+            requestIDGenerator = val;
+            return this;
+        }
+
+        /**
+         * Bind the tenant taken from the {@value Constants#HEADER_VALUE_X_TENANT} header.
+         *
+         * @param required Whether requests without tenant are rejected
+         * @param mdc Whether the tenant and request ID are put into the MDC
+         * @return a reference to this Builder
+         */
+        public Builder withMultiTenancy(boolean required, boolean mdc) {
+            return withMultiTenancy(required, mdc, (String[]) null);
+        }
+
+        /**
+         * Bind the tenant taken from the {@value Constants#HEADER_VALUE_X_TENANT} header for requests that match one of the
+         * servlet {@code urlPatterns} only.
+         *
+         * @param required Whether requests without tenant are rejected
+         * @param mdc Whether the tenant and request ID are put into the MDC
+         * @param urlPatterns The servlet URL patterns, {@literal null} or empty for all requests
+         * @return a reference to this Builder
+         */
+        public Builder withMultiTenancy(boolean required, boolean mdc, String... urlPatterns) {
+            multiTenancy = true;
+            tenantRequired = required;
+            tenantMdc = mdc;
+            tenantUrlPatterns = UrlPatterns.of(urlPatterns);
+            return this;
+        }
+
+        /**
+         * Bind the identity resolved with {@code strategy}.
+         *
+         * @param strategy The strategy to resolve the identity
+         * @param required Whether requests without identity are rejected
+         * @return a reference to this Builder
+         */
+        public Builder withIdentity(IdentityResolverStrategy strategy, boolean required) {
+            return withIdentity(strategy, required, (String[]) null);
+        }
+
+        /**
+         * Bind the identity resolved with {@code strategy} for requests that match one of the servlet {@code urlPatterns} only.
+         *
+         * @param strategy The strategy to resolve the identity
+         * @param required Whether requests without identity are rejected
+         * @param urlPatterns The servlet URL patterns, {@literal null} or empty for all requests
+         * @return a reference to this Builder
+         */
+        public Builder withIdentity(IdentityResolverStrategy strategy, boolean required, String... urlPatterns) {
+            identityStrategy = strategy;
+            identityRequired = required;
+            identityUrlPatterns = UrlPatterns.of(urlPatterns);
+            return this;
+        }
+
+        /**
+         * Bind the CallContext taken from the {@value Constants#HEADER_VALUE_X_CALL_CONTEXT} header or provided by {@code val}.
+         *
+         * @param val The provider of the initial CallContext
+         * @return a reference to this Builder
+         */
+        public Builder withCallContext(CallContextProvider val) {
+            return withCallContext(val, new CallContextCodec());
+        }
+
+        /**
+         * Bind the CallContext taken from the {@value Constants#HEADER_VALUE_X_CALL_CONTEXT} header, decoded with {@code codec}, or
+         * provided by {@code val}.
+         *
+         * @param val The provider of the initial CallContext
+         * @param codec The codec to decode the header with
+         * @return a reference to this Builder
+         */
+        public Builder withCallContext(CallContextProvider val, CallContextCodec codec) {
+            callContextProvider = val;
+            callContextCodec = codec;
+            return this;
+        }
+
+        /**
+         * Returns a {@code ContextBindingFilter} built from the parameters previously set.
+         *
+         * @return a {@code ContextBindingFilter} built with parameters of this {@code ContextBindingFilter.Builder}
+         */
+        public ContextBindingFilter build() {
+            return new ContextBindingFilter(this);
+        }
+    }
+}
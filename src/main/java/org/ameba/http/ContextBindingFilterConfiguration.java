@@ -0,0 +1,79 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.http;
+
+import jakarta.servlet.DispatcherType;
+import org.ameba.IDGenerator;
+import org.ameba.JdkIDGenerator;
+import org.ameba.annotation.ExcludeFromScan;
+import org.ameba.http.ctx.CallContextCodec;
+import org.ameba.http.ctx.CallContextProvider;
+import org.ameba.http.identity.IdentityConfiguration;
+import org.ameba.http.identity.IdentityResolverStrategy;
+import org.ameba.http.multitenancy.MultiTenancyConfiguration;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+
+/**
+ * A ContextBindingFilterConfiguration registers the {@link ContextBindingFilter} instead of the separate filters, if
+ * {@code ameba.http.context-filter.enabled} is set to {@literal true}. Multi-tenancy and identity awareness are still enabled
+ * with their annotations, the filter takes over their settings including the {@code urlPatterns}, tenant and identity are
+ * only bound to requests that match them.
+ *
+ * @author Heiko Scherrer
+ */
+@ExcludeFromScan
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = ContextBindingFilterConfiguration.ENABLED, havingValue = "true")
+@AutoConfiguration
+public class ContextBindingFilterConfiguration {
+
+    /** Name of the property to enable the {@link ContextBindingFilter}. */
+    public static final String ENABLED = "ameba.http.context-filter.enabled";
+
+    /**
+     * Registers the ContextBindingFilter.
+     *
+     * @param idGenerator An optional generator of request IDs
+     * @param strategies An optional IdentityResolverStrategy that takes precedence over the one configured with the annotation
+     * @param callContextProvider An optional provider of the initial CallContext
+     * @param callContextCodec The codec of the CallContext header
+     * @return The registration bean instance
+     */
+    public @Bean FilterRegistrationBean<ContextBindingFilter> contextBindingFilter(ObjectProvider<IDGenerator<String>> idGenerator,
+            ObjectProvider<IdentityResolverStrategy> strategies, ObjectProvider<CallContextProvider> callContextProvider,
+            ObjectProvider<CallContextCodec> callContextCodec) {
+        var builder = ContextBindingFilter.newBuilder()
+                .withRequestIDGenerator(idGenerator.getIfUnique(JdkIDGenerator::new))
+                .withCallContext(callContextProvider.getIfUnique(), callContextCodec.getIfAvailable(CallContextCodec::new));
+        if (MultiTenancyConfiguration.enabled) {
+            builder.withMultiTenancy(MultiTenancyConfiguration.throwIfNotPresent, true, MultiTenancyConfiguration.urlPatterns);
+        }
+        if (IdentityConfiguration.enabled) {
+            builder.withIdentity(strategies.getIfUnique(() -> IdentityConfiguration.strategy), IdentityConfiguration.throwIfNotPresent,
+                    IdentityConfiguration.urlPatterns);
+        }
+        var registration = new FilterRegistrationBean<>(builder.build());
+        registration.setDispatcherTypes(DispatcherType.REQUEST);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+        return registration;
+    }
+}
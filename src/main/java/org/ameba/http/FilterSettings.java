@@ -0,0 +1,60 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.http;
+
+import jakarta.servlet.FilterConfig;
+import jakarta.servlet.ServletContext;
+
+/**
+ * A FilterSettings is the immutable, effective configuration of a filter that can be switched on and off and either rejects or
+ * ignores requests without the expected header. Filters resolve their settings once at initialization and keep them in a
+ * {@code volatile} field, a reconfiguration at runtime replaces the whole instance.
+ *
+ * @param enabled Whether the filter processes requests at all
+ * @param throwIfNotPresent Whether requests without the expected header are rejected
+ * @author Heiko Scherrer
+ */
+public record FilterSettings(boolean enabled, boolean throwIfNotPresent) {
+
+    /** Settings of a filter that does nothing. */
+    public static final FilterSettings DISABLED = new FilterSettings(false, false);
+
+    /**
+     * Resolve the settings from an attribute of the {@code servletContext} or, if not set there, from the init parameter of the
+     * {@code filterConfig} with the same name.
+     *
+     * @param filterConfig The configuration of the filter, may be {@literal null}
+     * @param servletContext The servlet context, may be {@literal null}
+     * @param enabledName Name of the attribute or parameter that enables the filter
+     * @param throwName Name of the attribute or parameter that enables rejection of requests without the header
+     * @return The settings
+     */
+    public static FilterSettings resolve(FilterConfig filterConfig, ServletContext servletContext, String enabledName,
+            String throwName) {
+        return new FilterSettings(
+                Boolean.parseBoolean(lookup(filterConfig, servletContext, enabledName)),
+                Boolean.parseBoolean(lookup(filterConfig, servletContext, throwName))
+        );
+    }
+
+    private static String lookup(FilterConfig filterConfig, ServletContext servletContext, String name) {
+        var fromSC = servletContext == null ? null : (String) servletContext.getAttribute(name);
+        if (fromSC != null) {
+            return fromSC;
+        }
+        return filterConfig == null ? null : filterConfig.getInitParameter(name);
+    }
+}
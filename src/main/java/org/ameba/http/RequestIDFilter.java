@@ -19,7 +19,6 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.ameba.Constants;
 import org.ameba.IDGenerator;
 import org.ameba.LoggingCategories;
 import org.slf4j.Logger;
@@ -30,18 +29,19 @@ import java.io.IOException;
 
 /**
  * A RequestIDFilter is responsible to attach a unique id to every incoming request. If the request has already an id assigned it is taken
- * over, otherwise a new id is generated (using an instance of {@link IDGenerator}) and attached to the current context.
+ * over, otherwise a new id is generated (using an instance of {@link IDGenerator}) and attached to the current context. It is a facade
+ * of the {@link ContextBindingFilter} and steps aside if that one has already processed the request.
  *
  * @author Heiko Scherrer
  */
 public class RequestIDFilter extends OncePerRequestFilter {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(LoggingCategories.BOOT);
-    private final IDGenerator<String> generator;
+    private final ContextBindingFilter delegate;
 
     public RequestIDFilter(IDGenerator<String> generator) {
         LOGGER.info("Initialized filter {}", this.getClass().getSimpleName());
-        this.generator = generator;
+        this.delegate = ContextBindingFilter.newBuilder().withRequestIDGenerator(generator).asFacade().build();
     }
 
     /**
@@ -49,15 +49,10 @@ public class RequestIDFilter extends OncePerRequestFilter {
      */
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
-            if (request.getHeader(Constants.HEADER_VALUE_X_REQUESTID) == null) {
-                RequestIDHolder.setRequestID(generator.generate());
-            } else {
-                RequestIDHolder.setRequestID(request.getHeader(Constants.HEADER_VALUE_X_REQUESTID));
-            }
-        try {
+        if (request.getAttribute(ContextBindingFilter.BOUND) != null) {
             filterChain.doFilter(request, response);
-        } finally {
-                RequestIDHolder.destroy();
+            return;
         }
+        delegate.doFilterInternal(request, response, filterChain);
     }
 }
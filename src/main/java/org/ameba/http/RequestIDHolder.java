@@ -15,15 +15,16 @@
  */
 package org.ameba.http;
 
+import org.ameba.context.AmebaContext;
+import org.ameba.context.ContextSlot;
+
 /**
- * A RequestHolder stores a requestID inside an inheritable thread local variable.
+ * A RequestHolder stores a requestID in the {@link AmebaContext} of the current execution.
  *
  * @author Heiko Scherrer
  */
 public final class RequestIDHolder {
 
-    private static final InheritableThreadLocal<String> holder = new InheritableThreadLocal<>();
-
     /** Private Constructor. */
     private RequestIDHolder() { }
 
@@ -33,7 +34,7 @@ public final class RequestIDHolder {
      * @return RequestID as String
      */
     public static String getRequestID() {
-        return holder.get();
+        return AmebaContext.current().getRequestID();
     }
 
     /**
@@ -42,7 +43,7 @@ public final class RequestIDHolder {
      * @param requestID Request id to set
      */
     public static void setRequestID(String requestID) {
-        holder.set(requestID);
+        AmebaContext.set(AmebaContext.current().withRequestID(requestID));
     }
 
     /**
@@ -51,13 +52,27 @@ public final class RequestIDHolder {
      * @return {@literal true} if so, otherwise {@literal false}
      */
     public static boolean hasRequestID() {
-        return holder.get() != null;
+        return getRequestID() != null;
+    }
+
+    /**
+     * Execute the {@code call} with {@code requestID} as current request ID.
+     *
+     * @param requestID Request id to bind
+     * @param call The operation
+     * @param <R> The type of the result
+     * @param <X> The type of the exception
+     * @return The result of the operation
+     * @throws X if the operation fails
+     */
+    public static <R, X extends Throwable> R callWith(String requestID, ContextSlot.ScopedCall<R, X> call) throws X {
+        return AmebaContext.callWhere(AmebaContext.current().withRequestID(requestID), call);
     }
 
     /**
      * Cleanup thread local.
      */
     public static void destroy() {
-        holder.remove();
+        AmebaContext.set(AmebaContext.current().withRequestID(null));
     }
 }
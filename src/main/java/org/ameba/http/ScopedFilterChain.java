@@ -0,0 +1,71 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.http;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.ameba.context.ContextSlot;
+
+import java.io.IOException;
+
+/**
+ * A ScopedFilterChain helps filters to pass a request down the {@link FilterChain} while context values are bound for the scope of
+ * the call.
+ *
+ * <pre>
+ *     ScopedFilterChain.proceed(() -&gt; TenantHolder.callWith(tenant, ScopedFilterChain.of(filterChain, request, response)));
+ * </pre>
+ *
+ * @author Heiko Scherrer
+ */
+public final class ScopedFilterChain {
+
+    private ScopedFilterChain() { }
+
+    /**
+     * Wrap the invocation of the {@code filterChain} into an operation.
+     *
+     * @param filterChain The chain of filters
+     * @param request Incoming request
+     * @param response Passed response
+     * @return The operation
+     */
+    public static ContextSlot.ScopedCall<Void, Exception> of(FilterChain filterChain, ServletRequest request, ServletResponse response) {
+        return () -> {
+            filterChain.doFilter(request, response);
+            return null;
+        };
+    }
+
+    /**
+     * Execute the {@code call} and pass the exceptions of the filter chain as they are.
+     *
+     * @param call The operation
+     * @throws ServletException Passed from the chain
+     * @throws IOException Passed from the chain
+     */
+    public static void proceed(ContextSlot.ScopedCall<?, Exception> call) throws ServletException, IOException {
+        try {
+            call.call();
+        } catch (ServletException | IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServletException(e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.http;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A UrlPatterns matches requests against servlet URL patterns the same way the servlet container maps filters: exact paths,
+ * path prefixes ending with {@code /*} and extensions starting with {@code *.}. It lets a single filter apply a concern only to
+ * the URLs a former separate filter was registered for.
+ *
+ * @author Heiko Scherrer
+ */
+final class UrlPatterns {
+
+    /** Matches every request. */
+    static final UrlPatterns ALL = new UrlPatterns(List.of(), List.of(), List.of());
+
+    private final List<String> exact;
+    private final List<String> prefixes;
+    private final List<String> extensions;
+
+    private UrlPatterns(List<String> exact, List<String> prefixes, List<String> extensions) {
+        this.exact = exact;
+        this.prefixes = prefixes;
+        this.extensions = extensions;
+    }
+
+    /**
+     * Create from servlet URL patterns.
+     *
+     * @param patterns The patterns, {@literal null} or empty to match every request
+     * @return The instance
+     */
+    static UrlPatterns of(String... patterns) {
+        if (patterns == null || patterns.length == 0) {
+            return ALL;
+        }
+        var exact = new ArrayList<String>();
+        var prefixes = new ArrayList<String>();
+        var extensions = new ArrayList<String>();
+        for (var pattern : patterns) {
+            if ("/*".equals(pattern) || "/".equals(pattern)) {
+                return ALL;
+            } else if (pattern.endsWith("/*")) {
+                prefixes.add(pattern.substring(0, pattern.length() - 2));
+            } else if (pattern.startsWith("*.")) {
+                extensions.add(pattern.substring(1));
+            } else {
+                exact.add(pattern);
+            }
+        }
+        return new UrlPatterns(List.copyOf(exact), List.copyOf(prefixes), List.copyOf(extensions));
+    }
+
+    /**
+     * Check whether the path of the {@code request} within the application matches one of the patterns.
+     *
+     * @param request The current request
+     * @return {@literal true} if so
+     */
+    boolean matches(HttpServletRequest request) {
+        if (this == ALL) {
+            return true;
+        }
+        var path = UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+        if (exact.contains(path)) {
+            return true;
+        }
+        for (var prefix : prefixes) {
+            if (path.equals(prefix) || path.startsWith(prefix) && path.charAt(prefix.length()) == '/') {
+                return true;
+            }
+        }
+        for (var extension : extensions) {
+            if (path.endsWith(extension) && path.lastIndexOf('/') < path.length() - extension.length()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -17,8 +17,10 @@ package org.ameba.http;
 
 import org.ameba.annotation.ExcludeFromScan;
 import org.ameba.http.ctx.CallContextClientRequestInterceptor;
+import org.ameba.http.ctx.CallContextCodec;
 import org.ameba.http.identity.IdentityClientRequestInterceptor;
 import org.ameba.http.multitenancy.TenantClientRequestInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
@@ -44,9 +46,9 @@ public class WebMvcConfiguration implements WebMvcConfigurer {
      *
      * Propagate context information with the RestTemplate.
      */
-    public @Bean List<BaseClientHttpRequestInterceptor> baseRestTemplateInterceptors() {
+    public @Bean List<BaseClientHttpRequestInterceptor> baseRestTemplateInterceptors(ObjectProvider<CallContextCodec> callContextCodec) {
         return new ArrayList<>(asList(
-                new CallContextClientRequestInterceptor(),
+                new CallContextClientRequestInterceptor(callContextCodec.getIfAvailable(CallContextCodec::new)),
                 new IdentityClientRequestInterceptor(),
                 new TenantClientRequestInterceptor()
         ));
@@ -39,6 +39,10 @@ public class CallContext implements Serializable {
     private String traceId;
     /** Arbitrary details populated as part of the {@link CallContext}. */
     private Map<String, Serializable> details = new HashMap<>();
+    /** The memoized encoded form, valid as long as caller and traceId are not set and details are equal to the snapshot. */
+    private transient String encoded;
+    /** Snapshot of the details when the encoded form has been memoized. */
+    private transient Map<String, Serializable> encodedDetails;
 
     @Default
     public CallContext() {}
@@ -59,6 +63,7 @@ public class CallContext implements Serializable {
 
     void setCaller(String caller) {
         this.caller = caller;
+        this.encoded = null;
     }
 
     /**
@@ -82,6 +87,7 @@ public class CallContext implements Serializable {
 
     public void setTraceId(String traceId) {
         this.traceId = traceId;
+        this.encoded = null;
     }
 
     /**
@@ -95,6 +101,42 @@ public class CallContext implements Serializable {
 
     void setDetails(Map<String, Serializable> details) {
         this.details = details;
+        this.encoded = null;
+    }
+
+    /**
+     * Create a copy of this CallContext with its own details that shares the memoized encoded form with this instance. This instance
+     * must not be modified afterwards, so that concurrent copies read a stable state.
+     *
+     * @return The copy
+     */
+    CallContext copy() {
+        var result = new CallContext(caller);
+        result.traceId = traceId;
+        result.details = details == null ? null : new HashMap<>(details);
+        result.encoded = encoded;
+        result.encodedDetails = encodedDetails;
+        return result;
+    }
+
+    /**
+     * Get the memoized encoded form of this CallContext.
+     *
+     * @return The encoded String or {@literal null} if not memoized or the CallContext has changed since
+     */
+    String getEncoded() {
+        var result = encoded;
+        return result != null && Objects.equals(details, encodedDetails) ? result : null;
+    }
+
+    /**
+     * Memoize the encoded form of the current state of this CallContext.
+     *
+     * @param encoded The encoded String
+     */
+    void setEncoded(String encoded) {
+        this.encodedDetails = details == null ? null : new HashMap<>(details);
+        this.encoded = encoded;
     }
 
     /**
@@ -35,13 +35,30 @@ import static org.ameba.LoggingCategories.CALL_CONTEXT;
 public class CallContextClientRequestInterceptor implements BaseClientHttpRequestInterceptor {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CALL_CONTEXT);
+    private final CallContextCodec codec;
+
+    /**
+     * Create an interceptor that encodes with a codec of default settings.
+     */
+    public CallContextClientRequestInterceptor() {
+        this(new CallContextCodec());
+    }
+
+    /**
+     * Create an interceptor.
+     *
+     * @param codec The codec to encode the CallContext with
+     */
+    public CallContextClientRequestInterceptor(CallContextCodec codec) {
+        this.codec = codec;
+    }
 
     /**
      * {@inheritDoc}
      */
     @Override
     public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
-        var ctx = CallContextHolder.getEncodedCallContext();
+        var ctx = CallContextHolder.getEncodedCallContext(codec);
         if (ctx.isPresent()) {
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("CTXClientRequestInterceptor: Add encoded CallContext to outgoing request [{}]", ctx.get());
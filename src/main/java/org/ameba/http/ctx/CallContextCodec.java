@@ -0,0 +1,331 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.http.ctx;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A CallContextCodec encodes a {@link CallContext} into the Base64 String that is sent in the
+ * {@value org.ameba.Constants#HEADER_VALUE_X_CALL_CONTEXT} header and the {@code owms_callcontext} message header, and decodes
+ * it again.
+ * <p>
+ * Two wire formats exist. {@link Format#JSON} is the original Jackson JSON representation. {@link Format#BINARY} starts with
+ * a magic byte, a version byte and a flags byte, followed by the caller, the traceId and the details with typed values
+ * ({@code String}, {@code Integer}, {@code Long}, {@code Double} and {@code Boolean}). The binary body is deflated if it exceeds
+ * the compression threshold. A CallContext with details of other types is always encoded as JSON.
+ * <p>
+ * The decoder detects the format of the received value, so services that only speak JSON keep working during a rolling
+ * upgrade: first deploy all services with the (default) JSON format, then switch the format to BINARY.
+ * <p>
+ * Encoded values must not exceed the maximum size. Larger CallContexts are truncated by dropping details, the largest entry
+ * first, until the value fits. Caller and traceId are never dropped. If the value does not fit even without details, no value is
+ * encoded at all.
+ * <p>
+ * Each codec keeps a bounded cache of recently decoded values (see {@link #decodeCached(String)}), so that an instance is meant to
+ * be shared, e.g. as a Spring bean.
+ *
+ * @author Heiko Scherrer
+ */
+public final class CallContextCodec {
+
+    /** Supported wire formats. */
+    public enum Format {
+        /** Jackson JSON, understood by all versions. */
+        JSON,
+        /** Compact binary, version 1. */
+        BINARY
+    }
+
+    /** Default size in bytes of the binary body above which it is compressed. */
+    public static final int DEFAULT_COMPRESSION_THRESHOLD = 512;
+    /** Default maximum length of the encoded String. */
+    public static final int DEFAULT_MAX_SIZE = 4096;
+    /** Default number of decoded values that are cached. */
+    public static final int DEFAULT_DECODE_CACHE_SIZE = 256;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CallContextCodec.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectReader READER = MAPPER.readerFor(CallContext.class);
+    private static final ObjectWriter WRITER = MAPPER.writerFor(CallContext.class);
+    private static final byte MAGIC = (byte) 0xCA;
+    private static final byte VERSION = 1;
+    private static final int FLAG_DEFLATED = 1;
+    private static final int FLAG_TRUNCATED = 2;
+    private static final int MAX_INFLATED_SIZE = 64 * 1024;
+    private static final byte T_NULL = 0, T_STRING = 1, T_INT = 2, T_LONG = 3, T_DOUBLE = 4, T_BOOLEAN = 5;
+
+    private final Format format;
+    private final int compressionThreshold;
+    private final int maxSize;
+    private final DecodedCallContextCache decodeCache;
+
+    /**
+     * Create a codec that writes JSON with default settings.
+     */
+    public CallContextCodec() {
+        this(Format.JSON, DEFAULT_COMPRESSION_THRESHOLD, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Create a codec.
+     *
+     * @param format The format to write, both formats are always read
+     * @param compressionThreshold The size of the binary body in bytes above which it is compressed
+     * @param maxSize The maximum length of the encoded String
+     */
+    public CallContextCodec(Format format, int compressionThreshold, int maxSize) {
+        this(format, compressionThreshold, maxSize, DEFAULT_DECODE_CACHE_SIZE);
+    }
+
+    /**
+     * Create a codec.
+     *
+     * @param format The format to write, both formats are always read
+     * @param compressionThreshold The size of the binary body in bytes above which it is compressed
+     * @param maxSize The maximum length of the encoded String
+     * @param decodeCacheSize The maximum number of cached decoded values, {@literal 0} disables caching
+     */
+    public CallContextCodec(Format format, int compressionThreshold, int maxSize, int decodeCacheSize) {
+        this.format = format;
+        this.compressionThreshold = compressionThreshold;
+        this.maxSize = maxSize;
+        this.decodeCache = new DecodedCallContextCache(this, decodeCacheSize);
+    }
+
+    /**
+     * Encode the {@code callContext}.
+     *
+     * @param callContext The instance to encode
+     * @return The Base64 encoded String or {@literal null} if it exceeds the maximum size even without details
+     * @throws IOException if serialization fails
+     */
+    public String encode(CallContext callContext) throws IOException {
+        var result = encode(callContext, false);
+        if (result.length() <= maxSize) {
+            return result;
+        }
+        var details = callContext.getDetails() == null ? Map.<String, Serializable>of() : callContext.getDetails();
+        var entries = new ArrayList<>(details.entrySet());
+        entries.sort(Comparator.comparingInt(CallContextCodec::sizeOf));
+        var truncated = new CallContext(callContext.getCaller());
+        truncated.setTraceId(callContext.getTraceId());
+        var remaining = new HashMap<String, Serializable>(details.size());
+        entries.forEach(e -> remaining.put(e.getKey(), e.getValue()));
+        truncated.setDetails(remaining);
+        for (var i = entries.size() - 1; i >= 0 && result.length() > maxSize; i--) {
+            remaining.remove(entries.get(i).getKey());
+            result = encode(truncated, true);
+        }
+        if (result.length() > maxSize) {
+            LOGGER.warn("CallContext of caller [{}] exceeds the maximum size of [{}] and is not propagated", callContext.getCaller(), maxSize);
+            return null;
+        }
+        LOGGER.warn("CallContext of caller [{}] exceeds the maximum size of [{}], details truncated to [{}]",
+                callContext.getCaller(), maxSize, remaining.keySet());
+        return result;
+    }
+
+    /**
+     * Decode the {@code encoded} String like {@link #decode(String)}, recently decoded Strings are answered from a bounded cache.
+     *
+     * @param encoded The Base64 encoded String
+     * @return A decoded instance that is owned by the caller
+     * @throws IOException if the String can not be decoded, failures are not cached
+     */
+    public CallContext decodeCached(String encoded) throws IOException {
+        return decodeCache.decode(encoded);
+    }
+
+    /**
+     * Decode the {@code encoded} String, regardless of the format it has been written in. If the String is in the format this codec
+     * writes, it is memoized on the result to be propagated as is.
+     *
+     * @param encoded The Base64 encoded String
+     * @return The decoded instance
+     * @throws IOException if the String can not be decoded
+     */
+    public CallContext decode(String encoded) throws IOException {
+        byte[] bytes;
+        try {
+            bytes = Base64.getDecoder().decode(encoded);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("CallContext is not Base64 encoded", e);
+        }
+        var binary = bytes.length > 0 && bytes[0] == MAGIC;
+        CallContext result = binary ? decodeBinary(bytes) : READER.readValue(bytes);
+        if (binary == (format == Format.BINARY) && encoded.length() <= maxSize) {
+            result.setEncoded(encoded);
+        }
+        return result;
+    }
+
+    private String encode(CallContext callContext, boolean truncated) throws IOException {
+        if (format == Format.BINARY && isBinaryCompatible(callContext.getDetails())) {
+            return Base64.getEncoder().encodeToString(encodeBinary(callContext, truncated));
+        }
+        return Base64.getEncoder().encodeToString(WRITER.writeValueAsBytes(callContext));
+    }
+
+    private static boolean isBinaryCompatible(Map<String, Serializable> details) {
+        if (details == null) {
+            return true;
+        }
+        for (var value : details.values()) {
+            if (!(value == null || value instanceof String || value instanceof Integer || value instanceof Long
+                    || value instanceof Double || value instanceof Boolean)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte[] encodeBinary(CallContext callContext, boolean truncated) throws IOException {
+        var body = new ByteArrayOutputStream(128);
+        var out = new DataOutputStream(body);
+        writeString(out, callContext.getCaller());
+        writeString(out, callContext.getTraceId());
+        var details = callContext.getDetails() == null ? Map.<String, Serializable>of() : callContext.getDetails();
+        out.writeShort(details.size());
+        for (var entry : details.entrySet()) {
+            writeString(out, entry.getKey());
+            switch (entry.getValue()) {
+                case null -> out.writeByte(T_NULL);
+                case String s -> { out.writeByte(T_STRING); out.writeUTF(s); }
+                case Integer i -> { out.writeByte(T_INT); out.writeInt(i); }
+                case Long l -> { out.writeByte(T_LONG); out.writeLong(l); }
+                case Double d -> { out.writeByte(T_DOUBLE); out.writeDouble(d); }
+                case Boolean b -> { out.writeByte(T_BOOLEAN); out.writeBoolean(b); }
+                default -> throw new IOException("Unsupported type of CallContext detail [" + entry.getKey() + "]");
+            }
+        }
+        var flags = truncated ? FLAG_TRUNCATED : 0;
+        var payload = body.toByteArray();
+        if (payload.length > compressionThreshold) {
+            payload = deflate(payload);
+            flags |= FLAG_DEFLATED;
+        }
+        var result = new byte[payload.length + 3];
+        result[0] = MAGIC;
+        result[1] = VERSION;
+        result[2] = (byte) flags;
+        System.arraycopy(payload, 0, result, 3, payload.length);
+        return result;
+    }
+
+    private static CallContext decodeBinary(byte[] bytes) throws IOException {
+        if (bytes.length < 3 || bytes[1] != VERSION) {
+            throw new IOException("Unsupported binary CallContext version");
+        }
+        var flags = bytes[2];
+        var body = (flags & FLAG_DEFLATED) != 0 ? inflate(bytes) : new ByteArrayInputStream(bytes, 3, bytes.length - 3);
+        var in = new DataInputStream(body);
+        var result = new CallContext(readString(in));
+        result.setTraceId(readString(in));
+        var size = in.readUnsignedShort();
+        var details = new HashMap<String, Serializable>(Math.max(4, size * 2));
+        for (var i = 0; i < size; i++) {
+            var key = readString(in);
+            details.put(key, switch (in.readByte()) {
+                case T_NULL -> null;
+                case T_STRING -> in.readUTF();
+                case T_INT -> in.readInt();
+                case T_LONG -> in.readLong();
+                case T_DOUBLE -> in.readDouble();
+                case T_BOOLEAN -> in.readBoolean();
+                default -> throw new IOException("Unsupported type of CallContext detail [" + key + "]");
+            });
+        }
+        result.setDetails(details);
+        if ((flags & FLAG_TRUNCATED) != 0 && LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Received a truncated CallContext of caller [{}]", result.getCaller());
+        }
+        return result;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static int sizeOf(Map.Entry<String, Serializable> entry) {
+        return entry.getKey().length() + (entry.getValue() == null ? 0 : String.valueOf(entry.getValue()).length());
+    }
+
+    private static byte[] deflate(byte[] bytes) {
+        var deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            var out = new ByteArrayOutputStream(bytes.length);
+            var buffer = new byte[512];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static ByteArrayInputStream inflate(byte[] bytes) throws IOException {
+        var inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, 3, bytes.length - 3);
+            var out = new ByteArrayOutputStream(bytes.length * 4);
+            var buffer = new byte[512];
+            while (!inflater.finished()) {
+                var n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Compressed CallContext is incomplete");
+                }
+                out.write(buffer, 0, n);
+                if (out.size() > MAX_INFLATED_SIZE) {
+                    throw new IOException("Compressed CallContext exceeds the maximum size");
+                }
+            }
+            return new ByteArrayInputStream(out.toByteArray());
+        } catch (DataFormatException e) {
+            throw new IOException("Compressed CallContext is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
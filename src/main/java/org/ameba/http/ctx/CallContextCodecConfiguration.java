@@ -0,0 +1,53 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.http.ctx;
+
+import org.ameba.annotation.ExcludeFromScan;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.Locale;
+
+/**
+ * A CallContextCodecConfiguration configures the wire format of the CallContext. The {@link CallContextCodec} bean is injected into
+ * all components that propagate the CallContext.
+ *
+ * <ul>
+ *     <li>{@code ameba.call-context.wire-format}: {@code json} (default) or {@code binary}, switch to binary after all services
+ *     understand it</li>
+ *     <li>{@code ameba.call-context.compression-threshold}: Size of the binary body in bytes above which it is compressed</li>
+ *     <li>{@code ameba.call-context.max-size}: Maximum length of the encoded header value</li>
+ *     <li>{@code ameba.call-context.decode-cache-size}: Number of decoded inbound header values that are cached, {@literal 0}
+ *     disables the cache</li>
+ * </ul>
+ *
+ * @author Heiko Scherrer
+ */
+@ExcludeFromScan
+@AutoConfiguration
+public class CallContextCodecConfiguration {
+
+    @Bean
+    public CallContextCodec callContextCodec(
+            @Value("${ameba.call-context.wire-format:json}") String wireFormat,
+            @Value("${ameba.call-context.compression-threshold:" + CallContextCodec.DEFAULT_COMPRESSION_THRESHOLD + "}") int compressionThreshold,
+            @Value("${ameba.call-context.max-size:" + CallContextCodec.DEFAULT_MAX_SIZE + "}") int maxSize,
+            @Value("${ameba.call-context.decode-cache-size:" + CallContextCodec.DEFAULT_DECODE_CACHE_SIZE + "}") int decodeCacheSize) {
+        return new CallContextCodec(CallContextCodec.Format.valueOf(wireFormat.toUpperCase(Locale.ROOT)), compressionThreshold, maxSize,
+                decodeCacheSize);
+    }
+}
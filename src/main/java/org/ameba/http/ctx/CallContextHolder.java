@@ -15,20 +15,20 @@
  */
 package org.ameba.http.ctx;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.ameba.context.AmebaContext;
+import org.ameba.context.ContextSlot;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.util.Base64;
 import java.util.Optional;
 import java.util.function.Supplier;
 
 import static org.ameba.LoggingCategories.CALL_CONTEXT;
 
 /**
- * A CallContextHolder provides access to the {@link CallContext} of the current request execution.
+ * A CallContextHolder provides access to the {@link CallContext} of the current request execution. Methods that encode or decode
+ * the CallContext accept the {@link CallContextCodec} to use, the overloads without codec use a codec with default settings.
  *
  * @author Heiko Scherrer
  */
@@ -36,7 +36,7 @@ public final class CallContextHolder {
 
     private static final Logger EXC_LOGGER = LoggerFactory.getLogger(CallContextHolder.class);
     private static final Logger LOGGER = LoggerFactory.getLogger(CALL_CONTEXT);
-    private static final InheritableThreadLocal<CallContext> callContext = new InheritableThreadLocal<>();
+    private static final CallContextCodec DEFAULT_CODEC = new CallContextCodec();
 
     private CallContextHolder() {}
 
@@ -46,7 +46,7 @@ public final class CallContextHolder {
      * @return The thread-bound instance
      */
     public static Optional<CallContext> getOptionalCallContext() {
-        return Optional.ofNullable(callContext.get());
+        return Optional.ofNullable(AmebaContext.current().getCallContext());
     }
 
     /**
@@ -68,18 +68,60 @@ public final class CallContextHolder {
     }
 
     /**
-     * Get the {@link CallContext} as base64 encoded String.
+     * Get the {@link CallContext} as base64 encoded String. The encoded String is memoized on the CallContext and reused until the
+     * CallContext changes.
      *
      * @return Base64 encoded String
      */
     public static Optional<String> getEncodedCallContext() {
-        if (callContext.get() == null) {
+        return getEncodedCallContext(DEFAULT_CODEC);
+    }
+
+    /**
+     * Get the {@link CallContext} encoded with the {@code codec}. The encoded String is memoized on the CallContext and reused until
+     * the CallContext changes.
+     *
+     * @param codec The codec
+     * @return Base64 encoded String
+     */
+    public static Optional<String> getEncodedCallContext(CallContextCodec codec) {
+        return encode(codec, AmebaContext.current().getCallContext());
+    }
+
+    /**
+     * Get the given {@link CallContext} as base64 encoded String. The encoded String is memoized on the CallContext and reused until
+     * the CallContext changes.
+     *
+     * @param ctx The CallContext, may be {@literal null}
+     * @return Base64 encoded String
+     */
+    public static Optional<String> encode(CallContext ctx) {
+        return encode(DEFAULT_CODEC, ctx);
+    }
+
+    /**
+     * Get the given {@link CallContext} encoded with the {@code codec}. The encoded String is memoized on the CallContext and reused
+     * until the CallContext changes.
+     *
+     * @param codec The codec
+     * @param ctx The CallContext, may be {@literal null}
+     * @return Base64 encoded String
+     */
+    public static Optional<String> encode(CallContextCodec codec, CallContext ctx) {
+        if (ctx == null) {
             return Optional.empty();
         }
+        var encoded = ctx.getEncoded();
+        if (encoded != null) {
+            return Optional.of(encoded);
+        }
         try {
-            var om = new ObjectMapper();
-            return Optional.of(Base64.getEncoder().encodeToString(om.writeValueAsBytes(callContext.get())));
-        } catch (JsonProcessingException e) {
+            encoded = codec.encode(ctx);
+            if (encoded != null) {
+                ctx.setEncoded(encoded);
+            }
+            return Optional.ofNullable(encoded);
+        } catch (IOException e) {
             EXC_LOGGER.error(e.getMessage(), e);
         }
         return Optional.empty();
@@ -92,30 +134,91 @@ public final class CallContextHolder {
      * @param defaultCallContext The default CallContext used when no CallContext is provided by callContextString
      */
     public static void setCallContext(Supplier<String> callContextString, CallContext defaultCallContext) {
-        if (callContextString == null || callContextString.get() == null || callContextString.get().isEmpty()) {
+        setCallContext(DEFAULT_CODEC, callContextString, defaultCallContext);
+    }
+
+    /**
+     * Initialize the {@link CallContext} with the given {@code callContextString}, decoded with the {@code codec}.
+     *
+     * @param codec The codec
+     * @param callContextString The base64 encoded CallContext as String
+     * @param defaultCallContext The default CallContext used when no CallContext is provided by callContextString
+     */
+    public static void setCallContext(CallContextCodec codec, Supplier<String> callContextString, CallContext defaultCallContext) {
+        var ctx = resolve(codec, callContextString == null ? null : callContextString.get(), null, defaultCallContext);
+        if (ctx != null || callContextString == null || callContextString.get() == null || callContextString.get().isEmpty()) {
+            setCallContext(ctx);
+        }
+    }
+
+    /**
+     * Resolve the {@link CallContext} from the given base64 encoded {@code callContextString} without binding it. Recently seen header
+     * values are answered from a bounded cache of decoded CallContexts, the result is always a private copy.
+     *
+     * @param callContextString The base64 encoded CallContext as String, may be {@literal null}
+     * @param caller The callerId to populate the CallContext with, may be {@literal null}
+     * @param defaultCallContext The default CallContext used when no CallContext is provided by callContextString
+     * @return The CallContext or {@literal null} if it can not be decoded
+     */
+    public static CallContext resolve(String callContextString, String caller, CallContext defaultCallContext) {
+        return resolve(DEFAULT_CODEC, callContextString, caller, defaultCallContext);
+    }
+
+    /**
+     * Resolve the {@link CallContext} from the given {@code callContextString}, decoded with the {@code codec}, without binding it.
+     *
+     * @param codec The codec
+     * @param callContextString The base64 encoded CallContext as String, may be {@literal null}
+     * @param caller The callerId to populate the CallContext with, may be {@literal null}
+     * @param defaultCallContext The default CallContext used when no CallContext is provided by callContextString
+     * @return The CallContext or {@literal null} if it can not be decoded
+     */
+    public static CallContext resolve(CallContextCodec codec, String callContextString, String caller, CallContext defaultCallContext) {
+        CallContext ctx;
+        if (callContextString == null || callContextString.isEmpty()) {
             if (LOGGER.isTraceEnabled()) {
                 LOGGER.trace("CTXHolder: Initialized CallContext [{}] with default", defaultCallContext);
             }
-            callContext.set(defaultCallContext);
-            return;
-        }
-        var binaryCallContext = Base64.getDecoder().decode(callContextString.get());
-        try {
-            var om = new ObjectMapper();
-            var ctx = om.readValue(binaryCallContext, CallContext.class);
-            if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("CTXHolder: Decoded CallContext [{}]", ctx);
+            ctx = defaultCallContext;
+        } else {
+            try {
+                ctx = codec.decodeCached(callContextString);
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("CTXHolder: Decoded CallContext [{}]", ctx);
+                }
+            } catch (IOException e) {
+                EXC_LOGGER.error("Decoded CallContext does not match the current CallContext version of the receiver. " + e.getMessage(), e);
+                return null;
             }
-            callContext.set(ctx);
-        } catch (IOException e) {
-            EXC_LOGGER.error("Decoded CallContext does not match the current CallContext version of the receiver. " + e.getMessage(), e);
         }
+        if (ctx != null && caller != null && !caller.isEmpty()) {
+            ctx.setCaller(caller);
+        }
+        return ctx;
+    }
+
+    /**
+     * Execute the {@code call} with {@code ctx} as current {@link CallContext}.
+     *
+     * @param ctx The CallContext to bind
+     * @param call The operation
+     * @param <R> The type of the result
+     * @param <X> The type of the exception
+     * @return The result of the operation
+     * @throws X if the operation fails
+     */
+    public static <R, X extends Throwable> R callWith(CallContext ctx, ContextSlot.ScopedCall<R, X> call) throws X {
+        return AmebaContext.callWhere(AmebaContext.current().withCallContext(ctx), call);
+    }
+
+    private static void setCallContext(CallContext ctx) {
+        AmebaContext.set(AmebaContext.current().withCallContext(ctx));
     }
 
     /**
      * Destroy the thread-bound {@link CallContext}.
      */
     public static void destroy() {
-        callContext.remove();
+        setCallContext(null);
     }
 }
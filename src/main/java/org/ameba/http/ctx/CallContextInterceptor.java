@@ -17,6 +17,7 @@ package org.ameba.http.ctx;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.ameba.http.ContextBindingFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.servlet.HandlerInterceptor;
@@ -27,7 +28,8 @@ import static org.ameba.Constants.HEADER_VALUE_X_CALL_CONTEXT;
 import static org.ameba.LoggingCategories.CALL_CONTEXT;
 
 /**
- * A CallContextInterceptor resolves the CallContext from a request and initializes the current CallContext.
+ * A CallContextInterceptor resolves the CallContext from a request and initializes the current CallContext. Requests that have been
+ * processed by the {@link ContextBindingFilter} are passed on untouched.
  *
  * @author Heiko Scherrer
  */
@@ -35,9 +37,15 @@ public class CallContextInterceptor implements HandlerInterceptor {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CALL_CONTEXT);
     private final CallContextProvider callContextProvider;
+    private final CallContextCodec codec;
 
     public CallContextInterceptor(CallContextProvider callContextProvider) {
+        this(callContextProvider, new CallContextCodec());
+    }
+
+    public CallContextInterceptor(CallContextProvider callContextProvider, CallContextCodec codec) {
         this.callContextProvider = callContextProvider;
+        this.codec = codec;
     }
 
     /**
@@ -53,8 +61,11 @@ public class CallContextInterceptor implements HandlerInterceptor {
         if (LOGGER.isTraceEnabled()) {
             LOGGER.trace("CTXInterceptor: Enter preHandle");
         }
+        if (request.getAttribute(ContextBindingFilter.BOUND) != null) {
+            return true;
+        }
         if (CallContextHolder.getOptionalCallContext().isEmpty()) {
-            CallContextHolder.setCallContext(() -> request.getHeader(HEADER_VALUE_X_CALL_CONTEXT), callContextProvider.getInitialCallContext());
+            CallContextHolder.setCallContext(codec, () -> request.getHeader(HEADER_VALUE_X_CALL_CONTEXT), callContextProvider.getInitialCallContext());
             CallContextHolder.setCaller(() -> request.getHeader(HEADER_VALUE_X_CALLERID));
         } else {
             LOGGER.warn("CTXInterceptor: CallContext already initialized");
@@ -72,7 +83,9 @@ public class CallContextInterceptor implements HandlerInterceptor {
         if (LOGGER.isTraceEnabled()) {
             LOGGER.trace("CTXInterceptor: Enter postHandle");
         }
-        CallContextHolder.destroy();
+        if (request.getAttribute(ContextBindingFilter.BOUND) == null) {
+            CallContextHolder.destroy();
+        }
         HandlerInterceptor.super.postHandle(request, response, handler, modelAndView);
     }
 }
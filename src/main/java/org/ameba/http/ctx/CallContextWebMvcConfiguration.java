@@ -16,6 +16,7 @@
 package org.ameba.http.ctx;
 
 import org.ameba.annotation.ExcludeFromScan;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
@@ -34,12 +35,18 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 public class CallContextWebMvcConfiguration implements WebMvcConfigurer {
 
     private CallContextProvider callContextProvider;
+    private CallContextCodec callContextCodec;
 
     @Autowired
     public void setCallContextProvider(CallContextProvider callContextProvider) {
         this.callContextProvider = callContextProvider;
     }
 
+    @Autowired
+    public void setCallContextCodec(ObjectProvider<CallContextCodec> callContextCodec) {
+        this.callContextCodec = callContextCodec.getIfAvailable(CallContextCodec::new);
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -51,6 +58,6 @@ public class CallContextWebMvcConfiguration implements WebMvcConfigurer {
     }
 
     public @Bean CallContextInterceptor callContextInterceptor() {
-        return new CallContextInterceptor(callContextProvider);
+        return new CallContextInterceptor(callContextProvider, callContextCodec);
     }
 }
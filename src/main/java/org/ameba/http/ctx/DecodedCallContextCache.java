@@ -0,0 +1,76 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.http.ctx;
+
+import org.ameba.system.BoundedConcurrentMap;
+
+import java.io.IOException;
+
+/**
+ * A DecodedCallContextCache is a bounded cache that maps a raw {@code X-CallContext} header value to the {@link CallContext}
+ * decoded from it. The cached instance is a template that is never handed out, callers get a copy of it (see
+ * {@link CallContext#copy()}). Upstream callers that fan out many requests with the same header are therefore decoded once.
+ * Lookups do not lock (see {@link BoundedConcurrentMap}).
+ *
+ * @author Heiko Scherrer
+ */
+final class DecodedCallContextCache {
+
+    private final CallContextCodec codec;
+    private final BoundedConcurrentMap<String, CallContext> templates;
+
+    /**
+     * Create a cache.
+     *
+     * @param codec The codec to decode header values with
+     * @param maxSize The maximum number of cached header values, {@literal 0} disables caching
+     */
+    DecodedCallContextCache(CallContextCodec codec, int maxSize) {
+        this.codec = codec;
+        this.templates = maxSize <= 0 ? null : new BoundedConcurrentMap<>(maxSize);
+    }
+
+    /**
+     * Decode the header value {@code encoded} or answer it from the cache.
+     *
+     * @param encoded The raw header value
+     * @return A CallContext that is owned by the caller or {@literal null} if the header value decodes to nothing
+     * @throws IOException If decoding fails, failures are not cached
+     */
+    CallContext decode(String encoded) throws IOException {
+        if (templates == null) {
+            return codec.decode(encoded);
+        }
+        var template = templates.get(encoded);
+        if (template == null) {
+            template = codec.decode(encoded);
+            if (template == null) {
+                return null;
+            }
+            templates.put(encoded, template);
+        }
+        return template.copy();
+    }
+
+    /**
+     * Get the current number of cached header values.
+     *
+     * @return The size
+     */
+    int size() {
+        return templates == null ? 0 : templates.size();
+    }
+}
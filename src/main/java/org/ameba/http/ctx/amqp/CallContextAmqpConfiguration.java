@@ -18,7 +18,9 @@ package org.ameba.http.ctx.amqp;
 import org.ameba.amqp.MessageHeaderEnhancer;
 import org.ameba.amqp.MessagePostProcessorProvider;
 import org.ameba.annotation.ExcludeFromScan;
+import org.ameba.http.ctx.CallContextCodec;
 import org.ameba.http.ctx.CallContextProvider;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.context.annotation.Bean;
@@ -33,11 +35,12 @@ import org.springframework.context.annotation.Bean;
 @AutoConfiguration
 public class CallContextAmqpConfiguration {
 
-    public @Bean MessagePostProcessorProvider callContextCFDecorator(CallContextProvider callContextProvider) {
-        return new CallContextHeaderResolver(callContextProvider);
+    public @Bean MessagePostProcessorProvider callContextCFDecorator(CallContextProvider callContextProvider,
+            ObjectProvider<CallContextCodec> callContextCodec) {
+        return new CallContextHeaderResolver(callContextProvider, callContextCodec.getIfAvailable(CallContextCodec::new));
     }
 
-    public @Bean MessageHeaderEnhancer callContextEnhancer() {
-        return new CallContextEnhancer();
+    public @Bean MessageHeaderEnhancer callContextEnhancer(ObjectProvider<CallContextCodec> callContextCodec) {
+        return new CallContextEnhancer(callContextCodec.getIfAvailable(CallContextCodec::new));
     }
 }
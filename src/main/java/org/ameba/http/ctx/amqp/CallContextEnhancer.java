@@ -15,29 +15,43 @@
  */
 package org.ameba.http.ctx.amqp;
 
-import org.ameba.amqp.MessageHeaderEnhancer;
+import org.ameba.amqp.ContextHeaderContributor;
+import org.ameba.context.AmebaContext;
+import org.ameba.http.ctx.CallContextCodec;
 import org.ameba.http.ctx.CallContextHolder;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.util.Map;
 
 /**
  * A CallContextEnhancer enhances AMQP messages about a header ({@code owms_callcontext}) to propagate the {@code CallContext}.
  *
  * @author Heiko Scherrer
  */
-public class CallContextEnhancer implements MessageHeaderEnhancer {
+public class CallContextEnhancer implements ContextHeaderContributor {
+
+    private final CallContextCodec codec;
+
+    /**
+     * Create an enhancer that encodes with a codec of default settings.
+     */
+    public CallContextEnhancer() {
+        this(new CallContextCodec());
+    }
+
+    /**
+     * Create an enhancer.
+     *
+     * @param codec The codec to encode the CallContext with
+     */
+    public CallContextEnhancer(CallContextCodec codec) {
+        this.codec = codec;
+    }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public void enhance(final RabbitTemplate rabbitTemplate) {
-        rabbitTemplate.addBeforePublishPostProcessors(
-            m -> {
-                if (CallContextHolder.getEncodedCallContext().isPresent()) {
-                    m.getMessageProperties().getHeaders().put("owms_callcontext", CallContextHolder.getEncodedCallContext().get());
-                }
-                return m;
-            }
-        );
+    public void contribute(AmebaContext context, Map<String, Object> headers) {
+        CallContextHolder.encode(codec, context.getCallContext()).ifPresent(ctx -> headers.put("owms_callcontext", ctx));
     }
 }
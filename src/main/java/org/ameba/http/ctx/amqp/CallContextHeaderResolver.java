@@ -15,12 +15,14 @@
  */
 package org.ameba.http.ctx.amqp;
 
-import org.ameba.amqp.MessagePostProcessorProvider;
+import org.ameba.amqp.ContextHeaderResolver;
+import org.ameba.context.AmebaContext;
+import org.ameba.http.ctx.CallContextCodec;
 import org.ameba.http.ctx.CallContextHolder;
 import org.ameba.http.ctx.CallContextProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.Message;
 
 import static org.ameba.LoggingCategories.CALL_CONTEXT;
 
@@ -29,34 +31,31 @@ import static org.ameba.LoggingCategories.CALL_CONTEXT;
  *
  * @author Heiko Scherrer
  */
-class CallContextHeaderResolver implements MessagePostProcessorProvider {
+class CallContextHeaderResolver implements ContextHeaderResolver {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CALL_CONTEXT);
     private final CallContextProvider callContextProvider;
+    private final CallContextCodec codec;
 
-    CallContextHeaderResolver(CallContextProvider callContextProvider) {
+    CallContextHeaderResolver(CallContextProvider callContextProvider, CallContextCodec codec) {
         this.callContextProvider = callContextProvider;
+        this.codec = codec;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public MessagePostProcessor getMessagePostProcessor() {
-        if (LOGGER.isTraceEnabled()) {
-            LOGGER.trace("CallContextHeaderResolver: Enter getMessagePostProcessor");
+    public AmebaContext resolve(Message message, AmebaContext context) {
+        if (!message.getMessageProperties().getHeaders().containsKey("owms_callcontext")) {
+            return context;
         }
-        return (m -> {
-            if (m.getMessageProperties().getHeaders().containsKey("owms_callcontext")) {
-                if (CallContextHolder.getOptionalCallContext().isEmpty()) {
-                    CallContextHolder.setCallContext(
-                            () -> (String) m.getMessageProperties().getHeaders().get("owms_callcontext"),
-                            callContextProvider.getInitialCallContext());
-                } else {
-                    LOGGER.warn("CallContextHeaderResolver: CallContext already initialized");
-                }
-            }
-            return m;
-        });
+        if (context.getCallContext() != null) {
+            LOGGER.warn("CallContextHeaderResolver: CallContext already initialized");
+            return context;
+        }
+        var ctx = CallContextHolder.resolve(codec, (String) message.getMessageProperties().getHeaders().get("owms_callcontext"), null,
+                callContextProvider.getInitialCallContext());
+        return ctx == null ? context : context.withCallContext(ctx);
     }
 }
@@ -16,6 +16,8 @@
 package org.ameba.http.ctx.feign;
 
 import org.ameba.annotation.ExcludeFromScan;
+import org.ameba.http.ctx.CallContextCodec;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.context.annotation.Bean;
@@ -30,7 +32,7 @@ import org.springframework.context.annotation.Bean;
 @AutoConfiguration
 public class CallContextFeignConfiguration {
 
-    public @Bean CallContextRequestInterceptor callContextRequestInterceptor() {
-        return new CallContextRequestInterceptor();
+    public @Bean CallContextRequestInterceptor callContextRequestInterceptor(ObjectProvider<CallContextCodec> callContextCodec) {
+        return new CallContextRequestInterceptor(callContextCodec.getIfAvailable(CallContextCodec::new));
     }
 }
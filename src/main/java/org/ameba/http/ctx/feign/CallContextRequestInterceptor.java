@@ -18,6 +18,7 @@ package org.ameba.http.ctx.feign;
 import feign.RequestInterceptor;
 import feign.RequestTemplate;
 import org.ameba.http.ctx.CallContext;
+import org.ameba.http.ctx.CallContextCodec;
 import org.ameba.http.ctx.CallContextHolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,6 +34,23 @@ import static org.ameba.LoggingCategories.CALL_CONTEXT;
 public class CallContextRequestInterceptor implements RequestInterceptor {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CALL_CONTEXT);
+    private final CallContextCodec codec;
+
+    /**
+     * Create an interceptor that encodes with a codec of default settings.
+     */
+    public CallContextRequestInterceptor() {
+        this(new CallContextCodec());
+    }
+
+    /**
+     * Create an interceptor.
+     *
+     * @param codec The codec to encode the CallContext with
+     */
+    public CallContextRequestInterceptor(CallContextCodec codec) {
+        this.codec = codec;
+    }
 
     /**
      * {@inheritDoc}
@@ -41,7 +59,7 @@ public class CallContextRequestInterceptor implements RequestInterceptor {
      */
     @Override
     public void apply(RequestTemplate template) {
-        var ctx = CallContextHolder.getEncodedCallContext();
+        var ctx = CallContextHolder.getEncodedCallContext(codec);
         if (ctx.isPresent()) {
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("Feign: CallContext to propagate is available [{}]", CallContextHolder.getOptionalCallContext().orElse(new CallContext()));
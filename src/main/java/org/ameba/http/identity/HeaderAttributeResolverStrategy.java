@@ -28,19 +28,23 @@ import static org.ameba.Constants.HEADER_VALUE_X_IDENTITY;
  */
 public class HeaderAttributeResolverStrategy implements IdentityResolverStrategy {
 
+    /**
+     * {@inheritDoc}
+     *
+     * Only the {@value org.ameba.Constants#HEADER_VALUE_X_IDENTITY} header is read.
+     */
+    @Override
+    public Optional<Identity> getIdentity(RequestHeaders headers) {
+        var identity = headers.getFirst(HEADER_VALUE_X_IDENTITY);
+        return identity == null ? Optional.empty() : Optional.of(new SimpleIdentity(identity));
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public Optional<Identity> getIdentity(Map<String, List<String>> headers, Map<String, String> bodyParts,
                                           Map<String, String> queryParams) {
-        var identity = headers.entrySet().stream()
-                .filter(e -> e.getKey().equalsIgnoreCase(HEADER_VALUE_X_IDENTITY))
-                .findFirst()
-                .map(Map.Entry::getValue);
-        if (identity.isEmpty() || identity.get().isEmpty()) {
-            return Optional.empty();
-        }
-        return Optional.of(new SimpleIdentity(identity.get().getFirst()));
+        return getIdentity(RequestHeaders.of(headers));
     }
 }
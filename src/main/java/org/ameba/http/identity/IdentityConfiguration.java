@@ -17,6 +17,9 @@ package org.ameba.http.identity;
 
 import jakarta.servlet.DispatcherType;
 import org.ameba.annotation.ExcludeFromScan;
+import org.ameba.http.ContextBindingFilterConfiguration;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -43,10 +46,14 @@ public class IdentityConfiguration {
     /**
      * Registers the IdentityFilter filter.
      *
+     * @param strategies An IdentityResolverStrategy bean that takes precedence over the one configured with the annotation
+     * @param contextFilter Whether the ContextBindingFilter is used instead
      * @return The registration bean instance
      */
-    public @Bean FilterRegistrationBean identityFilterRegistrationBean() {
-        var registration = new FilterRegistrationBean<>(new IdentityFilter(strategy));
+    public @Bean FilterRegistrationBean identityFilterRegistrationBean(ObjectProvider<IdentityResolverStrategy> strategies,
+            @Value("${" + ContextBindingFilterConfiguration.ENABLED + ":false}") boolean contextFilter) {
+        var registration = new FilterRegistrationBean<>(new IdentityFilter(strategies.getIfUnique(() -> strategy)));
+        registration.setEnabled(!contextFilter);
         registration.setDispatcherTypes(DispatcherType.REQUEST);
         if (urlPatterns != null) {
             registration.addUrlPatterns(urlPatterns);
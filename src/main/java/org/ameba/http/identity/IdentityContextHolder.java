@@ -15,18 +15,19 @@
  */
 package org.ameba.http.identity;
 
+import org.ameba.context.AmebaContext;
+import org.ameba.context.ContextSlot;
+
 import java.util.Optional;
 import java.util.function.Consumer;
 
 /**
- * A IdentityContextHolder stores the current user's identity for the current thread context.
+ * A IdentityContextHolder stores the current user's identity in the {@link AmebaContext} of the current execution.
  *
  * @author Heiko Scherrer
  */
 public class IdentityContextHolder {
 
-    private static final InheritableThreadLocal<String> identityHolder = new InheritableThreadLocal<>();
-
     /** Private Constructor. */
     private IdentityContextHolder() {}
 
@@ -36,7 +37,7 @@ public class IdentityContextHolder {
      * @return Identity as String
      */
     public static String getCurrentIdentity() {
-        return identityHolder.get();
+        return AmebaContext.current().getIdentity();
     }
 
     /**
@@ -45,10 +46,11 @@ public class IdentityContextHolder {
      * @return Identity as String
      */
     public static Optional<String> currentIdentity() {
-        if (identityHolder.get() == null || identityHolder.get().isEmpty()) {
+        var identity = getCurrentIdentity();
+        if (identity == null || identity.isEmpty()) {
             return Optional.empty();
         }
-        return Optional.of(identityHolder.get());
+        return Optional.of(identity);
     }
 
     /**
@@ -57,7 +59,7 @@ public class IdentityContextHolder {
      * @param identity User's identity to set
      */
     public static void setCurrentIdentity(String identity) {
-        identityHolder.set(identity);
+        AmebaContext.set(AmebaContext.current().withIdentity(identity));
     }
 
     /**
@@ -66,13 +68,25 @@ public class IdentityContextHolder {
      * @param consumer A User's identity consumer function
      */
     public static void setCurrentIdentity(Consumer<String> consumer) {
-        if (identityHolder.get() != null && !identityHolder.get().isEmpty()) {
-            consumer.accept(identityHolder.get());
-        }
+        currentIdentity().ifPresent(consumer);
+    }
+
+    /**
+     * Execute the {@code call} with {@code identity} as current Identity.
+     *
+     * @param identity User's identity to bind
+     * @param call The operation
+     * @param <R> The type of the result
+     * @param <X> The type of the exception
+     * @return The result of the operation
+     * @throws X if the operation fails
+     */
+    public static <R, X extends Throwable> R callWith(String identity, ContextSlot.ScopedCall<R, X> call) throws X {
+        return AmebaContext.callWhere(AmebaContext.current().withIdentity(identity), call);
     }
 
     /** Cleanup thread local. */
     public static void destroy() {
-        identityHolder.remove();
+        AmebaContext.set(AmebaContext.current().withIdentity(null));
     }
 }
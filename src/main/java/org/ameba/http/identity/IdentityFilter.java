@@ -21,24 +21,23 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.ameba.Constants;
 import org.ameba.LoggingCategories;
+import org.ameba.http.ContextBindingFilter;
+import org.ameba.http.FilterSettings;
+import org.ameba.http.ScopedFilterChain;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 import static org.ameba.Constants.HEADER_VALUE_X_IDENTITY;
 
 /**
  * An IdentityFilter expects and reads the identity information from an HTTP header and puts it into the current context
- * variable.
+ * variable. The {@link FilterSettings} are resolved once when the filter is initialized, {@link #setSettings(FilterSettings)}
+ * replaces them at runtime. Requests that have been processed by the {@link ContextBindingFilter} are passed on untouched.
  *
  * @author Heiko Scherrer
  */
@@ -46,48 +45,73 @@ public class IdentityFilter extends OncePerRequestFilter {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(LoggingCategories.BOOT);
     private final IdentityResolverStrategy strategy;
+    private volatile FilterSettings settings;
 
     public IdentityFilter(IdentityResolverStrategy strategy) {
         LOGGER.info("Initialized filter {}", this.getClass().getSimpleName());
         this.strategy = strategy;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * Resolve the effective settings.
+     */
+    @Override
+    protected void initFilterBean() throws ServletException {
+        if (settings == null) {
+            settings = FilterSettings.resolve(getFilterConfig(), getServletContext(), Constants.PARAM_IDENTITY_ENABLED,
+                    Constants.PARAM_IDENTITY_THROW_IF_NOT_PRESENT);
+        }
+    }
+
+    /**
+     * Get the effective settings.
+     *
+     * @return The settings or {@literal null} if the filter has not been initialized yet
+     */
+    public FilterSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Replace the effective settings at runtime, e.g. from an administrative endpoint. Requests in progress finish with the former
+     * settings.
+     *
+     * @param settings The new settings
+     */
+    public void setSettings(FilterSettings settings) {
+        this.settings = settings;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     protected void doFilterInternal(HttpServletRequest request,
             HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if (request.getAttribute(ContextBindingFilter.BOUND) != null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
 
-        String fromSC = (String) request.getServletContext().getAttribute(Constants.PARAM_IDENTITY_ENABLED);
-        boolean identityEnabled = Boolean.parseBoolean(fromSC == null ? getFilterConfig().getInitParameter(Constants.PARAM_IDENTITY_ENABLED) : fromSC);
-        if (identityEnabled) {
+        var current = settings;
+        if (current == null) {
+            current = settings = FilterSettings.resolve(getFilterConfig(), request.getServletContext(),
+                    Constants.PARAM_IDENTITY_ENABLED, Constants.PARAM_IDENTITY_THROW_IF_NOT_PRESENT);
+        }
+        String id = null;
+        if (current.enabled()) {
 
-            Optional<Identity> identity = strategy.getIdentity(getHeaders(request));
+            Optional<Identity> identity = strategy.getIdentity(RequestHeaders.of(request));
             if (identity.isPresent()) {
-                IdentityContextHolder.setCurrentIdentity(identity.get().getId());
-            } else {
-                String throwParam = (String) request.getServletContext().getAttribute(Constants.PARAM_IDENTITY_THROW_IF_NOT_PRESENT);
-                boolean throwIfNotPresent = Boolean.parseBoolean(throwParam == null ? getFilterConfig().getInitParameter(Constants.PARAM_IDENTITY_THROW_IF_NOT_PRESENT) : throwParam);
-                if (throwIfNotPresent) {
-                    response.setStatus(HttpStatus.BAD_REQUEST.value());
-                    throw new IllegalArgumentException(String.format("No identity information available in http header. Expected header [%s] attribute not set", HEADER_VALUE_X_IDENTITY));
-                }
+                id = identity.get().getId();
+            } else if (current.throwIfNotPresent()) {
+                response.setStatus(HttpStatus.BAD_REQUEST.value());
+                throw new IllegalArgumentException(String.format("No identity information available in http header. Expected header [%s] attribute not set", HEADER_VALUE_X_IDENTITY));
             }
         }
-        try {
-            filterChain.doFilter(request, response);
-        } finally {
-            IdentityContextHolder.destroy();
-        }
-    }
-
-    Map<String, List<String>> getHeaders(HttpServletRequest request) {
-        return Collections.list(request.getHeaderNames())
-                .stream()
-                .collect(Collectors.toMap(
-                        Function.identity(),
-                        h -> Collections.list(request.getHeaders(h))
-                ));
+        var identityId = id;
+        ScopedFilterChain.proceed(() -> IdentityContextHolder.callWith(identityId, ScopedFilterChain.of(filterChain, request, response)));
     }
 }
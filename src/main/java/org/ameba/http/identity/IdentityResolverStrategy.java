@@ -21,12 +21,24 @@ import java.util.Map;
 import java.util.Optional;
 
 /**
- * An IdentityResolverStrategy is able to resolve the human identity at runtime.
+ * An IdentityResolverStrategy is able to resolve the human identity at runtime. Filters call
+ * {@link #getIdentity(RequestHeaders)}, strategies that only need a few headers should override it, others may keep implementing the
+ * map-based method.
  *
  * @author Heiko Scherrer
  */
 public interface IdentityResolverStrategy {
 
+    /**
+     * Resolve and return Identity from the lazily accessed request headers.
+     *
+     * @param headers Header attributes
+     * @return The Identity instance
+     */
+    default Optional<Identity> getIdentity(RequestHeaders headers) {
+        return getIdentity(headers.asMap());
+    }
+
     /**
      * Resolve and return Identity from the request headers.
      *
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.http.identity;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A RequestHeaders is a lazy, case-insensitive read access to the headers of a request. Only the headers that are asked for are
+ * fetched from the underlying request.
+ *
+ * @author Heiko Scherrer
+ */
+@FunctionalInterface
+public interface RequestHeaders {
+
+    /**
+     * Get all values of the header with the {@code name}, case-insensitive.
+     *
+     * @param name The header name
+     * @return The values, an empty list if the header is not present
+     */
+    List<String> get(String name);
+
+    /**
+     * Get the first value of the header with the {@code name}, case-insensitive.
+     *
+     * @param name The header name
+     * @return The value or {@literal null} if the header is not present
+     */
+    default String getFirst(String name) {
+        var values = get(name);
+        return values.isEmpty() ? null : values.getFirst();
+    }
+
+    /**
+     * Materialize all headers into a Map, for strategies that only implement the map-based contract.
+     *
+     * @return All headers, an empty Map if the names of the headers are unknown
+     */
+    default Map<String, List<String>> asMap() {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Create a view on the headers of the {@code request}.
+     *
+     * @param request The request, servlet containers treat header names case-insensitive
+     * @return The instance
+     */
+    static RequestHeaders of(HttpServletRequest request) {
+        return new RequestHeaders() {
+            @Override
+            public List<String> get(String name) {
+                var values = request.getHeaders(name);
+                return values == null || !values.hasMoreElements() ? List.of() : Collections.list(values);
+            }
+
+            @Override
+            public String getFirst(String name) {
+                return request.getHeader(name);
+            }
+
+            @Override
+            public Map<String, List<String>> asMap() {
+                var result = new TreeMap<String, List<String>>(String.CASE_INSENSITIVE_ORDER);
+                Collections.list(request.getHeaderNames()).forEach(n -> result.put(n, get(n)));
+                return result;
+            }
+        };
+    }
+
+    /**
+     * Create a case-insensitive view on the {@code headers}.
+     *
+     * @param headers The headers as Map
+     * @return The instance
+     */
+    static RequestHeaders of(Map<String, List<String>> headers) {
+        return new RequestHeaders() {
+            @Override
+            public List<String> get(String name) {
+                var values = headers.get(name);
+                if (values == null) {
+                    for (var entry : headers.entrySet()) {
+                        if (entry.getKey().equalsIgnoreCase(name)) {
+                            values = entry.getValue();
+                            break;
+                        }
+                    }
+                }
+                return values == null ? List.of() : values;
+            }
+
+            @Override
+            public Map<String, List<String>> asMap() {
+                return headers;
+            }
+        };
+    }
+}
@@ -16,12 +16,14 @@
 package org.ameba.http.identity;
 
 import io.jsonwebtoken.Claims;
+import org.ameba.oauth2.BearerTokenExtractor;
 import org.ameba.oauth2.ExtractionResult;
 import org.ameba.oauth2.TokenExtractor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
+import javax.inject.Inject;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -30,20 +32,88 @@ import java.util.ServiceLoader;
 import static org.ameba.Constants.HEADER_VALUE_X_IDENTITY;
 
 /**
- * A TokenResolverStrategy.
+ * A TokenResolverStrategy resolves the {@link Identity} from the subject of a JWT that is passed in the
+ * {@value org.ameba.Constants#HEADER_VALUE_X_IDENTITY} header. The JWT is verified with a {@link TokenExtractor}, preferably
+ * the one of the application's token validation pipeline, so that a token that has already been verified for the
+ * {@code Authorization} header is answered from its cache. Claims are read directly from the verified {@link Claims}.
+ * <p>
+ * The header carries the JWT with or without the {@code Bearer} scheme. The scheme is stripped once and added again only if the
+ * extractor expects the format of the {@code Authorization} header, as {@link BearerTokenExtractor} does.
  *
  * @author Heiko Scherrer
  */
 public class TokenResolverStrategy implements IdentityResolverStrategy {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TokenResolverStrategy.class);
-    private TokenExtractor tokenExtractor;
+    private static final String BEARER = "Bearer ";
+    /** Remembers that the {@link ServiceLoader} has no {@link TokenExtractor}. */
+    private static final Target UNAVAILABLE = new Target(null, false);
+    private volatile Target target;
 
+    private record Target(TokenExtractor extractor, boolean bearerScheme) {
+        String input(String jwt) {
+            return bearerScheme ? BEARER + jwt : jwt;
+        }
+    }
+
+    /**
+     * Create a strategy that uses the first {@link TokenExtractor} registered with the {@link ServiceLoader}, resolved on first use.
+     * If there is none, the strategy does not resolve identities and says so once.
+     */
     public TokenResolverStrategy() {
-        var tokenExtractorServiceLoader = ServiceLoader.load(TokenExtractor.class);
-        if (tokenExtractorServiceLoader.iterator().hasNext()) {
-            this.tokenExtractor = tokenExtractorServiceLoader.iterator().next();
+    }
+
+    /**
+     * Create a strategy that uses the given {@code tokenExtractor}. The token is passed with the {@code Bearer} scheme if the
+     * extractor is a {@link BearerTokenExtractor}.
+     *
+     * @param tokenExtractor The extractor to verify the token with
+     */
+    @Inject
+    public TokenResolverStrategy(TokenExtractor tokenExtractor) {
+        this(tokenExtractor, tokenExtractor instanceof BearerTokenExtractor);
+    }
+
+    /**
+     * Create a strategy that uses the given {@code tokenExtractor}.
+     *
+     * @param tokenExtractor The extractor to verify the token with
+     * @param bearerScheme Whether the extractor expects the token with the {@code Bearer} scheme
+     */
+    public TokenResolverStrategy(TokenExtractor tokenExtractor, boolean bearerScheme) {
+        this.target = new Target(tokenExtractor, bearerScheme);
+    }
+
+    private Target getTarget() {
+        var result = target;
+        if (result == null) {
+            synchronized (this) {
+                result = target;
+                if (result == null) {
+                    var tokenExtractorServiceLoader = ServiceLoader.load(TokenExtractor.class).iterator();
+                    if (tokenExtractorServiceLoader.hasNext()) {
+                        var extractor = tokenExtractorServiceLoader.next();
+                        result = new Target(extractor, extractor instanceof BearerTokenExtractor);
+                    } else {
+                        LOGGER.error("No TokenExtractor available to resolve the identity from a token");
+                        result = UNAVAILABLE;
+                    }
+                    target = result;
+                }
+            }
         }
+        return result;
+    }
+
+    /**
+     * Strip the {@code Bearer} scheme, matched case-insensitive, from the {@code value}.
+     *
+     * @param value The header value
+     * @return The JWT
+     */
+    static String stripScheme(String value) {
+        var token = value.strip();
+        return token.regionMatches(true, 0, BEARER, 0, BEARER.length()) ? token.substring(BEARER.length()).strip() : token;
     }
 
     /**
@@ -51,26 +121,42 @@ public class TokenResolverStrategy implements IdentityResolverStrategy {
      */
     @Override
     public Optional<Identity> getIdentity(Map<String, List<String>> headers, Map<String, String> bodyParts, Map<String, String> queryParams) {
+        return getIdentity(RequestHeaders.of(headers));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Only the {@value org.ameba.Constants#HEADER_VALUE_X_IDENTITY} header is read.
+     */
+    @Override
+    public Optional<Identity> getIdentity(RequestHeaders headers) {
         var identity = headers.get(HEADER_VALUE_X_IDENTITY);
-        if (identity == null || identity.size() != 1) {
+        if (identity.size() != 1) {
             LOGGER.debug("No [{}] header set", HEADER_VALUE_X_IDENTITY);
             return Optional.empty();
         }
+        var current = getTarget();
+        if (current == UNAVAILABLE) {
+            return Optional.empty();
+        }
         ExtractionResult extract;
         try {
-            extract = tokenExtractor.extract(identity.getFirst());
+            extract = current.extractor().extract(current.input(stripScheme(identity.getFirst())));
         } catch (Exception e) {
             LOGGER.error(e.getMessage(), e);
             return Optional.empty();
         }
-        var map = new HashMap<String, Object>();
-        ((Claims) extract.getJwt().getPayload()).entrySet().iterator().forEachRemaining(a -> map.put(a.getKey(), a.getValue()));
-        var name = map.get(Claims.SUBJECT);
+        if (!extract.hasJwt() || !(extract.getJwt().getPayload() instanceof Claims claims)) {
+            LOGGER.warn("Token does not carry claims");
+            return Optional.empty();
+        }
+        var name = claims.getSubject();
         if (name == null) {
             LOGGER.warn("No subject claim found in token");
             return Optional.empty();
         }
-        var exp = (Integer) map.get(Claims.EXPIRATION);
+        var exp = getExpiration(claims);
         if (exp == null || exp < (System.currentTimeMillis() / 1000)) {
             LOGGER.error("Token expired, claim exp = [{}]", exp);
             return Optional.empty();
@@ -78,6 +164,21 @@ public class TokenResolverStrategy implements IdentityResolverStrategy {
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("Extracted identity [{}] from token", name);
         }
-        return Optional.of(new SimpleIdentity(name.toString()));
+        return Optional.of(new SimpleIdentity(name));
+    }
+
+    /**
+     * Get the {@code exp} claim in seconds since the epoch, regardless whether it has been parsed as {@link Integer},
+     * {@link Long} or {@link Date}.
+     *
+     * @param claims The claims
+     * @return The expiration or {@literal null} if not set
+     */
+    static Long getExpiration(Claims claims) {
+        return switch (claims.get(Claims.EXPIRATION)) {
+            case Number number -> number.longValue();
+            case Date date -> date.getTime() / 1000;
+            case null, default -> null;
+        };
     }
 }
@@ -15,29 +15,26 @@
  */
 package org.ameba.http.identity.amqp;
 
-import org.ameba.amqp.MessageHeaderEnhancer;
-import org.ameba.http.identity.IdentityContextHolder;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.ameba.amqp.ContextHeaderContributor;
+import org.ameba.context.AmebaContext;
+
+import java.util.Map;
 
 /**
  * A IdentityEnhancer enhances AMQP messages about a header ({@code owms_identity}) to propagate the {@code Identity}.
  *
  * @author Heiko Scherrer
  */
-class IdentityEnhancer implements MessageHeaderEnhancer {
+class IdentityEnhancer implements ContextHeaderContributor {
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public void enhance(final RabbitTemplate rabbitTemplate) {
-        rabbitTemplate.addBeforePublishPostProcessors(
-            m -> {
-                if (IdentityContextHolder.currentIdentity().isPresent()) {
-                    m.getMessageProperties().getHeaders().put("owms_identity", IdentityContextHolder.getCurrentIdentity());
-                }
-                return m;
-            }
-        );
+    public void contribute(AmebaContext context, Map<String, Object> headers) {
+        var identity = context.getIdentity();
+        if (identity != null && !identity.isEmpty()) {
+            headers.put("owms_identity", identity);
+        }
     }
 }
@@ -15,9 +15,9 @@
  */
 package org.ameba.http.identity.amqp;
 
-import org.ameba.amqp.MessagePostProcessorProvider;
-import org.ameba.http.identity.IdentityContextHolder;
-import org.springframework.amqp.core.MessagePostProcessor;
+import org.ameba.amqp.ContextHeaderResolver;
+import org.ameba.context.AmebaContext;
+import org.springframework.amqp.core.Message;
 
 /**
  * A IdentityHeaderResolver resolves the {@code Identity} from the AMQP message header ({@code owms_identity}) and stores it in the current
@@ -25,18 +25,16 @@ import org.springframework.amqp.core.MessagePostProcessor;
  *
  * @author Heiko Scherrer
  */
-class IdentityHeaderResolver implements MessagePostProcessorProvider {
+class IdentityHeaderResolver implements ContextHeaderResolver {
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public MessagePostProcessor getMessagePostProcessor() {
-        return (m -> {
-            if (m.getMessageProperties().getHeaders().containsKey("owms_identity")) {
-                IdentityContextHolder.setCurrentIdentity((String) m.getMessageProperties().getHeaders().get("owms_identity"));
-            }
-            return m;
-        });
+    public AmebaContext resolve(Message message, AmebaContext context) {
+        if (message.getMessageProperties().getHeaders().containsKey("owms_identity")) {
+            return context.withIdentity((String) message.getMessageProperties().getHeaders().get("owms_identity"));
+        }
+        return context;
     }
 }
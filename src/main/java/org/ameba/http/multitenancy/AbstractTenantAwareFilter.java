@@ -20,6 +20,8 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.ameba.Constants;
+import org.ameba.http.ContextBindingFilter;
+import org.ameba.http.FilterSettings;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -42,35 +44,67 @@ import java.io.IOException;
  * </ul>
  *
  * Those properties can be either set as {@code ServletContext} attributes or as {@link jakarta.servlet.FilterConfig} parameters whereas the
- * latter take precedence.
+ * latter take precedence. They are resolved once when the filter is initialized, {@link #setSettings(FilterSettings)} replaces them
+ * at runtime. Requests that have been processed by the {@link ContextBindingFilter} are passed on untouched.
  *
  * @author Heiko Scherrer
  */
 public abstract class AbstractTenantAwareFilter extends OncePerRequestFilter {
 
+    private volatile FilterSettings settings;
+
+    /**
+     * {@inheritDoc}
+     *
+     * Resolve the effective settings.
+     */
+    @Override
+    protected void initFilterBean() throws ServletException {
+        if (settings == null) {
+            settings = FilterSettings.resolve(getFilterConfig(), getServletContext(), Constants.PARAM_MULTI_TENANCY_ENABLED,
+                    Constants.PARAM_MULTI_TENANCY_THROW_IF_NOT_PRESENT);
+        }
+    }
+
+    /**
+     * Get the effective settings.
+     *
+     * @return The settings or {@literal null} if the filter has not been initialized yet
+     */
+    public FilterSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Replace the effective settings at runtime, e.g. from an administrative endpoint. Requests in progress finish with the former
+     * settings.
+     *
+     * @param settings The new settings
+     */
+    public void setSettings(FilterSettings settings) {
+        this.settings = settings;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     protected final void doFilterInternal(HttpServletRequest r, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
-        var fromSC = (String) r.getServletContext().getAttribute(Constants.PARAM_MULTI_TENANCY_ENABLED);
-        var multiTenancyEnabled = Boolean.parseBoolean(
-                fromSC == null
-                        ? getFilterConfig().getInitParameter(Constants.PARAM_MULTI_TENANCY_ENABLED)
-                        : fromSC
-        );
+        if (r.getAttribute(ContextBindingFilter.BOUND) != null) {
+            filterChain.doFilter(r, response);
+            return;
+        }
+        var current = settings;
+        if (current == null) {
+            current = settings = FilterSettings.resolve(getFilterConfig(), r.getServletContext(),
+                    Constants.PARAM_MULTI_TENANCY_ENABLED, Constants.PARAM_MULTI_TENANCY_THROW_IF_NOT_PRESENT);
+        }
         String tenant = null;
-        if (multiTenancyEnabled && !"OPTIONS".equalsIgnoreCase(r.getMethod())) {
+        if (current.enabled() && !"OPTIONS".equalsIgnoreCase(r.getMethod())) {
             tenant = r.getHeader(Constants.HEADER_VALUE_X_TENANT);
             if (null == tenant || tenant.isEmpty()) {
-                var throwParam = (String) r.getServletContext().getAttribute(Constants.PARAM_MULTI_TENANCY_THROW_IF_NOT_PRESENT);
-                var throwIfNotPresent = Boolean.parseBoolean(
-                        throwParam == null
-                                ? getFilterConfig().getInitParameter(Constants.PARAM_MULTI_TENANCY_THROW_IF_NOT_PRESENT)
-                                : throwParam
-                );
-                if (throwIfNotPresent) {
+                if (current.throwIfNotPresent()) {
                     response.setStatus(HttpStatus.BAD_REQUEST.value());
                     throw new IllegalArgumentException(String.format("No tenant information available in http header. Expected header [%s] attribute not present.", Constants.HEADER_VALUE_X_TENANT));
                 }
@@ -79,7 +113,7 @@ public abstract class AbstractTenantAwareFilter extends OncePerRequestFilter {
             }
         }
         try {
-            filterChain.doFilter(r, response);
+            doChain(r, response, filterChain, tenant);
         } finally {
             doAfter(r, response, filterChain, tenant);
         }
@@ -95,6 +129,22 @@ public abstract class AbstractTenantAwareFilter extends OncePerRequestFilter {
      */
     protected void doBefore(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain, String tenant) { }
 
+    /**
+     * Pass the {@code request} to the next filter in the {@code filterChain}. Subclasses may override this to bind values for the
+     * scope of the call.
+     *
+     * @param request Incoming request
+     * @param response Passed response
+     * @param filterChain The chain of filters
+     * @param tenant The current tenant or {@literal null}
+     * @throws ServletException Passed from the chain
+     * @throws IOException Passed from the chain
+     */
+    protected void doChain(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain, String tenant)
+            throws ServletException, IOException {
+        filterChain.doFilter(request, response);
+    }
+
     /**
      * Do something after the is through the {@code filterChain} and before it is passed to the next outer filter in chain.
      *
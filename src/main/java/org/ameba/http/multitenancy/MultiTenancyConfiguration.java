@@ -17,6 +17,8 @@ package org.ameba.http.multitenancy;
 
 import jakarta.servlet.DispatcherType;
 import org.ameba.annotation.ExcludeFromScan;
+import org.ameba.http.ContextBindingFilterConfiguration;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -41,10 +43,13 @@ public class MultiTenancyConfiguration {
     /**
      * Registers the MultiTenantSessionFilter filter.
      *
+     * @param contextFilter Whether the ContextBindingFilter is used instead
      * @return The registration bean instance
      */
-    public @Bean FilterRegistrationBean<MultiTenantSessionFilter> multiTenantSessionFilter() {
+    public @Bean FilterRegistrationBean<MultiTenantSessionFilter> multiTenantSessionFilter(
+            @Value("${" + ContextBindingFilterConfiguration.ENABLED + ":false}") boolean contextFilter) {
         var registration = new FilterRegistrationBean<>(new MultiTenantSessionFilter());
+        registration.setEnabled(!contextFilter);
         registration.setDispatcherTypes(DispatcherType.REQUEST);
         if (urlPatterns != null) {
             registration.addUrlPatterns(urlPatterns);
@@ -57,10 +62,13 @@ public class MultiTenancyConfiguration {
     /**
      * Registers the SLF4JMappedDiagnosticContextFilter filter.
      *
+     * @param contextFilter Whether the ContextBindingFilter is used instead
      * @return The registration bean instance
      */
-    public @Bean FilterRegistrationBean<SLF4JMappedDiagnosticContextFilter> slf4JMappedDiagnosticContextFilter() {
+    public @Bean FilterRegistrationBean<SLF4JMappedDiagnosticContextFilter> slf4JMappedDiagnosticContextFilter(
+            @Value("${" + ContextBindingFilterConfiguration.ENABLED + ":false}") boolean contextFilter) {
         var registration = new FilterRegistrationBean<>(new SLF4JMappedDiagnosticContextFilter());
+        registration.setEnabled(!contextFilter);
         registration.setDispatcherTypes(DispatcherType.REQUEST);
         if (urlPatterns != null) {
             registration.addUrlPatterns(urlPatterns);
@@ -16,13 +16,17 @@
 package org.ameba.http.multitenancy;
 
 import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.ameba.LoggingCategories;
+import org.ameba.http.ScopedFilterChain;
 import org.ameba.tenancy.TenantHolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+
 /**
  * A MultiTenantSessionFilter takes the current tenant value (from {@value org.ameba.Constants#HEADER_VALUE_X_TENANT} and puts it in the
  * {@link TenantHolder TenantHolder}.
@@ -40,24 +44,15 @@ public class MultiTenantSessionFilter extends AbstractTenantAwareFilter {
     /**
      * {@inheritDoc}
      *
-     * If {@code tenant} is present, put it in the {@link TenantHolder TenantHolder}
-     */
-    @Override
-    protected void doBefore(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain, String tenant) {
-        if (null != tenant && !tenant.isEmpty()) {
-            TenantHolder.setCurrentTenant(tenant);
-        }
-    }
-
-    /**
-     * {@inheritDoc}
-     *
-     * Remove tenant from {@link TenantHolder TenantHolder}
+     * If {@code tenant} is present, bind it to the {@link TenantHolder TenantHolder} for the scope of the call.
      */
     @Override
-    protected void doAfter(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain, String tenant) {
-        if (null != tenant && !tenant.isEmpty()) {
-            TenantHolder.destroy();
+    protected void doChain(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain, String tenant)
+            throws ServletException, IOException {
+        if (null == tenant || tenant.isEmpty()) {
+            filterChain.doFilter(request, response);
+            return;
         }
+        ScopedFilterChain.proceed(() -> TenantHolder.callWith(tenant, ScopedFilterChain.of(filterChain, request, response)));
     }
 }
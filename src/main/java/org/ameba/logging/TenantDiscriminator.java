@@ -35,7 +35,8 @@ public class TenantDiscriminator implements Discriminator<ILoggingEvent> {
      */
     @Override
     public String getDiscriminatingValue(ILoggingEvent iLoggingEvent) {
-        return TenantHolder.getCurrentTenant() == null ? BOOT : TenantHolder.getCurrentTenant();
+        var tenant = TenantHolder.getTenant();
+        return tenant == null ? BOOT : tenant.getLogKey();
     }
 
     /**
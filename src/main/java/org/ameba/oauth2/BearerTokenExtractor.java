@@ -25,11 +25,20 @@ import java.util.List;
  */
 public class BearerTokenExtractor extends DefaultTokenExtractor {
 
+    private static final String BEARER = "Bearer ";
+    private static final ExtractionResult EXTRACTION_POSSIBLE = new ExtractionResult();
+    private static final ExtractionResult NOT_A_JWT = new ExtractionResult("Not a valid JWT");
+
     @Inject
     public BearerTokenExtractor(IssuerWhiteList whiteList, List<TokenParser> parsers) {
         super(whiteList, parsers);
     }
 
+    public BearerTokenExtractor(IssuerWhiteList whiteList, List<TokenParser> parsers, VerifiedTokenCache cache,
+            RejectedTokenCache rejected, TokenMetrics metrics) {
+        super(whiteList, parsers, cache, rejected, metrics);
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -37,13 +46,11 @@ public class BearerTokenExtractor extends DefaultTokenExtractor {
      */
     @Override
     public ExtractionResult canExtract(String authHeader) {
-        String token = stripBearer(authHeader);
-        String[] parts = token.split("\\.");
-        return authHeader.startsWith("Bearer ") && parts.length == 3 ? new ExtractionResult() : new ExtractionResult("Not a valid JWT");
+        return authHeader.startsWith(BEARER) && CompactJwt.isCompact(authHeader, BEARER.length()) ? EXTRACTION_POSSIBLE : NOT_A_JWT;
     }
 
     private String stripBearer(String authHeader) {
-        return authHeader.replace("Bearer ", "");
+        return authHeader.startsWith(BEARER) ? authHeader.substring(BEARER.length()) : authHeader;
     }
 
     /**
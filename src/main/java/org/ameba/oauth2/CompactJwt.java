@@ -0,0 +1,256 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.oauth2;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A CompactJwt is a tokenized JWT in compact serialization ({@code header.payload.signature}). The segment boundaries are found
+ * once with index offsets, without regular expressions or copies of the segments. The claims that are required to select the
+ * issuer and the parser ({@code kid}, {@code alg}, {@code iss} and {@code exp}) are read lazily with a streaming JSON parser
+ * directly from the Base64URL decoded bytes, without building a JSON tree.
+ * <p>
+ * Instances are meant to be used within the processing of one request and are not thread-safe.
+ *
+ * @author Heiko Scherrer
+ */
+public final class CompactJwt {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int[] BASE64URL = new int[128];
+
+    static {
+        Arrays.fill(BASE64URL, -1);
+        var alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (var i = 0; i < alphabet.length(); i++) {
+            BASE64URL[alphabet.charAt(i)] = i;
+        }
+    }
+
+    private final String token;
+    private final int firstDot;
+    private final int secondDot;
+    private boolean headerRead;
+    private boolean payloadRead;
+    private String kid;
+    private String alg;
+    private String iss;
+    private Long exp;
+
+    private CompactJwt(String token, int firstDot, int secondDot) {
+        this.token = token;
+        this.firstDot = firstDot;
+        this.secondDot = secondDot;
+    }
+
+    /**
+     * Check whether {@code value}, starting at {@code offset}, is a JWT in compact serialization: exactly three segments where
+     * the signature segment is not empty.
+     *
+     * @param value The String to check
+     * @param offset The index where the JWT starts
+     * @return {@literal true} if so
+     */
+    public static boolean isCompact(String value, int offset) {
+        if (value == null || offset > value.length()) {
+            return false;
+        }
+        var first = value.indexOf('.', offset);
+        if (first < 0) {
+            return false;
+        }
+        var second = value.indexOf('.', first + 1);
+        return second > 0 && second < value.length() - 1 && value.indexOf('.', second + 1) < 0;
+    }
+
+    /**
+     * Tokenize the given {@code token}.
+     *
+     * @param token The JWT in compact serialization
+     * @return The instance
+     * @throws InvalidTokenException if the token is not a JWT in compact serialization
+     */
+    public static CompactJwt of(String token) {
+        if (!isCompact(token, 0)) {
+            throw new InvalidTokenException("Token is not a JWT");
+        }
+        var first = token.indexOf('.');
+        return new CompactJwt(token, first, token.indexOf('.', first + 1));
+    }
+
+    /**
+     * Get the whole token.
+     *
+     * @return The JWT in compact serialization
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * Get the Base64URL encoded header segment.
+     *
+     * @return As String
+     */
+    public String getHeaderSegment() {
+        return token.substring(0, firstDot);
+    }
+
+    /**
+     * Get the Base64URL encoded payload segment.
+     *
+     * @return As String
+     */
+    public String getPayloadSegment() {
+        return token.substring(firstDot + 1, secondDot);
+    }
+
+    /**
+     * Get the Base64URL encoded signature segment.
+     *
+     * @return As String
+     */
+    public String getSignatureSegment() {
+        return token.substring(secondDot + 1);
+    }
+
+    /**
+     * Get the {@code kid} of the header.
+     *
+     * @return The key ID or {@literal null}
+     */
+    public String getKid() {
+        readHeader();
+        return kid;
+    }
+
+    /**
+     * Get the {@code alg} of the header.
+     *
+     * @return The signing algorithm or {@literal null}
+     */
+    public String getAlg() {
+        readHeader();
+        return alg;
+    }
+
+    /**
+     * Get the {@code iss} claim of the payload.
+     *
+     * @return The issuer or {@literal null}
+     */
+    public String getIssuer() {
+        readPayload();
+        return iss;
+    }
+
+    /**
+     * Get the {@code exp} claim of the payload.
+     *
+     * @return The expiration in seconds since the epoch or {@literal null}
+     */
+    public Long getExpiration() {
+        readPayload();
+        return exp;
+    }
+
+    private void readHeader() {
+        if (headerRead) {
+            return;
+        }
+        try (var parser = JSON_FACTORY.createParser(decode(0, firstDot))) {
+            expectObject(parser.nextToken());
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var name = parser.currentName();
+                var value = parser.nextToken();
+                switch (name) {
+                    case "kid" -> kid = textOf(parser, value);
+                    case "alg" -> alg = textOf(parser, value);
+                    default -> parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw new InvalidTokenException("Part of token cannot be parsed");
+        }
+        headerRead = true;
+    }
+
+    private void readPayload() {
+        if (payloadRead) {
+            return;
+        }
+        try (var parser = JSON_FACTORY.createParser(decode(firstDot + 1, secondDot))) {
+            expectObject(parser.nextToken());
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var name = parser.currentName();
+                var value = parser.nextToken();
+                switch (name) {
+                    case "iss" -> iss = textOf(parser, value);
+                    case "exp" -> exp = value.isNumeric() ? parser.getValueAsLong() : null;
+                    default -> parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw new InvalidTokenException("Part of token cannot be parsed");
+        }
+        payloadRead = true;
+    }
+
+    private static void expectObject(JsonToken token) {
+        if (token != JsonToken.START_OBJECT) {
+            throw new InvalidTokenException("Part of token is not a JSON object");
+        }
+    }
+
+    private static String textOf(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    private byte[] decode(int from, int to) {
+        while (to > from && token.charAt(to - 1) == '=') {
+            to--;
+        }
+        var chars = to - from;
+        if (chars % 4 == 1) {
+            throw new InvalidTokenException("Part of token is not Base64URL encoded");
+        }
+        var result = new byte[chars * 3 / 4];
+        int buffer = 0, bits = 0, pos = 0;
+        for (var i = from; i < to; i++) {
+            var c = token.charAt(i);
+            var v = c < 128 ? BASE64URL[c] : -1;
+            if (v < 0) {
+                throw new InvalidTokenException("Part of token is not Base64URL encoded");
+            }
+            buffer = (buffer << 6) | v;
+            bits += 6;
+            if (bits >= 8) {
+                bits -= 8;
+                result[pos++] = (byte) (buffer >> bits);
+            }
+        }
+        return result;
+    }
+}
@@ -15,37 +15,78 @@
  */
 package org.ameba.oauth2;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwt;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
-import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static java.lang.String.format;
 
 /**
  * A DefaultTokenExtractor validates the issuer of a JWT against a whitelist, parses the
- * JWT using the proper algorithm to validate the signature.
+ * JWT using the proper algorithm to validate the signature. The parsers are indexed by their
+ * algorithm once at construction time. If a {@link VerifiedTokenCache} is configured, tokens
+ * that have already been verified are answered from the cache. If a {@link RejectedTokenCache}
+ * is configured, tokens that have recently been rejected are refused without further processing.
+ * The duration and outcome of the extraction, the issuer lookup and the parsing are reported to
+ * the {@link TokenMetrics}.
  *
  * @author Heiko Scherrer
  */
 public class DefaultTokenExtractor implements TokenExtractor {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultTokenExtractor.class);
-    private final ObjectMapper om = new ObjectMapper();
+    private static final ExtractionResult EXTRACTION_POSSIBLE = new ExtractionResult();
+    private static final ExtractionResult NOT_A_JWT = new ExtractionResult("Not a valid JWT, expected 3 parts");
     private final IssuerWhiteList<Issuer> whiteList;
-    private final List<TokenParser> parsers;
+    private final Map<String, TokenParser<Issuer, ?>> parsers;
+    private final VerifiedTokenCache cache;
+    private final RejectedTokenCache rejected;
+    private final TokenMetrics metrics;
 
     /**
-     * {@inheritDoc}
+     * Create an extractor without caching of verified tokens.
+     *
+     * @param whiteList The whitelist of accepted issuers
+     * @param parsers All available parsers
      */
     public DefaultTokenExtractor(IssuerWhiteList whiteList, List<TokenParser> parsers) {
+        this(whiteList, parsers, null, null, TokenMetrics.NOOP);
+    }
+
+    /**
+     * Create an extractor that caches verified and rejected tokens and reports to the given {@code metrics}.
+     *
+     * @param whiteList The whitelist of accepted issuers
+     * @param parsers All available parsers
+     * @param cache The cache of verified tokens, may be {@literal null}
+     * @param rejected The cache of rejected tokens, may be {@literal null}
+     * @param metrics The metrics to report to
+     */
+    public DefaultTokenExtractor(IssuerWhiteList whiteList, List<TokenParser> parsers, VerifiedTokenCache cache,
+            RejectedTokenCache rejected, TokenMetrics metrics) {
         this.whiteList = whiteList;
-        this.parsers = parsers;
+        this.parsers = indexByAlgorithm(parsers);
+        this.cache = cache;
+        this.rejected = rejected;
+        this.metrics = metrics;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static Map<String, TokenParser<Issuer, ?>> indexByAlgorithm(List<TokenParser> parsers) {
+        var result = new HashMap<String, TokenParser<Issuer, ?>>(parsers.size());
+        for (TokenParser<Issuer, ?> parser : parsers) {
+            var existing = result.putIfAbsent(parser.supportAlgorithm(), parser);
+            if (existing != null) {
+                LOGGER.warn("Algorithm [{}] is supported by [{}] and [{}], the latter is ignored",
+                        parser.supportAlgorithm(), existing.getClass().getSimpleName(), parser.getClass().getSimpleName());
+            }
+        }
+        return Map.copyOf(result);
     }
 
     /**
@@ -53,28 +94,13 @@ public class DefaultTokenExtractor implements TokenExtractor {
      */
     @Override
     public ExtractionResult canExtract(String token) {
-        String[] parts = token.split("\\.");
-        return parts.length == 3 ? new ExtractionResult() : new ExtractionResult("Not a valid JWT, expected 3 parts");
+        return CompactJwt.isCompact(token, 0) ? EXTRACTION_POSSIBLE : NOT_A_JWT;
     }
 
-    private JsonNode parse(String token, ObjectMapper om) {
-        try {
-            return om.readValue(Decoders.BASE64URL.decode(token), JsonNode.class);
-        } catch (IOException e) {
-            LOGGER.error(e.getMessage(), e);
-            throw new InvalidTokenException("Part of token cannot be parsed");
-        }
-    }
-
-    private void ensureTokenNotExpired(JsonNode tokenPayload) {
-        long nowTime = new Date().getTime();
-        var exp = tokenPayload.get("exp").isNull() ? null : new Date(tokenPayload.get("exp").asLong() * 1000);
-        if (exp != null) {
-            var maxTime = nowTime - Issuer.DEFAULT_MAX_SKEW_SECONDS;
-            var max = new Date(maxTime);
-            if (max.after(exp)) {
-                throw new InvalidTokenException("Token has expired");
-            }
+    private void ensureTokenNotExpired(CompactJwt jwt) {
+        var exp = jwt.getExpiration();
+        if (exp != null && System.currentTimeMillis() - Issuer.DEFAULT_MAX_SKEW_SECONDS > exp * 1000) {
+            throw new InvalidTokenException("Token has expired");
         }
     }
 
@@ -83,27 +109,69 @@ public class DefaultTokenExtractor implements TokenExtractor {
      */
     @Override
     public ExtractionResult extract(final String token) {
-        // we do not trust the signature so first parse the token and check the issuer
-        var splitToken = token.split("\\.");
-        if (splitToken.length < 2) {
-            throw new InvalidTokenException("Token is not a JWT");
+        var start = System.nanoTime();
+        ExtractionResult result;
+        try {
+            if (cache != null) {
+                var cached = cache.get(token);
+                if (cached.isPresent()) {
+                    recordExtraction(cached.get(), TokenMetrics.Outcome.CACHED, start);
+                    return cached.get();
+                }
+            }
+            result = extractUncached(token);
+        } catch (RuntimeException e) {
+            metrics.recordExtraction(null, null, TokenMetrics.Outcome.of(e), System.nanoTime() - start);
+            throw e;
         }
+        recordExtraction(result, TokenMetrics.Outcome.SUCCESS, start);
+        return result;
+    }
 
-        var tokenHeader = parse(splitToken[0], om);
-        var tokenPayload = parse(splitToken[1], om);
-
-        ensureTokenNotExpired(tokenPayload);
+    private void recordExtraction(ExtractionResult result, TokenMetrics.Outcome outcome, long start) {
+        String iss = null;
+        String alg = null;
+        if (result.hasJwt()) {
+            alg = result.getJwt().getHeader().getAlgorithm();
+            if (result.getJwt().getPayload() instanceof Claims claims) {
+                iss = claims.getIssuer();
+            }
+        }
+        metrics.recordExtraction(iss, alg, outcome, System.nanoTime() - start);
+    }
 
-        Issuer issuer;
-        if (tokenHeader.has("kid")) {
+    private ExtractionResult extractUncached(String token) {
+        if (rejected == null) {
+            return extract(CompactJwt.of(token));
+        }
+        var reason = rejected.getReason(token);
+        if (reason.isPresent()) {
+            throw new InvalidTokenException(reason.get());
+        }
+        try {
+            return extract(CompactJwt.of(token));
+        } catch (InvalidTokenException e) {
+            rejected.reject(token, e.getMessage());
+            throw e;
+        }
+    }
 
-            issuer = whiteList.getIssuer(tokenPayload.get("iss").asText(), tokenHeader.get("kid").asText());
-        } else {
+    /**
+     * Extract and verify the already tokenized {@code jwt}.
+     *
+     * @param jwt The tokenized JWT
+     * @return The result
+     * @throws InvalidTokenException in case extraction is not possible
+     */
+    protected ExtractionResult extract(CompactJwt jwt) {
+        // we do not trust the signature so first parse the token and check the issuer
+        ensureTokenNotExpired(jwt);
 
-            var issuers = whiteList.getIssuers(tokenPayload.get("iss").asText());
-            // Okay, the issuer seems to have multiple kids for the same issuer ID, so take the first one...
-            issuer = issuers.isEmpty() ? null : issuers.getFirst();
+        var iss = jwt.getIssuer();
+        if (iss == null) {
+            throw new InvalidTokenException("No iss claim defined in JWT payload");
         }
+        var issuer = lookupIssuer(iss, jwt.getKid());
 
         if (issuer == null) {
             if (LOGGER.isDebugEnabled()) {
@@ -117,14 +185,51 @@ public class DefaultTokenExtractor implements TokenExtractor {
         }
 
         // Now check with Signature
-        if (tokenHeader.has("alg")) {
-            final var alg = tokenHeader.get("alg").asText();
-            var parser = parsers.stream()
-                    .filter(p -> alg.equals(p.supportAlgorithm()))
-                    .findFirst()
-                    .orElseThrow(() -> new InvalidTokenException(format("Algorithm [%s] not supported", alg)));
-            return new ExtractionResult(parser.parse(token, issuer));
+        final var alg = jwt.getAlg();
+        if (alg != null) {
+            var parser = parsers.get(alg);
+            if (parser == null) {
+                throw new InvalidTokenException(format("Algorithm [%s] not supported", alg));
+            }
+            var result = new ExtractionResult(parse(parser, jwt, issuer));
+            if (cache != null) {
+                cache.put(jwt.getToken(), result);
+            }
+            return result;
         }
         return new ExtractionResult("No alg claim defined in JWT header");
     }
+
+    private Issuer lookupIssuer(String iss, String kid) {
+        var start = System.nanoTime();
+        Issuer issuer;
+        try {
+            if (kid != null) {
+
+                issuer = whiteList.getIssuer(iss, kid);
+            } else {
+
+                var issuers = whiteList.getIssuers(iss);
+                // Okay, the issuer seems to have multiple kids for the same issuer ID, so take the first one...
+                issuer = issuers.isEmpty() ? null : issuers.getFirst();
+            }
+        } catch (RuntimeException e) {
+            metrics.recordIssuerLookup(iss, TokenMetrics.Outcome.of(e), System.nanoTime() - start);
+            throw e;
+        }
+        metrics.recordIssuerLookup(iss, issuer == null ? TokenMetrics.Outcome.REJECTED : TokenMetrics.Outcome.SUCCESS, System.nanoTime() - start);
+        return issuer;
+    }
+
+    private Jwt<?, ?> parse(TokenParser<Issuer, ?> parser, CompactJwt jwt, Issuer issuer) {
+        var start = System.nanoTime();
+        try {
+            var result = (Jwt<?, ?>) parser.parse(jwt, issuer);
+            metrics.recordParse(jwt.getIssuer(), jwt.getAlg(), TokenMetrics.Outcome.SUCCESS, System.nanoTime() - start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordParse(jwt.getIssuer(), jwt.getAlg(), TokenMetrics.Outcome.of(e), System.nanoTime() - start);
+            throw e;
+        }
+    }
 }
@@ -15,37 +15,57 @@
  */
 package org.ameba.oauth2;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwt;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.ameba.Constants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * A JwtValidationStrategy may be used as Servlet Filter to extract a JWT from an
- * authorization header and validates the JWT.
+ * authorization header and validates the JWT. The extractors are asked in a
+ * {@link TokenExtractorChain} that stops at the first successful extraction.
+ * If a {@link TrustedHop} is configured, a token that comes with a valid
+ * {@value org.ameba.Constants#HEADER_VALUE_X_VERIFIED_TOKEN} header is accepted
+ * without verifying its signature again, and every accepted token is recorded
+ * for propagation to downstream services.
  *
  * @author Heiko Scherrer
  */
 public class JwtValidationStrategy implements FilterStrategy {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(JwtValidationStrategy.class);
-    private final List<TokenExtractor> extractors;
+    private static final String BEARER = "Bearer";
+    private final TokenExtractorChain extractors;
     private JwtValidator validator;
+    private TokenMetrics metrics = TokenMetrics.NOOP;
+    private TrustedHop trustedHop;
 
     public JwtValidationStrategy(List<TokenExtractor> extractors, @Autowired(required = false) JwtValidator validator) {
-        this.extractors = extractors;
+        this.extractors = new TokenExtractorChain(extractors);
         this.validator = validator;
     }
 
+    public JwtValidationStrategy(List<TokenExtractor> extractors, JwtValidator validator, TokenMetrics metrics) {
+        this(extractors, validator);
+        this.metrics = metrics;
+    }
+
+    public JwtValidationStrategy(List<TokenExtractor> extractors, JwtValidator validator, TokenMetrics metrics, TrustedHop trustedHop) {
+        this(extractors, validator, metrics);
+        this.trustedHop = trustedHop;
+    }
+
     public JwtValidationStrategy(List<TokenExtractor> extractors) {
-        this.extractors = extractors;
+        this.extractors = new TokenExtractorChain(extractors);
     }
+
     /**
      * {@inheritDoc}
      *
@@ -58,35 +78,57 @@ public class JwtValidationStrategy implements FilterStrategy {
         if (authHeader != null && isBearer(authHeader)) {
 
             LOGGER.debug("Authorization Header detected, start extracting and validating...");
-            Jwt jwt = extractToken(authHeader);
+            Jwt<?, ?> jwt = trustedHop == null ? extractToken(authHeader) : extractTrusted(authHeader, request);
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("Extracted JWT: [{}]", jwt);
             }
             if (null != validator) {
-                validator.validate(jwt, request);
+                validate(jwt, request);
             }
         }
     }
 
-    private Jwt extractToken(String authHeader) {
-        List<ExtractionResult> result = extractors
-                .stream()
-                .map(extractor -> {
-                    ExtractionResult vr = extractor.canExtract(authHeader);
-                    return vr.isExtractionPossible() ? extractor.extract(authHeader) : vr;
-                })
-                .collect(Collectors.toList());
+    private void validate(Jwt<?, ?> jwt, HttpServletRequest request) {
+        var start = System.nanoTime();
+        var issuer = jwt.getPayload() instanceof Claims claims ? claims.getIssuer() : null;
+        try {
+            validator.validate(jwt, request);
+        } catch (RuntimeException e) {
+            metrics.recordValidation(issuer, TokenMetrics.Outcome.of(e), System.nanoTime() - start);
+            throw e;
+        }
+        metrics.recordValidation(issuer, TokenMetrics.Outcome.SUCCESS, System.nanoTime() - start);
+    }
+
+    private Jwt<?, ?> extractTrusted(String authHeader, HttpServletRequest request) {
+        var token = authHeader.substring(BEARER.length()).trim();
+        var verified = request.getHeader(Constants.HEADER_VALUE_X_VERIFIED_TOKEN);
+        Jwt<?, ?> jwt;
+        if (trustedHop.isTrusted(token, verified)) {
+            LOGGER.debug("Token has been verified by a trusted hop");
+            jwt = trustedHop.extract(token).getJwt();
+        } else {
+            jwt = extractToken(authHeader);
+            verified = trustedHop.sign(token);
+        }
+        request.setAttribute(TrustedHop.REQUEST_ATTRIBUTE, verified);
+        return jwt;
+    }
 
-        ExtractionResult extractionResult = result
-                .stream()
-                .filter(ExtractionResult::hasJwt)
-                .findFirst()
-                .orElseThrow(() -> new InvalidTokenException("Could not extract JWT from token"));
+    private Jwt<?, ?> extractToken(String authHeader) {
+        return extractors.extract(authHeader).getJwt();
+    }
 
-        return extractionResult.getJwt();
+    /**
+     * Get the extractors in their current order with their measured statistics.
+     *
+     * @return An immutable list
+     */
+    public List<TokenExtractorChain.Statistics> getExtractorStatistics() {
+        return extractors.getStatistics();
     }
 
     private boolean isBearer(String authHeader) {
-        return authHeader.startsWith("Bearer");
+        return authHeader.startsWith(BEARER);
     }
 }
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.oauth2;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * A MicrometerTokenMetrics exports the token validation steps as Micrometer {@link Timer}s, tagged by {@code issuer},
+ * {@code alg} and {@code outcome}, and the counters of the caches in the validation path as {@link FunctionCounter}s and a
+ * hit ratio {@link Gauge}.
+ * <p>
+ * Tag values are bounded: an issuer is used as tag value only after it has passed the issuer whitelist, and at most
+ * {@value #MAX_ISSUERS} issuers are tracked. All other issuers, as well as unknown algorithms, are collapsed into the tag
+ * value {@value #UNKNOWN}, so that forged tokens cannot blow up the number of time series.
+ * <p>
+ * Micrometer holds the state of function based meters weakly, the suppliers of monitored caches are therefore referenced by
+ * this instance, so that the meters do not report {@code NaN} once the suppliers have been garbage collected.
+ *
+ * @author Heiko Scherrer
+ */
+public class MicrometerTokenMetrics implements TokenMetrics {
+
+    /** Tag value of issuers and algorithms that are not tracked. */
+    public static final String UNKNOWN = "unknown";
+    /** Maximum number of issuers that are used as tag value. */
+    public static final int MAX_ISSUERS = 100;
+    private static final Set<String> ALGORITHMS = Set.of("HS256", "HS384", "HS512", "RS256", "RS384", "RS512", "PS256", "PS384",
+            "PS512", "ES256", "ES384", "ES512", "EdDSA");
+
+    private final MeterRegistry registry;
+    private final Set<String> issuers = ConcurrentHashMap.newKeySet();
+    private final Map<Key, Timer> timers = new ConcurrentHashMap<>();
+    private final Counter rejectedIssuers;
+    private final List<CacheSource> caches = new CopyOnWriteArrayList<>();
+
+    private record Key(String name, String issuer, String alg, Outcome outcome) { }
+
+    private record CacheSource(LongSupplier hits, LongSupplier misses, LongSupplier size) {
+        double hitRatio() {
+            var h = hits.getAsLong();
+            var total = h + misses.getAsLong();
+            return total == 0 ? 0 : (double) h / total;
+        }
+    }
+
+    /**
+     * Create an instance.
+     *
+     * @param registry The registry to register the meters at
+     */
+    public MicrometerTokenMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.rejectedIssuers = Counter.builder("ameba.oauth2.issuer.rejected")
+                .description("Number of tokens with an issuer that is not whitelisted")
+                .register(registry);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void recordExtraction(String issuer, String alg, Outcome outcome, long nanos) {
+        timer("ameba.oauth2.token.extraction", issuerTag(issuer), algTag(alg), outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * A successful lookup lets the issuer become a tag value.
+     */
+    @Override
+    public void recordIssuerLookup(String issuer, Outcome outcome, long nanos) {
+        if (outcome == Outcome.SUCCESS && issuer != null && issuers.size() < MAX_ISSUERS) {
+            issuers.add(issuer);
+        } else if (outcome == Outcome.REJECTED) {
+            rejectedIssuers.increment();
+        }
+        timer("ameba.oauth2.issuer.lookup", issuerTag(issuer), UNKNOWN, outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void recordParse(String issuer, String alg, Outcome outcome, long nanos) {
+        timer("ameba.oauth2.token.parse", issuerTag(issuer), algTag(alg), outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void recordValidation(String issuer, Outcome outcome, long nanos) {
+        timer("ameba.oauth2.token.validation", issuerTag(issuer), UNKNOWN, outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void monitorCache(String name, LongSupplier hits, LongSupplier misses, LongSupplier size) {
+        var source = new CacheSource(hits, misses, size);
+        caches.add(source);
+        FunctionCounter.builder("ameba.oauth2.cache.gets", source, c -> c.hits().getAsLong())
+                .tags("cache", name, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("ameba.oauth2.cache.gets", source, c -> c.misses().getAsLong())
+                .tags("cache", name, "result", "miss")
+                .register(registry);
+        Gauge.builder("ameba.oauth2.cache.size", source, c -> c.size().getAsLong())
+                .strongReference(true)
+                .tag("cache", name)
+                .register(registry);
+        Gauge.builder("ameba.oauth2.cache.hit.ratio", source, CacheSource::hitRatio)
+                .strongReference(true)
+                .description("Share of lookups answered from the cache since startup")
+                .tag("cache", name)
+                .register(registry);
+    }
+
+    private String issuerTag(String issuer) {
+        return issuer != null && issuers.contains(issuer) ? issuer : UNKNOWN;
+    }
+
+    private static String algTag(String alg) {
+        return alg != null && ALGORITHMS.contains(alg) ? alg : UNKNOWN;
+    }
+
+    private Timer timer(String name, String issuer, String alg, Outcome outcome) {
+        return timers.computeIfAbsent(new Key(name, issuer, alg, outcome), k -> Timer.builder(k.name())
+                .tags("issuer", k.issuer(), "alg", k.alg(), "outcome", k.outcome().name().toLowerCase())
+                .register(registry));
+    }
+}
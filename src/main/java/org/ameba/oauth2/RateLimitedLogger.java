@@ -0,0 +1,126 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.oauth2;
+
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * A RateLimitedLogger writes at most a configured number of messages per interval to the wrapped {@link Logger} and drops the
+ * others. It is meant for failures that can be caused by clients at will, like invalid tokens, so that a burst of forged
+ * requests cannot flood the log or burn CPU on formatting stack traces. The number of dropped messages is logged with the next
+ * message that passes.
+ *
+ * @author Heiko Scherrer
+ */
+public final class RateLimitedLogger {
+
+    /** Default number of messages per interval. */
+    public static final int DEFAULT_PERMITS = 10;
+    /** Default interval. */
+    public static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(10);
+
+    private final Logger logger;
+    private final int permits;
+    private final long intervalNanos;
+    private final LongSupplier nanoTime;
+    private final AtomicLong windowStart;
+    private final AtomicInteger used = new AtomicInteger();
+    private final LongAdder suppressed = new LongAdder();
+
+    /**
+     * Create a logger with default settings.
+     *
+     * @param logger The Logger to write to
+     */
+    public RateLimitedLogger(Logger logger) {
+        this(logger, DEFAULT_PERMITS, DEFAULT_INTERVAL);
+    }
+
+    /**
+     * Create a logger.
+     *
+     * @param logger The Logger to write to
+     * @param permits The number of messages per interval
+     * @param interval The interval
+     */
+    public RateLimitedLogger(Logger logger, int permits, Duration interval) {
+        this(logger, permits, interval, System::nanoTime);
+    }
+
+    RateLimitedLogger(Logger logger, int permits, Duration interval, LongSupplier nanoTime) {
+        this.logger = logger;
+        this.permits = permits;
+        this.intervalNanos = interval.toNanos();
+        this.nanoTime = nanoTime;
+        this.windowStart = new AtomicLong(nanoTime.getAsLong());
+    }
+
+    /**
+     * Log a message at WARN level, if permitted.
+     *
+     * @param format The message format
+     * @param args The message arguments
+     */
+    public void warn(String format, Object... args) {
+        if (logger.isWarnEnabled() && tryAcquire()) {
+            logger.warn(format, args);
+        }
+    }
+
+    /**
+     * Log a message with the stack trace of {@code t} at ERROR level, if permitted.
+     *
+     * @param message The message
+     * @param t The cause
+     */
+    public void error(String message, Throwable t) {
+        if (logger.isErrorEnabled() && tryAcquire()) {
+            logger.error(message, t);
+        }
+    }
+
+    /**
+     * Get the number of dropped messages that have not been reported yet.
+     *
+     * @return The count
+     */
+    public long getSuppressedCount() {
+        return suppressed.sum();
+    }
+
+    private boolean tryAcquire() {
+        var now = nanoTime.getAsLong();
+        var start = windowStart.get();
+        if (now - start >= intervalNanos && windowStart.compareAndSet(start, now)) {
+            used.set(0);
+        }
+        if (used.incrementAndGet() > permits) {
+            suppressed.increment();
+            return false;
+        }
+        var dropped = suppressed.sumThenReset();
+        if (dropped > 0) {
+            logger.warn("[{}] similar log messages have been suppressed", dropped);
+        }
+        return true;
+    }
+}
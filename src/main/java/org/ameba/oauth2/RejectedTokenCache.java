@@ -0,0 +1,144 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.oauth2;
+
+import org.ameba.system.BoundedConcurrentMap;
+
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A RejectedTokenCache is a bounded cache of tokens that have recently failed validation, so that a repeated token is refused
+ * with a map read, without parsing, issuer lookup, signature verification or logging. Entries are keyed by the SHA-256 digest
+ * of the compact token String and expire after a configurable time to live, so that a token that has been rejected because of
+ * a transient condition (e.g. an issuer or key that was not yet known) is validated again later.
+ * <p>
+ * When the cache is full, expired entries are purged first. If it is still full afterwards, arbitrary entries are evicted until
+ * an eighth of the capacity is free again, so that the cost of a purge is spread over the following rejections instead of being
+ * paid with each one.
+ *
+ * @author Heiko Scherrer
+ */
+public class RejectedTokenCache {
+
+    /** Default maximum number of remembered tokens. */
+    public static final int DEFAULT_MAX_SIZE = 50_000;
+    /** Default time a rejected token is remembered. */
+    public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofSeconds(60);
+
+    private final BoundedConcurrentMap<ByteBuffer, Entry> entries;
+    private final long timeToLiveMillis;
+    private final Clock clock;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private record Entry(String reason, long expiresAt) { }
+
+    /**
+     * Create a cache with default settings.
+     */
+    public RejectedTokenCache() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_TIME_TO_LIVE);
+    }
+
+    /**
+     * Create a cache.
+     *
+     * @param maxSize The maximum number of remembered tokens
+     * @param timeToLive The time a rejected token is remembered
+     */
+    public RejectedTokenCache(int maxSize, Duration timeToLive) {
+        this(maxSize, timeToLive, Clock.systemUTC());
+    }
+
+    RejectedTokenCache(int maxSize, Duration timeToLive, Clock clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize of the RejectedTokenCache must be greater than 0");
+        }
+        this.timeToLiveMillis = timeToLive.toMillis();
+        this.clock = clock;
+        this.entries = new BoundedConcurrentMap<>(maxSize, e -> clock.millis() >= e.expiresAt());
+    }
+
+    /**
+     * Lookup whether the {@code token} has recently been rejected.
+     *
+     * @param token The compact token String
+     * @return The reason of the rejection or an empty Optional if the token has not been rejected recently
+     */
+    public Optional<String> getReason(String token) {
+        var key = TokenDigest.of(token);
+        var entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        if (clock.millis() >= entry.expiresAt()) {
+            entries.remove(key, entry);
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(entry.reason());
+    }
+
+    /**
+     * Remember that the {@code token} has been rejected.
+     *
+     * @param token The compact token String
+     * @param reason The reason of the rejection
+     */
+    public void reject(String token, String reason) {
+        entries.put(TokenDigest.of(token), new Entry(reason, clock.millis() + timeToLiveMillis));
+    }
+
+    /**
+     * Remove all entries, e.g. after the issuer whitelist or the signing keys have changed.
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Get the number of tokens that were refused from the cache.
+     *
+     * @return The hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of tokens that were not refused from the cache.
+     *
+     * @return The miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the current number of remembered tokens.
+     *
+     * @return The size
+     */
+    public int size() {
+        return entries.size();
+    }
+}
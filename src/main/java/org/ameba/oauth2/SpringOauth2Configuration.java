@@ -16,12 +16,25 @@
 package org.ameba.oauth2;
 
 import com.auth0.jwk.JwkProvider;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.ameba.annotation.ExcludeFromScan;
+import org.ameba.oauth2.issuer.CachingIssuerWhiteList;
+import org.ameba.oauth2.parser.ES256TokenParser;
+import org.ameba.oauth2.parser.ES384TokenParser;
+import org.ameba.oauth2.parser.EdDSATokenParser;
+import org.ameba.oauth2.parser.JwkPublicKeyStore;
+import org.ameba.oauth2.parser.JwtParserCache;
+import org.ameba.oauth2.parser.PS256TokenParser;
 import org.ameba.oauth2.parser.RSA256TokenParser;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -34,7 +47,11 @@ import java.util.List;
  *     &#064;EnableJpaRepositories(basePackageClasses = {IssuerPackage.class, TenantPackage.class})
  * </pre>
  *
- * Required bean definitions: JwkProvider
+ * Optional bean definitions: JwkProvider, if absent public keys are resolved from the JWK URL of each issuer.
+ * MeterRegistry, if present the token validation is measured with {@link MicrometerTokenMetrics}
+ * <p>
+ * Set {@code ameba.oauth2.trusted-hop.key} to a Base64 encoded key of at least 256 bits, shared by all internal services, to
+ * enable the {@link TrustedHop} mode.
  *
  * @author Heiko Scherrer
  */
@@ -43,17 +60,121 @@ import java.util.List;
 public class SpringOauth2Configuration {
 
     @Bean
-    RSA256TokenParser rsa256TokenParser(JwkProvider jwkProvider) {
-        return new RSA256TokenParser(jwkProvider);
+    JwkPublicKeyStore jwkPublicKeyStore(@Autowired(required = false) JwkProvider jwkProvider,
+            @Value("${ameba.oauth2.jwk.time-to-live:15m}") Duration timeToLive,
+            @Value("${ameba.oauth2.jwk.refresh-ahead:1m}") Duration refreshAhead,
+            @Value("${ameba.oauth2.jwk.min-refetch-interval:30s}") Duration minRefetchInterval,
+            @Value("${ameba.oauth2.jwk.request-timeout:5s}") Duration requestTimeout) {
+        return new JwkPublicKeyStore(jwkProvider, timeToLive, refreshAhead, minRefetchInterval, requestTimeout);
     }
 
     @Bean
-    BearerTokenExtractor bearerTokenExtractor(IssuerWhiteList whiteList, List<TokenParser> parsers) {
-        return new BearerTokenExtractor(whiteList, parsers);
+    JwtParserCache jwtParserCache(ObjectProvider<TokenMetrics> tokenMetrics) {
+        var cache = new JwtParserCache();
+        metricsOf(tokenMetrics).monitorCache("jwt-parsers", cache::getHitCount, cache::getMissCount, cache::size);
+        return cache;
     }
 
     @Bean
-    FilterStrategy filterStrategy(List<TokenExtractor> extractors, @Autowired(required = false) JwtValidator jwtValidator) {
-        return new JwtValidationStrategy(extractors, jwtValidator);
+    RSA256TokenParser rsa256TokenParser(JwkPublicKeyStore jwkPublicKeyStore, JwtParserCache jwtParserCache) {
+        return new RSA256TokenParser(jwkPublicKeyStore, jwtParserCache);
+    }
+
+    @Bean
+    PS256TokenParser ps256TokenParser(JwkPublicKeyStore jwkPublicKeyStore, JwtParserCache jwtParserCache) {
+        return new PS256TokenParser(jwkPublicKeyStore, jwtParserCache);
+    }
+
+    @Bean
+    ES256TokenParser es256TokenParser(JwkPublicKeyStore jwkPublicKeyStore, JwtParserCache jwtParserCache) {
+        return new ES256TokenParser(jwkPublicKeyStore, jwtParserCache);
+    }
+
+    @Bean
+    ES384TokenParser es384TokenParser(JwkPublicKeyStore jwkPublicKeyStore, JwtParserCache jwtParserCache) {
+        return new ES384TokenParser(jwkPublicKeyStore, jwtParserCache);
+    }
+
+    @Bean
+    EdDSATokenParser edDSATokenParser(JwkPublicKeyStore jwkPublicKeyStore, JwtParserCache jwtParserCache) {
+        return new EdDSATokenParser(jwkPublicKeyStore, jwtParserCache);
+    }
+
+    @Bean
+    VerifiedTokenCache verifiedTokenCache(
+            @Value("${ameba.oauth2.token-cache.max-size:" + VerifiedTokenCache.DEFAULT_MAX_SIZE + "}") int maxSize,
+            @Value("${ameba.oauth2.token-cache.expiry-skew:5s}") Duration expirySkew,
+            @Value("${ameba.oauth2.token-cache.max-time-to-live:5m}") Duration maxTimeToLive,
+            ObjectProvider<TokenMetrics> tokenMetrics, JwkPublicKeyStore jwkPublicKeyStore,
+            ObjectProvider<IssuerWhiteList<?>> whiteLists) {
+        var cache = new VerifiedTokenCache(maxSize, expirySkew, maxTimeToLive);
+        invalidateOnChange(cache::invalidateAll, jwkPublicKeyStore, whiteLists);
+        metricsOf(tokenMetrics).monitorCache("verified-tokens", cache::getHitCount, cache::getMissCount, cache::size);
+        return cache;
+    }
+
+    @Bean
+    RejectedTokenCache rejectedTokenCache(
+            @Value("${ameba.oauth2.rejected-token-cache.max-size:" + RejectedTokenCache.DEFAULT_MAX_SIZE + "}") int maxSize,
+            @Value("${ameba.oauth2.rejected-token-cache.time-to-live:60s}") Duration timeToLive,
+            ObjectProvider<TokenMetrics> tokenMetrics, JwkPublicKeyStore jwkPublicKeyStore,
+            ObjectProvider<IssuerWhiteList<?>> whiteLists) {
+        var cache = new RejectedTokenCache(maxSize, timeToLive);
+        invalidateOnChange(cache::invalidateAll, jwkPublicKeyStore, whiteLists);
+        metricsOf(tokenMetrics).monitorCache("rejected-tokens", cache::getHitCount, cache::getMissCount, cache::size);
+        return cache;
+    }
+
+    @Bean
+    BearerTokenExtractor bearerTokenExtractor(IssuerWhiteList whiteList, List<TokenParser> parsers, VerifiedTokenCache verifiedTokenCache,
+            RejectedTokenCache rejectedTokenCache, ObjectProvider<TokenMetrics> tokenMetrics) {
+        return new BearerTokenExtractor(whiteList, parsers, verifiedTokenCache, rejectedTokenCache, metricsOf(tokenMetrics));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "ameba.oauth2.trusted-hop.key")
+    TrustedHop trustedHop(@Value("${ameba.oauth2.trusted-hop.key}") String key,
+            @Value("${ameba.oauth2.trusted-hop.clock-skew:30s}") Duration clockSkew) {
+        return new TrustedHop(key, clockSkew);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "ameba.oauth2.trusted-hop.key")
+    TrustedHopClientRequestInterceptor trustedHopClientRequestInterceptor(TrustedHop trustedHop) {
+        return new TrustedHopClientRequestInterceptor(trustedHop);
+    }
+
+    @Bean
+    FilterStrategy filterStrategy(List<TokenExtractor> extractors, @Autowired(required = false) JwtValidator jwtValidator,
+            ObjectProvider<TokenMetrics> tokenMetrics, ObjectProvider<TrustedHop> trustedHop) {
+        return new JwtValidationStrategy(extractors, jwtValidator, metricsOf(tokenMetrics), trustedHop.getIfAvailable());
+    }
+
+    private static void invalidateOnChange(Runnable invalidateAll, JwkPublicKeyStore jwkPublicKeyStore,
+            ObjectProvider<IssuerWhiteList<?>> whiteLists) {
+        jwkPublicKeyStore.addKeyChangeListener(invalidateAll);
+        whiteLists.forEach(wl -> {
+            if (wl instanceof CachingIssuerWhiteList caching) {
+                caching.addChangeListener(invalidateAll);
+            }
+        });
+    }
+
+    private static TokenMetrics metricsOf(ObjectProvider<TokenMetrics> tokenMetrics) {
+        return tokenMetrics.getIfAvailable(() -> TokenMetrics.NOOP);
+    }
+
+    /**
+     * Exports metrics of the token validation to Micrometer, if Micrometer is on the classpath and a MeterRegistry exists.
+     */
+    @Configuration
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    static class MicrometerTokenMetricsConfiguration {
+
+        @Bean
+        TokenMetrics tokenMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+            var registry = meterRegistry.getIfAvailable();
+            return registry == null ? TokenMetrics.NOOP : new MicrometerTokenMetrics(registry);
+        }
     }
 }
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.oauth2;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A TokenExtractorChain asks a list of {@link TokenExtractor}s in turn and stops at the first one that extracts a JWT.
+ * <p>
+ * The chain measures the hit rate and the average cost of each extractor. Every {@value #REORDER_INTERVAL} extractions it
+ * reorders the extractors by hit rate per cost, so that the extractor that usually succeeds at low cost is asked first.
+ * Extractors with equal scores keep the configured order. Only extractors that decline the token in
+ * {@link TokenExtractor#canExtract(String)} are skipped, an {@link InvalidTokenException} thrown by an extractor is final and
+ * rejects the token without asking the remaining extractors.
+ *
+ * @author Heiko Scherrer
+ */
+public class TokenExtractorChain {
+
+    /** Number of extractions after that the chain is reordered. */
+    public static final int REORDER_INTERVAL = 1024;
+    private static final double SMOOTHING = 0.5;
+
+    private final AtomicLong extractions = new AtomicLong();
+    private volatile List<Link> links;
+
+    /**
+     * The statistics of one {@link TokenExtractor} in the chain.
+     *
+     * @param extractor The extractor
+     * @param hitRate The share of attempts that extracted a JWT, between 0 and 1
+     * @param averageNanos The average time of an attempt in nanoseconds
+     */
+    public record Statistics(TokenExtractor extractor, double hitRate, double averageNanos) { }
+
+    private static final class Link {
+        private final TokenExtractor extractor;
+        private final int position;
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private double hitRate = -1;
+        private double averageNanos;
+
+        private Link(TokenExtractor extractor, int position) {
+            this.extractor = extractor;
+            this.position = position;
+        }
+
+        private void record(boolean hit, long elapsed) {
+            attempts.increment();
+            nanos.add(elapsed);
+            if (hit) {
+                hits.increment();
+            }
+        }
+
+        private void roll() {
+            var a = attempts.sumThenReset();
+            var h = hits.sumThenReset();
+            var n = nanos.sumThenReset();
+            if (a == 0) {
+                return;
+            }
+            var rate = (double) h / a;
+            var avg = (double) n / a;
+            if (hitRate < 0) {
+                hitRate = rate;
+                averageNanos = avg;
+            } else {
+                hitRate = SMOOTHING * hitRate + (1 - SMOOTHING) * rate;
+                averageNanos = SMOOTHING * averageNanos + (1 - SMOOTHING) * avg;
+            }
+        }
+
+        /* Extractors that have not been measured yet are preferred, so that they get measured. */
+        private double score() {
+            return hitRate < 0 ? Double.MAX_VALUE : hitRate / Math.max(averageNanos, 1);
+        }
+    }
+
+    /**
+     * Create a chain.
+     *
+     * @param extractors The extractors in their initial order
+     */
+    public TokenExtractorChain(List<TokenExtractor> extractors) {
+        var result = new ArrayList<Link>(extractors.size());
+        for (var i = 0; i < extractors.size(); i++) {
+            result.add(new Link(extractors.get(i), i));
+        }
+        this.links = List.copyOf(result);
+    }
+
+    /**
+     * Extract the JWT from the {@code token} with the first extractor that is able to.
+     *
+     * @param token The String
+     * @return The result of the successful extractor
+     * @throws InvalidTokenException if an extractor rejects the token or no extractor is able to extract a JWT
+     */
+    public ExtractionResult extract(String token) {
+        try {
+            for (var link : links) {
+                var start = System.nanoTime();
+                var hit = false;
+                try {
+                    var candidate = link.extractor.canExtract(token);
+                    if (candidate.isExtractionPossible()) {
+                        candidate = link.extractor.extract(token);
+                    }
+                    if (candidate.hasJwt()) {
+                        hit = true;
+                        return candidate;
+                    }
+                } finally {
+                    link.record(hit, System.nanoTime() - start);
+                }
+            }
+            throw new InvalidTokenException("Could not extract JWT from token");
+        } finally {
+            if (extractions.incrementAndGet() % REORDER_INTERVAL == 0) {
+                reorder();
+            }
+        }
+    }
+
+    /**
+     * Get the extractors in their current order with their measured statistics.
+     *
+     * @return An immutable list
+     */
+    public List<Statistics> getStatistics() {
+        return links.stream()
+                .map(l -> new Statistics(l.extractor, Math.max(l.hitRate, 0), l.averageNanos))
+                .toList();
+    }
+
+    /**
+     * Reorder the extractors by their hit rate per cost, measured since the last reordering.
+     */
+    public synchronized void reorder() {
+        var current = new ArrayList<>(links);
+        current.forEach(Link::roll);
+        current.sort(Comparator.comparingDouble(Link::score).reversed().thenComparingInt(l -> l.position));
+        links = List.copyOf(current);
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.oauth2;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A TokenMetrics is notified about the duration and outcome of each step of the token validation, so that these can be
+ * exported to a monitoring system. All methods are called on the request thread and must be cheap. The default
+ * implementations do nothing.
+ *
+ * @author Heiko Scherrer
+ * @see MicrometerTokenMetrics
+ */
+public interface TokenMetrics {
+
+    /** A TokenMetrics that records nothing. */
+    TokenMetrics NOOP = new TokenMetrics() { };
+
+    /**
+     * The outcome of a step.
+     */
+    enum Outcome {
+        /** The step has succeeded. */
+        SUCCESS,
+        /** The step has been answered from a cache. */
+        CACHED,
+        /** The token has been rejected. */
+        REJECTED,
+        /** The step has failed for a technical reason. */
+        ERROR;
+
+        /**
+         * Classify the {@code e} that has been thrown by a step.
+         *
+         * @param e The exception
+         * @return REJECTED for an {@link InvalidTokenException}, otherwise ERROR
+         */
+        public static Outcome of(Exception e) {
+            return e instanceof InvalidTokenException ? REJECTED : ERROR;
+        }
+    }
+
+    /**
+     * Record the extraction of a token by a {@link TokenExtractor}.
+     *
+     * @param issuer The issuer ID claimed by the token or {@literal null} if not known
+     * @param alg The signing algorithm of the token or {@literal null} if not known
+     * @param outcome The outcome
+     * @param nanos The duration in nanoseconds
+     */
+    default void recordExtraction(String issuer, String alg, Outcome outcome, long nanos) {
+    }
+
+    /**
+     * Record the lookup of an issuer in the {@link IssuerWhiteList}.
+     *
+     * @param issuer The issuer ID claimed by the token
+     * @param outcome The outcome
+     * @param nanos The duration in nanoseconds
+     */
+    default void recordIssuerLookup(String issuer, Outcome outcome, long nanos) {
+    }
+
+    /**
+     * Record the parsing and signature verification by a {@link TokenParser}.
+     *
+     * @param issuer The accepted issuer ID
+     * @param alg The signing algorithm
+     * @param outcome The outcome
+     * @param nanos The duration in nanoseconds
+     */
+    default void recordParse(String issuer, String alg, Outcome outcome, long nanos) {
+    }
+
+    /**
+     * Record the validation of a verified token by a {@link JwtValidator}.
+     *
+     * @param issuer The issuer ID of the token or {@literal null} if not known
+     * @param outcome The outcome
+     * @param nanos The duration in nanoseconds
+     */
+    default void recordValidation(String issuer, Outcome outcome, long nanos) {
+    }
+
+    /**
+     * Monitor the counters of a cache in the validation path.
+     *
+     * @param name The name of the cache
+     * @param hits Supplies the number of lookups answered from the cache
+     * @param misses Supplies the number of lookups not answered from the cache
+     * @param size Supplies the current number of entries
+     */
+    default void monitorCache(String name, LongSupplier hits, LongSupplier misses, LongSupplier size) {
+    }
+}
@@ -39,6 +39,19 @@ public interface TokenParser<T extends Issuer, U extends Jwt> {
      * @param token The String token to parse
      * @param issuer The origin token issuer that provides the signing key
      * @return The parsed JWT instance
+     * @throws InvalidTokenException if the token is not valid
+     * @throws org.ameba.exception.TechnicalRuntimeException if the token cannot be verified because of a technical failure
      */
     U parse(String token, T issuer);
+
+    /**
+     * Parse the already tokenized {@code jwt} into a valid kind of JWT type.
+     *
+     * @param jwt The tokenized JWT to parse
+     * @param issuer The origin token issuer that provides the signing key
+     * @return The parsed JWT instance
+     */
+    default U parse(CompactJwt jwt, T issuer) {
+        return parse(jwt.getToken(), issuer);
+    }
 }
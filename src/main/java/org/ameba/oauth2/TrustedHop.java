@@ -0,0 +1,141 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.oauth2;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * A TrustedHop lets internal services that share a secret key skip the signature verification of a bearer token that has
+ * already been verified by an upstream service. The verifying service sends the SHA-256 digest of the token together with an
+ * HMAC-SHA256 over that digest in the {@value org.ameba.Constants#HEADER_VALUE_X_VERIFIED_TOKEN} header. A downstream service
+ * accepts the token when the digest matches the received token and the HMAC is valid, and only parses its claims, including
+ * the check of {@code exp} and {@code nbf}.
+ * <p>
+ * The header value is bound to the exact token, so it does not grant more than the token itself. Anyone who knows the key can
+ * however vouch for arbitrary tokens, hence the key must only be shared between services of the same trust domain.
+ *
+ * @author Heiko Scherrer
+ */
+public class TrustedHop {
+
+    /** Name of the request attribute where the header value for a verified token is recorded for outgoing requests. */
+    public static final String REQUEST_ATTRIBUTE = TrustedHop.class.getName() + ".VERIFIED_TOKEN";
+    private static final String VERSION = "v1.";
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_KEY_LENGTH = 32;
+    private static final String UNSECURED_HEADER = Base64.getUrlEncoder().withoutPadding()
+            .encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.US_ASCII));
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final JwtParser claimsParser;
+    private final ThreadLocal<Mac> mac;
+
+    /**
+     * Create a TrustedHop.
+     *
+     * @param base64Key The Base64 encoded shared key of at least 256 bits
+     * @param clockSkew The allowed clock skew when {@code exp} and {@code nbf} are checked
+     */
+    public TrustedHop(String base64Key, Duration clockSkew) {
+        var bytes = Decoders.BASE64.decode(base64Key);
+        if (bytes.length < MIN_KEY_LENGTH) {
+            throw new IllegalArgumentException("The trusted hop key must have at least 256 bits");
+        }
+        this.key = new SecretKeySpec(bytes, ALGORITHM);
+        this.claimsParser = Jwts.parser().unsecured().clockSkewSeconds(clockSkew.toSeconds()).build();
+        this.mac = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * Create the header value that vouches for the already verified {@code token}.
+     *
+     * @param token The compact token String
+     * @return The header value
+     */
+    public String sign(String token) {
+        var digest = TokenDigest.of(token).array();
+        return VERSION + ENCODER.encodeToString(digest) + '.' + ENCODER.encodeToString(hmac(digest));
+    }
+
+    /**
+     * Check whether the {@code headerValue} vouches for the {@code token}.
+     *
+     * @param token The compact token String
+     * @param headerValue The received header value, may be {@literal null}
+     * @return {@literal true} if the digest matches the token and the HMAC is valid
+     */
+    public boolean isTrusted(String token, String headerValue) {
+        if (token == null || headerValue == null || !headerValue.startsWith(VERSION)) {
+            return false;
+        }
+        var dot = headerValue.indexOf('.', VERSION.length());
+        if (dot < 0) {
+            return false;
+        }
+        try {
+            var digest = TokenDigest.of(token).array();
+            return MessageDigest.isEqual(digest, DECODER.decode(headerValue.substring(VERSION.length(), dot)))
+                    && MessageDigest.isEqual(hmac(digest), DECODER.decode(headerValue.substring(dot + 1)));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Parse the claims of a trusted {@code token} without verifying its signature again.
+     *
+     * @param token The compact token String, that has been checked with {@link #isTrusted(String, String)} before
+     * @return The result with the JWT, carrying the claims but not the original header
+     * @throws InvalidTokenException if the token is not a JWT or has expired
+     */
+    public ExtractionResult extract(String token) {
+        var jwt = CompactJwt.of(token);
+        try {
+            return new ExtractionResult(claimsParser.parseUnsecuredClaims(UNSECURED_HEADER + '.' + jwt.getPayloadSegment() + '.'));
+        } catch (JwtException e) {
+            throw new InvalidTokenException(e.getMessage());
+        }
+    }
+
+    private byte[] hmac(byte[] digest) {
+        var m = mac.get();
+        m.reset();
+        return m.doFinal(digest);
+    }
+
+    private Mac newMac() {
+        try {
+            var m = Mac.getInstance(ALGORITHM);
+            m.init(key);
+            return m;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not supported by the JVM", e);
+        }
+    }
+}
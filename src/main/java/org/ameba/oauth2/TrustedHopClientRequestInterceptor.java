@@ -0,0 +1,59 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.oauth2;
+
+import org.ameba.Constants;
+import org.ameba.http.BaseClientHttpRequestInterceptor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.io.IOException;
+
+/**
+ * A TrustedHopClientRequestInterceptor adds the {@value org.ameba.Constants#HEADER_VALUE_X_VERIFIED_TOKEN} header to outgoing
+ * requests with the RestTemplate, if the bearer token of the outgoing request is the one that has been verified for the current
+ * incoming request.
+ *
+ * @author Heiko Scherrer
+ */
+public class TrustedHopClientRequestInterceptor implements BaseClientHttpRequestInterceptor {
+
+    private static final String BEARER = "Bearer ";
+    private final TrustedHop trustedHop;
+
+    public TrustedHopClientRequestInterceptor(TrustedHop trustedHop) {
+        this.trustedHop = trustedHop;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        var authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        var attributes = RequestContextHolder.getRequestAttributes();
+        if (authHeader != null && authHeader.startsWith(BEARER) && attributes != null
+                && attributes.getAttribute(TrustedHop.REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof String verified
+                && trustedHop.isTrusted(authHeader.substring(BEARER.length()).trim(), verified)) {
+            request.getHeaders().set(Constants.HEADER_VALUE_X_VERIFIED_TOKEN, verified);
+        }
+        return execution.execute(request, body);
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.oauth2;
+
+import io.jsonwebtoken.Claims;
+import org.ameba.system.BoundedConcurrentMap;
+
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A VerifiedTokenCache is a bounded cache of {@link ExtractionResult}s of tokens that have already passed issuer and signature
+ * validation. Entries are keyed by the SHA-256 digest of the compact token String, so the raw token is never kept in memory
+ * longer than the request. An entry expires at the {@code exp} claim of the token minus the configured skew, but never later than
+ * the configured maximum time to live, so that a token is verified again at least once per maximum time to live. Tokens without an
+ * {@code exp} claim are kept for the maximum time to live.
+ * <p>
+ * Whoever manages the issuers and signing keys must call {@link #invalidateAll()} when they change, so that tokens of removed
+ * issuers or revoked keys are not answered from the cache.
+ * <p>
+ * When the cache is full, expired entries are purged first. If it is still full afterwards, arbitrary entries are evicted in a batch
+ * (see {@link BoundedConcurrentMap}).
+ *
+ * @author Heiko Scherrer
+ */
+public class VerifiedTokenCache {
+
+    /** Default maximum number of cached tokens. */
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+    /** Default time an entry is retired before the token itself expires. */
+    public static final Duration DEFAULT_EXPIRY_SKEW = Duration.ofSeconds(5);
+    /** Default maximum time to live of an entry. */
+    public static final Duration DEFAULT_MAX_TIME_TO_LIVE = Duration.ofMinutes(5);
+
+    private final BoundedConcurrentMap<ByteBuffer, Entry> entries;
+    private final long expirySkewMillis;
+    private final long maxTimeToLiveMillis;
+    private final Clock clock;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private record Entry(ExtractionResult result, long expiresAt) {
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+
+    /**
+     * Create a cache with default settings.
+     */
+    public VerifiedTokenCache() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_EXPIRY_SKEW, DEFAULT_MAX_TIME_TO_LIVE);
+    }
+
+    /**
+     * Create a cache.
+     *
+     * @param maxSize The maximum number of cached tokens
+     * @param expirySkew The time an entry is retired before the token expires
+     * @param maxTimeToLive The maximum time to live of an entry
+     */
+    public VerifiedTokenCache(int maxSize, Duration expirySkew, Duration maxTimeToLive) {
+        this(maxSize, expirySkew, maxTimeToLive, Clock.systemUTC());
+    }
+
+    VerifiedTokenCache(int maxSize, Duration expirySkew, Duration maxTimeToLive, Clock clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize of the VerifiedTokenCache must be greater than 0");
+        }
+        this.expirySkewMillis = expirySkew.toMillis();
+        this.maxTimeToLiveMillis = maxTimeToLive.toMillis();
+        this.clock = clock;
+        this.entries = new BoundedConcurrentMap<>(maxSize, e -> e.isExpired(clock.millis()));
+    }
+
+    /**
+     * Lookup a previously verified {@code token}.
+     *
+     * @param token The compact token String
+     * @return The cached result or an empty Optional if the token is unknown or the entry has expired
+     */
+    public Optional<ExtractionResult> get(String token) {
+        var key = TokenDigest.of(token);
+        var entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        if (entry.isExpired(clock.millis())) {
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(entry.result());
+    }
+
+    /**
+     * Store the verified {@code result} of the {@code token}. Results without a JWT are ignored.
+     *
+     * @param token The compact token String
+     * @param result The result of a successful extraction
+     */
+    public void put(String token, ExtractionResult result) {
+        if (result == null || !result.hasJwt()) {
+            return;
+        }
+        var now = clock.millis();
+        var expiresAt = expiresAt(result, now);
+        if (expiresAt <= now) {
+            return;
+        }
+        entries.put(TokenDigest.of(token), new Entry(result, expiresAt));
+    }
+
+    /**
+     * Remove all entries, e.g. after the issuer whitelist or the signing keys have changed.
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Get the number of lookups that were answered from the cache.
+     *
+     * @return The hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of lookups that were not answered from the cache.
+     *
+     * @return The miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the number of entries that have been removed because they expired or the cache was full.
+     *
+     * @return The eviction count
+     */
+    public long getEvictionCount() {
+        return evictions.sum() + entries.getEvictionCount();
+    }
+
+    /**
+     * Get the current number of cached tokens.
+     *
+     * @return The size
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private long expiresAt(ExtractionResult result, long now) {
+        var maxExpiresAt = now + maxTimeToLiveMillis;
+        if (result.getJwt().getPayload() instanceof Claims claims) {
+            Date exp = claims.getExpiration();
+            if (exp != null) {
+                return Math.min(exp.getTime() - expirySkewMillis, maxExpiresAt);
+            }
+        }
+        return maxExpiresAt;
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.oauth2.issuer;
+
+import org.ameba.oauth2.InvalidTokenException;
+import org.ameba.oauth2.Issuer;
+import org.ameba.oauth2.IssuerWhiteList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A CachingIssuerWhiteList is a decorator of an {@link IssuerWhiteList} (usually a {@link PersistentIssuerWhiteList}) that keeps
+ * all persisted issuers in an in-memory index keyed by issuer ID and {@code kid}, so that resolving an issuer is a map read
+ * without a database round trip.
+ * <p>
+ * The index is loaded at construction time and replaced atomically. A background task polls an aggregate over the optimistic
+ * locking version ({@code C_OL}) and last-modified column ({@code C_UPDATED}) of all issuers and reloads only the changed rows,
+ * or the whole table if rows have been deleted. Lookups that miss the index are delegated, so that the delegate can still
+ * register new rolling {@code kid}s, and the outcome is added to the index. Rejected issuers are remembered for a configurable
+ * time to spare the database from repeated lookups of unknown issuers. Listeners registered with
+ * {@link #addChangeListener(Runnable)} are notified whenever a refresh has changed the index, e.g. to invalidate caches of tokens
+ * that have been verified with the former issuers.
+ *
+ * @author Heiko Scherrer
+ */
+public final class CachingIssuerWhiteList implements IssuerWhiteList<Issuer>, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingIssuerWhiteList.class);
+    /** Default interval to poll for changed issuers. */
+    public static final Duration DEFAULT_POLL_INTERVAL = Duration.ofSeconds(30);
+    /** Default time a rejected issuer is remembered. */
+    public static final Duration DEFAULT_NEGATIVE_TIME_TO_LIVE = Duration.ofSeconds(60);
+    private static final int MAX_NEGATIVE_ENTRIES = 10_000;
+
+    private final IssuerWhiteList<Issuer> delegate;
+    private final JpaIssuerRepository repository;
+    private final long negativeTimeToLiveMillis;
+    private final Clock clock;
+    private final Map<String, Long> rejected = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService executor;
+    private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+    private volatile Index index;
+
+    private record Key(String issuerId, String kid) { }
+
+    private record State(long count, LocalDateTime lastModifiedDt, long versions) {
+        static State of(JpaIssuerRepository.Fingerprint fingerprint) {
+            return new State(
+                    fingerprint.getTotal() == null ? 0 : fingerprint.getTotal(),
+                    fingerprint.getLastModifiedDt(),
+                    fingerprint.getVersions() == null ? 0 : fingerprint.getVersions());
+        }
+
+        static State of(Collection<IssuerEO> issuers) {
+            LocalDateTime lastModifiedDt = null;
+            long versions = 0;
+            for (var issuer : issuers) {
+                if (issuer.getLastModifiedDt() != null && (lastModifiedDt == null || issuer.getLastModifiedDt().isAfter(lastModifiedDt))) {
+                    lastModifiedDt = issuer.getLastModifiedDt();
+                }
+                versions += issuer.getOl();
+            }
+            return new State(issuers.size(), lastModifiedDt, versions);
+        }
+    }
+
+    private record Index(Map<Long, IssuerEO> byPk, Map<Key, Issuer> byKid, Map<String, List<Issuer>> byIssuer, State state) {
+        static Index of(Collection<IssuerEO> issuers, State state) {
+            var byPk = new HashMap<Long, IssuerEO>(issuers.size());
+            issuers.forEach(i -> byPk.put(i.getPk(), i));
+            var byKid = new HashMap<Key, Issuer>(byPk.size());
+            var byIssuer = new HashMap<String, List<Issuer>>();
+            for (var issuer : byPk.values()) {
+                byKid.put(new Key(issuer.getIssuerId(), issuer.getKID()), issuer);
+                byIssuer.computeIfAbsent(issuer.getIssuerId(), k -> new ArrayList<>()).add(issuer);
+            }
+            byIssuer.replaceAll((k, v) -> List.copyOf(v));
+            return new Index(Map.copyOf(byPk), Map.copyOf(byKid), Map.copyOf(byIssuer), state);
+        }
+    }
+
+    /**
+     * Create a whitelist with default settings.
+     *
+     * @param delegate The whitelist to delegate to if an issuer is not in the index
+     * @param repository The repository to load and poll issuers from
+     */
+    public CachingIssuerWhiteList(IssuerWhiteList<Issuer> delegate, JpaIssuerRepository repository) {
+        this(delegate, repository, DEFAULT_POLL_INTERVAL, DEFAULT_NEGATIVE_TIME_TO_LIVE);
+    }
+
+    /**
+     * Create a whitelist.
+     *
+     * @param delegate The whitelist to delegate to if an issuer is not in the index
+     * @param repository The repository to load and poll issuers from
+     * @param pollInterval The interval to poll for changed issuers
+     * @param negativeTimeToLive The time a rejected issuer is remembered
+     */
+    public CachingIssuerWhiteList(IssuerWhiteList<Issuer> delegate, JpaIssuerRepository repository, Duration pollInterval,
+            Duration negativeTimeToLive) {
+        this(delegate, repository, pollInterval, negativeTimeToLive, Clock.systemUTC());
+    }
+
+    CachingIssuerWhiteList(IssuerWhiteList<Issuer> delegate, JpaIssuerRepository repository, Duration pollInterval,
+            Duration negativeTimeToLive, Clock clock) {
+        this.delegate = delegate;
+        this.repository = repository;
+        this.negativeTimeToLiveMillis = negativeTimeToLive.toMillis();
+        this.clock = clock;
+        this.index = Index.of(repository.findAll(), State.of(repository.fingerprint()));
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            var thread = new Thread(r, "ameba-issuer-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.scheduleWithFixedDelay(this::refreshSafely, pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Answered from the in-memory index.
+     */
+    @Override
+    public List<Issuer> getIssuers(String issuerId) {
+        var issuers = index.byIssuer().get(issuerId);
+        if (issuers != null) {
+            return issuers;
+        }
+        ensureNotRejected(issuerId);
+        try {
+            return delegate.getIssuers(issuerId);
+        } catch (InvalidTokenException e) {
+            reject(issuerId);
+            throw e;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Answered from the in-memory index.
+     */
+    @Override
+    public Issuer getIssuer(String issuerId, String kid) {
+        var issuer = index.byKid().get(new Key(issuerId, kid));
+        if (issuer != null) {
+            return issuer;
+        }
+        var rejectKey = issuerId + '#' + kid;
+        ensureNotRejected(rejectKey);
+        try {
+            var result = delegate.getIssuer(issuerId, kid);
+            if (result instanceof IssuerEO eo && eo.getPk() != null) {
+                merge(List.of(eo), index.state());
+            }
+            return result;
+        } catch (InvalidTokenException e) {
+            reject(rejectKey);
+            throw e;
+        }
+    }
+
+    /**
+     * Register a {@code listener} that is called after a refresh has changed the index.
+     *
+     * @param listener The listener
+     */
+    public void addChangeListener(Runnable listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Check the database for changed issuers and update the index accordingly. Changed issuers are merged into the index only if
+     * the result matches the fingerprint of the database, otherwise all issuers are reloaded.
+     */
+    public synchronized void refresh() {
+        var current = index;
+        var state = State.of(repository.fingerprint());
+        if (state.equals(current.state())) {
+            return;
+        }
+        if (state.count() >= current.byPk().size() && current.state().lastModifiedDt() != null) {
+            var changed = repository.findByLastModifiedDtAfter(current.state().lastModifiedDt());
+            if (!changed.isEmpty()) {
+                var all = new HashMap<>(current.byPk());
+                changed.forEach(i -> all.put(i.getPk(), i));
+                if (State.of(all.values()).equals(state)) {
+                    index = Index.of(all.values(), state);
+                    rejected.clear();
+                    LOGGER.debug("Refreshed [{}] changed issuers", changed.size());
+                    notifyChangeListeners();
+                    return;
+                }
+            }
+        }
+        index = Index.of(repository.findAll(), state);
+        rejected.clear();
+        LOGGER.debug("Reloaded all [{}] issuers", state.count());
+        notifyChangeListeners();
+    }
+
+    private void notifyChangeListeners() {
+        for (var listener : changeListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                LOGGER.warn("Notifying a listener about changed issuers failed: [{}]", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Stop polling for changes.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private synchronized void merge(Collection<IssuerEO> changed, State state) {
+        var all = new HashMap<>(index.byPk());
+        changed.forEach(i -> all.put(i.getPk(), i));
+        index = Index.of(all.values(), state);
+        rejected.clear();
+    }
+
+    private void refreshSafely() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            LOGGER.warn("Refreshing the issuer index failed, keep using the current one: [{}]", e.getMessage());
+        }
+    }
+
+    private void ensureNotRejected(String key) {
+        var expiresAt = rejected.get(key);
+        if (expiresAt != null) {
+            if (expiresAt > clock.millis()) {
+                throw new InvalidTokenException("Token issuer is not known and therefor rejected");
+            }
+            rejected.remove(key, expiresAt);
+        }
+    }
+
+    private void reject(String key) {
+        if (rejected.size() >= MAX_NEGATIVE_ENTRIES) {
+            rejected.clear();
+        }
+        rejected.put(key, clock.millis() + negativeTimeToLiveMillis);
+    }
+}
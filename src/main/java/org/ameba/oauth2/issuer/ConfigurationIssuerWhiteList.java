@@ -18,48 +18,123 @@ package org.ameba.oauth2.issuer;
 import org.ameba.oauth2.InvalidTokenException;
 import org.ameba.oauth2.Issuer;
 import org.ameba.oauth2.IssuerWhiteList;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.boot.context.properties.source.InvalidConfigurationPropertyValueException;
+import org.springframework.core.env.Environment;
 
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
- * A ConfigurationIssuerWhiteList.
+ * A ConfigurationIssuerWhiteList accepts a fixed set of issuers, each with any number of {@code kid}s, that is defined in the
+ * application configuration. All {@link ConfiguredIssuer} instances are built once and indexed by issuer ID and {@code kid},
+ * so lookups return shared instances without allocation.
+ *
+ * <pre>
+ *     ameba.oauth2.issuers[0].id=https://sso.example.com/realms/acme
+ *     ameba.oauth2.issuers[0].jwk-url=https://sso.example.com/realms/acme/protocol/openid-connect/certs
+ *     ameba.oauth2.issuers[0].kids=key-2025,key-2026
+ *     ameba.oauth2.issuers[1].id=https://legacy.example.com
+ *     ameba.oauth2.issuers[1].signing-key=...
+ * </pre>
  *
  * @author Heiko Scherrer
+ * @see #of(Environment)
  */
 public class ConfigurationIssuerWhiteList implements IssuerWhiteList<Issuer> {
 
-    private final String issuerId;
-    private final int skewSeconds;
-    private final URL baseURL;
-    private final String signingKey;
-    private final URL jwkURL;
-    private final String kid;
+    /** The prefix of the configuration properties that define the issuers. */
+    public static final String PROPERTY_PREFIX = "ameba.oauth2.issuers";
+
+    private final Map<String, List<Issuer>> byIssuer;
+    private final Map<String, Map<String, Issuer>> byKid;
+
+    /**
+     * The configuration of one issuer.
+     *
+     * @param id The issuer ID, as in the {@code iss} claim
+     * @param skewSeconds Leap seconds allowed when a token signature is validated, defaults to {@link Issuer#DEFAULT_MAX_SKEW_SECONDS}
+     * @param baseUrl The base URL of the authorization server
+     * @param signingKey The Base64 encoded symmetric signing key
+     * @param jwkUrl The JWK endpoint of the authorization server
+     * @param kids All accepted key IDs
+     */
+    public record IssuerProperties(String id, Integer skewSeconds, URL baseUrl, String signingKey, URL jwkUrl, List<String> kids) { }
 
     public ConfigurationIssuerWhiteList(String issuerId, int skewSeconds, String baseURL, String signingKey, URL jwkURL, String kid) {
-        this.issuerId = issuerId;
-        this.skewSeconds = skewSeconds;
-        this.signingKey = signingKey;
-        this.jwkURL = jwkURL;
-        this.kid = kid;
-        try {
-            this.baseURL = new URL(baseURL);
-        } catch (MalformedURLException e) {
-            throw new InvalidConfigurationPropertyValueException("baseURL", baseURL, "BaseURL is not a proper URL");
-        }
+        this(List.of(new ConfiguredIssuer(issuerId, skewSeconds, toURL(baseURL), signingKey, jwkURL, kid)));
     }
 
     public ConfigurationIssuerWhiteList(String issuerId, String baseURL, String signingKey, URL jwkURL, String kid) {
-        this.issuerId = issuerId;
-        this.signingKey = signingKey;
-        this.jwkURL = jwkURL;
-        this.kid = kid;
-        this.skewSeconds = Issuer.DEFAULT_MAX_SKEW_SECONDS;
+        this(issuerId, Issuer.DEFAULT_MAX_SKEW_SECONDS, baseURL, signingKey, jwkURL, kid);
+    }
+
+    /**
+     * Create a whitelist of the given {@code issuers}, one instance per issuer ID and {@code kid}.
+     *
+     * @param issuers All accepted issuers
+     */
+    public ConfigurationIssuerWhiteList(Collection<ConfiguredIssuer> issuers) {
+        var issuerIndex = new HashMap<String, List<Issuer>>();
+        var kidIndex = new HashMap<String, Map<String, Issuer>>();
+        for (var issuer : issuers) {
+            issuerIndex.computeIfAbsent(issuer.getIssuerId(), k -> new ArrayList<>()).add(issuer);
+            if (issuer.getKID() != null) {
+                kidIndex.computeIfAbsent(issuer.getIssuerId(), k -> new HashMap<>()).put(issuer.getKID(), issuer);
+            }
+        }
+        issuerIndex.replaceAll((k, v) -> List.copyOf(v));
+        kidIndex.replaceAll((k, v) -> Map.copyOf(v));
+        this.byIssuer = Map.copyOf(issuerIndex);
+        this.byKid = Map.copyOf(kidIndex);
+    }
+
+    /**
+     * Create a whitelist from the issuers configured with prefix {@value #PROPERTY_PREFIX}.
+     *
+     * @param environment The Spring Environment to bind the properties from
+     * @return The whitelist
+     */
+    public static ConfigurationIssuerWhiteList of(Environment environment) {
+        var properties = Binder.get(environment)
+                .bind(PROPERTY_PREFIX, Bindable.listOf(IssuerProperties.class))
+                .orElse(List.of());
+        return ofProperties(properties);
+    }
+
+    /**
+     * Create a whitelist from the given issuer configurations.
+     *
+     * @param properties The issuer configurations
+     * @return The whitelist
+     */
+    public static ConfigurationIssuerWhiteList ofProperties(Collection<IssuerProperties> properties) {
+        var issuers = new ArrayList<ConfiguredIssuer>();
+        for (var p : properties) {
+            if (p.id() == null || p.id().isEmpty()) {
+                throw new InvalidConfigurationPropertyValueException(PROPERTY_PREFIX + ".id", p.id(), "Issuer ID must be set");
+            }
+            var skew = p.skewSeconds() == null ? Issuer.DEFAULT_MAX_SKEW_SECONDS : p.skewSeconds();
+            if (p.kids() == null || p.kids().isEmpty()) {
+                issuers.add(new ConfiguredIssuer(p.id(), skew, p.baseUrl(), p.signingKey(), p.jwkUrl(), null));
+            } else {
+                for (var kid : p.kids()) {
+                    issuers.add(new ConfiguredIssuer(p.id(), skew, p.baseUrl(), p.signingKey(), p.jwkUrl(), kid));
+                }
+            }
+        }
+        return new ConfigurationIssuerWhiteList(issuers);
+    }
+
+    private static URL toURL(String baseURL) {
         try {
-            this.baseURL = new URL(baseURL);
+            return new URL(baseURL);
         } catch (MalformedURLException e) {
             throw new InvalidConfigurationPropertyValueException("baseURL", baseURL, "BaseURL is not a proper URL");
         }
@@ -70,12 +145,11 @@ public class ConfigurationIssuerWhiteList implements IssuerWhiteList<Issuer> {
      */
     @Override
     public List<Issuer> getIssuers(String issuerId) {
-        if (!this.issuerId.equals(issuerId)) {
+        var issuers = issuerId == null ? null : byIssuer.get(issuerId);
+        if (issuers == null) {
             throw new InvalidTokenException("Token issuer not accepted");
         }
-        var result = new ArrayList<Issuer>(1);
-        result.add(new ConfiguredIssuer(issuerId, skewSeconds, baseURL, signingKey, jwkURL, kid));
-        return result;
+        return issuers;
     }
 
     /**
@@ -83,12 +157,14 @@ public class ConfigurationIssuerWhiteList implements IssuerWhiteList<Issuer> {
      */
     @Override
     public Issuer getIssuer(String issuerId, String kid) {
-        if (!this.issuerId.equals(issuerId)) {
+        if (issuerId == null || !byIssuer.containsKey(issuerId)) {
             throw new InvalidTokenException("Token issuer not accepted");
         }
-        if (!this.kid.equals(kid)) {
+        var kids = byKid.get(issuerId);
+        var issuer = kids == null || kid == null ? null : kids.get(kid);
+        if (issuer == null) {
             throw new InvalidTokenException("Token kid not accepted");
         }
-        return new ConfiguredIssuer(issuerId, skewSeconds, baseURL, signingKey, jwkURL, kid);
+        return issuer;
     }
 }
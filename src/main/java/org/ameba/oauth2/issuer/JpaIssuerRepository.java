@@ -16,8 +16,10 @@
 package org.ameba.oauth2.issuer;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.net.URL;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,4 +33,26 @@ public interface JpaIssuerRepository extends JpaRepository<IssuerEO, Long> {
     List<IssuerEO> findByIssUrl(URL issUrl);
 
     Optional<IssuerEO> findByIssUrlAndKid(URL issUrl, String kid);
+
+    List<IssuerEO> findByLastModifiedDtAfter(LocalDateTime lastModifiedDt);
+
+    /**
+     * Return a cheap aggregate over all issuers that changes whenever an issuer is added, removed or modified.
+     *
+     * @return The fingerprint
+     */
+    @Query("select count(i) as total, max(i.lastModifiedDt) as lastModifiedDt, sum(i.ol) as versions from IssuerEO i")
+    Fingerprint fingerprint();
+
+    /**
+     * A Fingerprint is a projection of aggregated issuer change information.
+     */
+    interface Fingerprint {
+
+        Long getTotal();
+
+        LocalDateTime getLastModifiedDt();
+
+        Long getVersions();
+    }
 }
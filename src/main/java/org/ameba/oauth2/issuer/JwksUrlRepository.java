@@ -19,6 +19,7 @@ import com.auth0.jwk.SigningKeyNotFoundException;
 import com.auth0.jwk.UrlJwkProvider;
 import org.ameba.exception.TechnicalRuntimeException;
 import org.ameba.oauth2.Issuer;
+import org.ameba.oauth2.RateLimitedLogger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,6 +37,7 @@ import java.util.stream.Collectors;
 public class JwksUrlRepository implements IssuerRepository {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(JwksUrlRepository.class);
+    private static final RateLimitedLogger FAILURES = new RateLimitedLogger(LOGGER);
     private final JpaIssuerRepository jpaIssuerRepository;
 
     public JwksUrlRepository(JpaIssuerRepository jpaIssuerRepository) {
@@ -100,7 +102,7 @@ public class JwksUrlRepository implements IssuerRepository {
                 throw new TechnicalRuntimeException(e.getMessage(), e);
             }
         }
-        LOGGER.warn("Token issuer is not accepted");
+        FAILURES.warn("Token issuer is not accepted");
         return Optional.empty();
     }
 
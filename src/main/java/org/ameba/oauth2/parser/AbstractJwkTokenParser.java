@@ -0,0 +1,82 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.oauth2.parser;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtException;
+import org.ameba.oauth2.Asymmetric;
+import org.ameba.exception.TechnicalRuntimeException;
+import org.ameba.oauth2.InvalidTokenException;
+import org.ameba.oauth2.RateLimitedLogger;
+import org.ameba.oauth2.TokenParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.lang.String.format;
+
+/**
+ * An AbstractJwkTokenParser verifies the signature of a JWT with the Public Key of the issuer. Public keys are resolved through a
+ * {@link JwkPublicKeyStore}, the parsers configured with these keys are kept in a {@link JwtParserCache}. Subclasses only define
+ * the supported algorithm.
+ *
+ * @author Heiko Scherrer
+ */
+public abstract class AbstractJwkTokenParser implements TokenParser<Asymmetric, Jws<Claims>> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AbstractJwkTokenParser.class);
+    private static final RateLimitedLogger FAILURES = new RateLimitedLogger(LOGGER);
+    private final JwkPublicKeyStore keyStore;
+    private final JwtParserCache parserCache;
+
+    protected AbstractJwkTokenParser(JwkPublicKeyStore keyStore) {
+        this(keyStore, new JwtParserCache());
+    }
+
+    protected AbstractJwkTokenParser(JwkPublicKeyStore keyStore, JwtParserCache parserCache) {
+        this.keyStore = keyStore;
+        this.parserCache = parserCache;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Jws<Claims> parse(String token, Asymmetric issuer) {
+        if (issuer == null) {
+            throw new IllegalArgumentException("Expected asymmetric issuer is null");
+        }
+        if (issuer.getKID() == null || "".equals(issuer.getKID())) {
+            throw new IllegalArgumentException("JWK kid is null or empty. Configure a kid");
+        }
+        try {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug(format("Checking issuer with KID [%s]", issuer.getKID()));
+            }
+            var pubKey = keyStore.getPublicKey(issuer.getJWKURL(), issuer.getKID());
+            if (pubKey == null) {
+                throw new InvalidTokenException(format("No public key available for KID [%s]", issuer.getKID()));
+            }
+            return parserCache.forPublicKey(issuer, pubKey).parseSignedClaims(token);
+        } catch (JwtException | InvalidTokenException e) {
+            FAILURES.warn("Token verification failed: [{}]", e.getMessage());
+            throw new InvalidTokenException(e.getMessage());
+        } catch (RuntimeException e) {
+            FAILURES.error(e.getMessage(), e);
+            throw new TechnicalRuntimeException("Token verification not possible: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.oauth2.parser;
+
+import io.jsonwebtoken.Jwts;
+
+/**
+ * An ES256TokenParser uses an ECDSA P-256 Public Key and SHA-256 to verify signature. Public keys are resolved through a {@link JwkPublicKeyStore}.
+ *
+ * @author Heiko Scherrer
+ */
+public class ES256TokenParser extends AbstractJwkTokenParser {
+
+    public ES256TokenParser(JwkPublicKeyStore keyStore) {
+        super(keyStore);
+    }
+
+    public ES256TokenParser(JwkPublicKeyStore keyStore, JwtParserCache parserCache) {
+        super(keyStore, parserCache);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String supportAlgorithm() {
+        return Jwts.SIG.ES256.getId();
+    }
+}
@@ -16,22 +16,35 @@
 package org.ameba.oauth2.parser;
 
 import io.jsonwebtoken.Jwt;
-import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
+import org.ameba.exception.TechnicalRuntimeException;
 import org.ameba.oauth2.InvalidTokenException;
+import org.ameba.oauth2.RateLimitedLogger;
 import org.ameba.oauth2.Symmetric;
 import org.ameba.oauth2.TokenParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * A HS256TokenParser uses a symmetric SHA-512 signing key to verify the signature.
+ * A HS256TokenParser uses a symmetric SHA-512 signing key to verify the signature. The parsers configured with the signing
+ * keys are kept in a {@link JwtParserCache}.
  *
  * @author Heiko Scherrer
  */
 public class HS512TokenParser implements TokenParser<Symmetric, Jwt> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(HS512TokenParser.class);
+    private static final RateLimitedLogger FAILURES = new RateLimitedLogger(LOGGER);
+    private final JwtParserCache parserCache;
+
+    public HS512TokenParser() {
+        this(new JwtParserCache());
+    }
+
+    public HS512TokenParser(JwtParserCache parserCache) {
+        this.parserCache = parserCache;
+    }
 
     /**
      * {@inheritDoc}
@@ -55,14 +68,14 @@ public class HS512TokenParser implements TokenParser<Symmetric, Jwt> {
 
         Jwt jwt;
         try {
-            jwt = Jwts.parser()
-                    .clockSkewSeconds(issuer.getSkewSeconds())
-                    .setSigningKey(issuer.getSigningKey())
-                    .build().parseClaimsJws(token);
+            jwt = parserCache.forSigningKey(issuer).parseSignedClaims(token);
             return jwt;
-        } catch (Exception e) {
-            LOGGER.error(e.getMessage(), e);
+        } catch (JwtException | InvalidTokenException e) {
+            FAILURES.warn("Token verification failed: [{}]", e.getMessage());
             throw new InvalidTokenException(e.getMessage());
+        } catch (RuntimeException e) {
+            FAILURES.error(e.getMessage(), e);
+            throw new TechnicalRuntimeException("Token verification not possible: " + e.getMessage(), e);
         }
     }
 }
@@ -0,0 +1,390 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.oauth2.parser;
+
+import com.auth0.jwk.Jwk;
+import com.auth0.jwk.JwkException;
+import com.auth0.jwk.InvalidPublicKeyException;
+import com.auth0.jwk.JwkProvider;
+import com.auth0.jwk.NetworkException;
+import com.auth0.jwk.RateLimitReachedException;
+import com.auth0.jwk.UrlJwkProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URL;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.lang.String.format;
+
+/**
+ * A JwkPublicKeyStore holds ready-to-use {@link PublicKey} instances, resolved from JWK endpoints and indexed by the JWK URL and
+ * the key ID ({@code kid}).
+ * <p>
+ * A key set is fetched once per JWK URL and refreshed in the background shortly before its time to live ends, so that lookups of
+ * known keys are plain map reads and never wait for network I/O. If a refresh fails the previous keys stay in use until a later
+ * refresh succeeds. A lookup of an unknown {@code kid} triggers one refetch of the key set. Concurrent lookups for the same JWK URL
+ * share that refetch, and refetches are rate-limited to one per {@code minRefetchInterval} to prevent that forged {@code kid}s
+ * cause load on the authorization server. Key sets of different JWK URLs are fetched in parallel, a request waits at most
+ * {@code requestTimeout} for a fetch, so that one slow JWK endpoint does not block the validation of tokens of other issuers. The
+ * connect and read timeouts of the HTTP requests are half the {@code requestTimeout} each, so that a hanging endpoint does not
+ * keep a fetch in flight much longer than requests wait for it.
+ * <p>
+ * If the store is created with a {@link JwkProvider}, that provider is used to resolve keys for all issuers and keys are fetched
+ * one by one, because the {@link JwkProvider} API does not allow to list all keys. Keys that the provider no longer returns are
+ * dropped on refresh, only network failures keep the previous keys in use. Keys of type RSA, EC and OKP (Ed25519, Ed448)
+ * are supported, keys of other types are ignored.
+ * <p>
+ * Listeners registered with {@link #addKeyChangeListener(Runnable)} are notified when keys have been removed or replaced, e.g. to
+ * invalidate caches of tokens that have been verified with those keys.
+ *
+ * @author Heiko Scherrer
+ */
+public class JwkPublicKeyStore implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JwkPublicKeyStore.class);
+    /** Default time to live of a fetched key set. */
+    public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(15);
+    /** Default time a key set is refreshed before its time to live ends. */
+    public static final Duration DEFAULT_REFRESH_AHEAD = Duration.ofMinutes(1);
+    /** Default minimum time between two refetches of the same key set caused by an unknown {@code kid}. */
+    public static final Duration DEFAULT_MIN_REFETCH_INTERVAL = Duration.ofSeconds(30);
+    /** Default maximum time a request waits for a key set to be fetched. */
+    public static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(5);
+    private static final String PROVIDER_SOURCE = "";
+    private static final String OKP = "OKP";
+    /** The DER encoded SubjectPublicKeyInfo prefixes of the Edwards curves, the raw key follows. */
+    private static final Map<Object, byte[]> EDWARDS_CURVES = Map.of(
+            "Ed25519", new byte[]{0x30, 0x2a, 0x30, 0x05, 0x06, 0x03, 0x2b, 0x65, 0x70, 0x03, 0x21, 0x00},
+            "Ed448", new byte[]{0x30, 0x43, 0x30, 0x05, 0x06, 0x03, 0x2b, 0x65, 0x71, 0x03, 0x3a, 0x00}
+    );
+
+    private final JwkProvider jwkProvider;
+    private final long timeToLiveMillis;
+    private final long refreshAheadMillis;
+    private final long minRefetchIntervalMillis;
+    private final long requestTimeoutMillis;
+    private final int httpTimeoutMillis;
+    private final Clock clock;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService executor;
+    private final Map<String, KeySet> keySets = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<KeySet>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastRefetches = new ConcurrentHashMap<>();
+    private final List<Runnable> keyChangeListeners = new CopyOnWriteArrayList<>();
+
+    private record KeySet(URL jwkUrl, Map<String, PublicKey> keys, long fetchedAt) { }
+
+    /**
+     * Create a store that resolves keys from the JWK URL of each issuer, with default settings.
+     */
+    public JwkPublicKeyStore() {
+        this(null, DEFAULT_TIME_TO_LIVE, DEFAULT_REFRESH_AHEAD, DEFAULT_MIN_REFETCH_INTERVAL);
+    }
+
+    /**
+     * Create a store that resolves all keys with the given {@code jwkProvider}, with default settings.
+     *
+     * @param jwkProvider The provider to use, or {@literal null} to resolve keys from the JWK URL of each issuer
+     */
+    public JwkPublicKeyStore(JwkProvider jwkProvider) {
+        this(jwkProvider, DEFAULT_TIME_TO_LIVE, DEFAULT_REFRESH_AHEAD, DEFAULT_MIN_REFETCH_INTERVAL);
+    }
+
+    /**
+     * Create a store.
+     *
+     * @param jwkProvider The provider to use, or {@literal null} to resolve keys from the JWK URL of each issuer
+     * @param timeToLive The time to live of a fetched key set
+     * @param refreshAhead The time a key set is refreshed in the background before its time to live ends
+     * @param minRefetchInterval The minimum time between two refetches caused by an unknown {@code kid}
+     */
+    public JwkPublicKeyStore(JwkProvider jwkProvider, Duration timeToLive, Duration refreshAhead, Duration minRefetchInterval) {
+        this(jwkProvider, timeToLive, refreshAhead, minRefetchInterval, DEFAULT_REQUEST_TIMEOUT);
+    }
+
+    /**
+     * Create a store.
+     *
+     * @param jwkProvider The provider to use, or {@literal null} to resolve keys from the JWK URL of each issuer
+     * @param timeToLive The time to live of a fetched key set
+     * @param refreshAhead The time a key set is refreshed in the background before its time to live ends
+     * @param minRefetchInterval The minimum time between two refetches caused by an unknown {@code kid}
+     * @param requestTimeout The maximum time a request waits for a key set to be fetched
+     */
+    public JwkPublicKeyStore(JwkProvider jwkProvider, Duration timeToLive, Duration refreshAhead, Duration minRefetchInterval,
+            Duration requestTimeout) {
+        this(jwkProvider, timeToLive, refreshAhead, minRefetchInterval, requestTimeout, Clock.systemUTC());
+    }
+
+    JwkPublicKeyStore(JwkProvider jwkProvider, Duration timeToLive, Duration refreshAhead, Duration minRefetchInterval,
+            Duration requestTimeout, Clock clock) {
+        if (refreshAhead.compareTo(timeToLive) >= 0) {
+            throw new IllegalArgumentException("refreshAhead must be shorter than the timeToLive of the JwkPublicKeyStore");
+        }
+        this.jwkProvider = jwkProvider;
+        this.timeToLiveMillis = timeToLive.toMillis();
+        this.refreshAheadMillis = refreshAhead.toMillis();
+        this.minRefetchIntervalMillis = minRefetchInterval.toMillis();
+        this.requestTimeoutMillis = requestTimeout.toMillis();
+        this.httpTimeoutMillis = (int) Math.max(1, Math.min(Integer.MAX_VALUE, requestTimeoutMillis / 2));
+        this.clock = clock;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            var thread = new Thread(r, "ameba-jwk-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor = Executors.newCachedThreadPool(r -> {
+            var thread = new Thread(r, "ameba-jwk-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Resolve the {@link PublicKey} with the given {@code kid}.
+     *
+     * @param jwkUrl The JWK endpoint of the issuer, ignored if the store has been created with a {@link JwkProvider}
+     * @param kid The key ID
+     * @return The key or {@literal null} if the key is not known
+     */
+    public PublicKey getPublicKey(URL jwkUrl, String kid) {
+        var source = sourceOf(jwkUrl);
+        var keySet = keySets.get(source);
+        if (keySet != null) {
+            var key = keySet.keys().get(kid);
+            if (key != null) {
+                return key;
+            }
+        }
+        var now = clock.millis();
+        var pending = new AtomicReference<CompletableFuture<KeySet>>();
+        lastRefetches.compute(source, (k, lastRefetch) -> {
+            if (lastRefetch != null && now - lastRefetch < minRefetchIntervalMillis) {
+                pending.set(inFlight.get(source));
+                return lastRefetch;
+            }
+            pending.set(refetch(source, jwkUrl, kid));
+            return now;
+        });
+        if (pending.get() == null) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Unknown kid [{}], refetching the key set is currently rate-limited", kid);
+            }
+            return null;
+        }
+        return await(pending.get()).keys().get(kid);
+    }
+
+    /**
+     * Register a {@code listener} that is called after keys have been removed or replaced.
+     *
+     * @param listener The listener
+     */
+    public void addKeyChangeListener(Runnable listener) {
+        keyChangeListeners.add(listener);
+    }
+
+    /**
+     * Remove all cached key sets.
+     */
+    public void invalidateAll() {
+        keySets.clear();
+        lastRefetches.clear();
+        notifyKeyChangeListeners();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Stop the background refresh.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private String sourceOf(URL jwkUrl) {
+        if (jwkProvider != null) {
+            return PROVIDER_SOURCE;
+        }
+        if (jwkUrl == null) {
+            throw new IllegalArgumentException("JWK URL of the issuer is null. Configure a JWK URL");
+        }
+        return jwkUrl.toString();
+    }
+
+    private CompletableFuture<KeySet> refetch(String source, URL jwkUrl, String requestedKid) {
+        var future = new CompletableFuture<KeySet>();
+        var existing = inFlight.putIfAbsent(source, future);
+        if (existing != null) {
+            return existing;
+        }
+        executor.execute(() -> {
+            try {
+                var keySet = fetch(source, jwkUrl, requestedKid);
+                inFlight.remove(source, future);
+                future.complete(keySet);
+            } catch (RuntimeException e) {
+                inFlight.remove(source, future);
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    private KeySet await(CompletableFuture<KeySet> future) {
+        try {
+            return future.get(requestTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while fetching the JWK key set", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Fetching the JWK key set failed: " + e.getMessage(), e);
+        }
+    }
+
+    private KeySet fetch(String source, URL jwkUrl, String requestedKid) {
+        var previous = keySets.get(source);
+        var keys = new HashMap<String, PublicKey>();
+        try {
+            if (jwkProvider == null) {
+                for (Jwk jwk : new UrlJwkProvider(jwkUrl, httpTimeoutMillis, httpTimeoutMillis).getAll()) {
+                    if (jwk.getId() != null) {
+                        try {
+                            keys.put(jwk.getId(), toPublicKey(jwk));
+                        } catch (InvalidPublicKeyException e) {
+                            LOGGER.warn("Key with kid [{}] of type [{}] is not supported and ignored: [{}]", jwk.getId(), jwk.getType(), e.getMessage());
+                        }
+                    }
+                }
+            } else {
+                if (previous != null) {
+                    for (var kid : previous.keys().keySet()) {
+                        putFromProvider(kid, keys);
+                    }
+                }
+                if (requestedKid != null && !keys.containsKey(requestedKid)) {
+                    try {
+                        keys.put(requestedKid, toPublicKey(jwkProvider.get(requestedKid)));
+                    } catch (NetworkException | RateLimitReachedException e) {
+                        throw e;
+                    } catch (JwkException e) {
+                        LOGGER.warn("Key with kid [{}] cannot be resolved: [{}]", requestedKid, e.getMessage());
+                    }
+                }
+            }
+        } catch (JwkException e) {
+            if (previous != null) {
+                LOGGER.warn("Refreshing the JWK key set failed, keep using the previous keys: [{}]", e.getMessage());
+                scheduleRefresh(source, previous.jwkUrl(), timeToLiveMillis - refreshAheadMillis);
+                return previous;
+            }
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        var keySet = new KeySet(jwkUrl, Map.copyOf(keys), clock.millis());
+        keySets.put(source, keySet);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Fetched JWK key set with kids {}", keySet.keys().keySet());
+        }
+        scheduleRefresh(source, jwkUrl, timeToLiveMillis - refreshAheadMillis);
+        if (previous != null && !keySet.keys().entrySet().containsAll(previous.keys().entrySet())) {
+            notifyKeyChangeListeners();
+        }
+        return keySet;
+    }
+
+    private void notifyKeyChangeListeners() {
+        for (var listener : keyChangeListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                LOGGER.warn("Notifying a listener about changed keys failed: [{}]", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Resolve the key with the {@code kid} from the provider. A key that the provider does not return anymore is left out, network
+     * failures are passed on to keep the previous keys.
+     */
+    private void putFromProvider(String kid, Map<String, PublicKey> keys) throws JwkException {
+        try {
+            keys.put(kid, toPublicKey(jwkProvider.get(kid)));
+        } catch (NetworkException | RateLimitReachedException e) {
+            throw e;
+        } catch (JwkException e) {
+            LOGGER.warn("Key with kid [{}] is no longer provided and dropped: [{}]", kid, e.getMessage());
+        }
+    }
+
+    /**
+     * Convert the {@code jwk} into a {@link PublicKey}. RSA and EC keys are handled by the JWK library, Octet Key Pairs
+     * ({@code OKP}) with the Edwards curves Ed25519 and Ed448 (RFC 8037) are converted here.
+     */
+    static PublicKey toPublicKey(Jwk jwk) throws InvalidPublicKeyException {
+        if (!OKP.equals(jwk.getType())) {
+            return jwk.getPublicKey();
+        }
+        var crv = jwk.getAdditionalAttributes().get("crv");
+        var x = jwk.getAdditionalAttributes().get("x");
+        var prefix = EDWARDS_CURVES.get(crv);
+        if (prefix == null || !(x instanceof String encoded)) {
+            throw new InvalidPublicKeyException(format("Curve [%s] is not supported or x is missing", crv));
+        }
+        try {
+            var raw = Base64.getUrlDecoder().decode(encoded);
+            var der = Arrays.copyOf(prefix, prefix.length + raw.length);
+            System.arraycopy(raw, 0, der, prefix.length, raw.length);
+            return KeyFactory.getInstance((String) crv).generatePublic(new X509EncodedKeySpec(der));
+        } catch (IllegalArgumentException | GeneralSecurityException e) {
+            throw new InvalidPublicKeyException("Invalid " + crv + " public key", e);
+        }
+    }
+
+    private void scheduleRefresh(String source, URL jwkUrl, long delayMillis) {
+        if (scheduler.isShutdown()) {
+            return;
+        }
+        scheduler.schedule(() -> {
+            var current = keySets.get(source);
+            if (current != null && clock.millis() - current.fetchedAt() >= timeToLiveMillis - refreshAheadMillis) {
+                refetch(source, jwkUrl, null);
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+}
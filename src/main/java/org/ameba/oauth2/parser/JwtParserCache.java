@@ -0,0 +1,135 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.oauth2.parser;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.ameba.oauth2.Asymmetric;
+import org.ameba.oauth2.Symmetric;
+
+import java.security.PublicKey;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A JwtParserCache holds immutable, ready-to-use {@link JwtParser} instances per issuer and {@code kid}, configured with the
+ * verification key and the clock skew of the issuer. Parsers are thread-safe, so one instance serves all verifications of
+ * an issuer and neither the {@code SecretKey} is derived nor the parser is built per token.
+ * <p>
+ * Each entry remembers the key material and the skew it was built with. If the issuer returns a different signing key,
+ * the JWK endpoint returns a different public key, or the skew changes, the parser is rebuilt on the next lookup.
+ *
+ * @author Heiko Scherrer
+ */
+public class JwtParserCache {
+
+    private static final int MAX_ENTRIES = 1_000;
+    private final Map<Key, Entry> parsers = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private record Key(String issuerId, String kid) { }
+
+    private record Entry(Object keyMaterial, long skewSeconds, JwtParser parser) {
+        boolean matches(Object material, long skew) {
+            return skewSeconds == skew && Objects.equals(keyMaterial, material);
+        }
+    }
+
+    /**
+     * Get the parser to verify tokens of a {@link Symmetric} issuer, the signing key is expected to be Base64 encoded. Issuers that
+     * are {@link Asymmetric} as well are cached per {@code kid}, because each {@code kid} may come with its own signing key.
+     *
+     * @param issuer The issuer
+     * @return The parser
+     */
+    public JwtParser forSigningKey(Symmetric issuer) {
+        var signingKey = issuer.getSigningKey();
+        var kid = issuer instanceof Asymmetric asymmetric ? asymmetric.getKID() : null;
+        return getOrBuild(new Key(issuer.getIssuerId(), kid), signingKey, issuer.getSkewSeconds(), () -> Jwts.parser()
+                .clockSkewSeconds(issuer.getSkewSeconds())
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(signingKey)))
+                .build());
+    }
+
+    /**
+     * Get the parser to verify tokens of an {@link Asymmetric} issuer with the given {@code publicKey}.
+     *
+     * @param issuer The issuer
+     * @param publicKey The resolved public key of the issuer's {@code kid}
+     * @return The parser
+     */
+    public JwtParser forPublicKey(Asymmetric issuer, PublicKey publicKey) {
+        return getOrBuild(new Key(issuer.getIssuerId(), issuer.getKID()), publicKey, issuer.getSkewSeconds(), () -> Jwts.parser()
+                .clockSkewSeconds(issuer.getSkewSeconds())
+                .verifyWith(publicKey)
+                .build());
+    }
+
+    /**
+     * Remove all cached parsers.
+     */
+    public void invalidateAll() {
+        parsers.clear();
+    }
+
+    /**
+     * Get the number of lookups that were answered with a cached parser.
+     *
+     * @return The hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of lookups that required to build a parser.
+     *
+     * @return The miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the current number of cached parsers.
+     *
+     * @return The size
+     */
+    public int size() {
+        return parsers.size();
+    }
+
+    private JwtParser getOrBuild(Key key, Object keyMaterial, long skewSeconds, Supplier<JwtParser> factory) {
+        var entry = parsers.get(key);
+        if (entry != null && entry.matches(keyMaterial, skewSeconds)) {
+            hits.increment();
+            return entry.parser();
+        }
+        misses.increment();
+        if (entry == null && parsers.size() >= MAX_ENTRIES) {
+            parsers.clear();
+        }
+        var parser = factory.get();
+        parsers.put(key, new Entry(keyMaterial, skewSeconds, parser));
+        return parser;
+    }
+}
@@ -15,40 +15,31 @@
  */
 package org.ameba.oauth2.parser;
 
-import com.auth0.jwk.Jwk;
 import com.auth0.jwk.JwkProvider;
-import com.auth0.jwk.UrlJwkProvider;
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
-import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import org.ameba.oauth2.Asymmetric;
-import org.ameba.oauth2.InvalidTokenException;
-import org.ameba.oauth2.TokenParser;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import java.security.KeyFactory;
-import java.security.PublicKey;
-import java.security.spec.X509EncodedKeySpec;
-
-import static java.lang.String.format;
 
 /**
- * A RSA256TokenParser uses a SHA-256 Public Key to verify signature.
+ * A RSA256TokenParser uses a SHA-256 Public Key to verify signature. Public keys are resolved through a {@link JwkPublicKeyStore}.
  *
  * @author Heiko Scherrer
  */
-public class RSA256TokenParser implements TokenParser<Asymmetric, Jws<Claims>> {
+public class RSA256TokenParser extends AbstractJwkTokenParser {
+
+    public RSA256TokenParser(JwkPublicKeyStore keyStore) {
+        super(keyStore);
+    }
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(RSA256TokenParser.class);
-    private JwkProvider jwkProvider;
+    public RSA256TokenParser(JwkPublicKeyStore keyStore, JwtParserCache parserCache) {
+        super(keyStore, parserCache);
+    }
 
     public RSA256TokenParser(JwkProvider jwkProvider) {
-        this.jwkProvider = jwkProvider;
+        this(new JwkPublicKeyStore(jwkProvider));
     }
 
-    public RSA256TokenParser() { }
+    public RSA256TokenParser() {
+        this(new JwkPublicKeyStore());
+    }
 
     /**
      * {@inheritDoc}
@@ -57,38 +48,4 @@ public class RSA256TokenParser implements TokenParser<Asymmetric, Jws<Claims>> {
     public String supportAlgorithm() {
         return SignatureAlgorithm.RS256.toString();
     }
-
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public Jws<Claims> parse(String token, Asymmetric issuer) {
-        if (issuer == null) {
-            throw new IllegalArgumentException("Expected asymmetric issuer is null");
-        }
-        if (issuer.getKID() == null || "".equals(issuer.getKID())) {
-            throw new IllegalArgumentException("JWK kid is null or empty. Configure a kid");
-        }
-        Jws<Claims> jws;
-        try {
-            if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug(format("Checking issuer with KID [%s]", issuer.getKID()));
-            }
-            Jwk jwk = jwkProvider == null
-                    ? new UrlJwkProvider(issuer.getJWKURL(), 60000, 60000).get(issuer.getKID())
-                    : jwkProvider.get(issuer.getKID());
-            byte[] publicKeyBytes = jwk.getPublicKey().getEncoded();
-            X509EncodedKeySpec keySpec = new X509EncodedKeySpec(publicKeyBytes);
-            KeyFactory keyFactory = KeyFactory.getInstance("RSA");
-            PublicKey pubKey = keyFactory.generatePublic(keySpec);
-            jws = Jwts.parser()
-                    .setAllowedClockSkewSeconds(issuer.getSkewSeconds())
-                    .setSigningKey(pubKey)
-                    .build().parseClaimsJws(token);
-            return jws;
-        } catch (Exception e) {
-            LOGGER.error(e.getMessage(), e);
-            throw new InvalidTokenException(e.getMessage());
-        }
-    }
 }
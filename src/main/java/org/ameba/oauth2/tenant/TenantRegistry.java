@@ -0,0 +1,199 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.oauth2.tenant;
+
+import org.ameba.tenancy.Tenants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A TenantRegistry keeps all tenants of table {@value TenantEO#TABLE_NAME} in memory, indexed by their hash, and caches the
+ * realm parsed from each token issuer, so that validating a tenant is a map read without a database round trip.
+ * <p>
+ * The registry is loaded on first use and replaced atomically. From then on, a background task polls an aggregate over the
+ * optimistic locking version and last-modified column of all tenants and reloads the registry when it has changed. Call
+ * {@link #refresh()} to apply changes immediately, e.g. from an event listener. Until then, tenants that are added to the
+ * database are unknown to the registry. The hashes of all loaded tenants are registered with {@link Tenants}, which is what the
+ * {@value org.ameba.Constants#HEADER_VALUE_X_TENANT} header carries.
+ *
+ * @author Heiko Scherrer
+ */
+public class TenantRegistry implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TenantRegistry.class);
+    /** Default interval to poll for changed tenants. */
+    public static final Duration DEFAULT_POLL_INTERVAL = Duration.ofSeconds(30);
+    private static final int MAX_REALM_ENTRIES = 10_000;
+
+    private final TenantRepository repository;
+    private final long pollIntervalMillis;
+    private final Map<String, String> realms = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService executor;
+    private volatile Index index;
+
+    /**
+     * A registered tenant.
+     *
+     * @param hash The identifying opaque String
+     * @param name The tenants name
+     * @param realm The security realm the tenant is assigned to
+     */
+    public record Registration(String hash, String name, String realm) {
+
+        /**
+         * Checks whether the tenant is assigned to the given realm.
+         *
+         * @param realm The realm to check
+         * @return {@literal true} is so, otherwise {@literal false}
+         */
+        public boolean sameRealm(String realm) {
+            return this.realm != null && this.realm.equals(realm);
+        }
+    }
+
+    private record State(long count, LocalDateTime lastModifiedDt, long versions) {
+        static State of(TenantRepository.Fingerprint fingerprint) {
+            return new State(
+                    fingerprint.getTotal() == null ? 0 : fingerprint.getTotal(),
+                    fingerprint.getLastModifiedDt(),
+                    fingerprint.getVersions() == null ? 0 : fingerprint.getVersions());
+        }
+    }
+
+    private record Index(Map<String, Registration> byHash, State state) { }
+
+    /**
+     * Create a registry with default settings.
+     *
+     * @param repository The repository to load and poll tenants from
+     */
+    public TenantRegistry(TenantRepository repository) {
+        this(repository, DEFAULT_POLL_INTERVAL);
+    }
+
+    /**
+     * Create a registry.
+     *
+     * @param repository The repository to load and poll tenants from
+     * @param pollInterval The interval to poll for changed tenants
+     */
+    public TenantRegistry(TenantRepository repository, Duration pollInterval) {
+        this.repository = repository;
+        this.pollIntervalMillis = pollInterval.toMillis();
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            var thread = new Thread(r, "ameba-tenant-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Find the tenant with the given {@code hash}.
+     *
+     * @param hash The identifying opaque String
+     * @return The tenant or an empty Optional if not registered
+     */
+    public Optional<Registration> findByHash(String hash) {
+        return hash == null ? Optional.empty() : Optional.ofNullable(index().byHash().get(hash));
+    }
+
+    /**
+     * Get the realm of the given {@code issuer}, that is the last path segment of the issuer URL.
+     *
+     * @param issuer The issuer of a verified token
+     * @return The realm
+     */
+    public String realmOf(String issuer) {
+        var realm = realms.get(issuer);
+        if (realm == null) {
+            if (realms.size() >= MAX_REALM_ENTRIES) {
+                realms.clear();
+            }
+            realm = issuer.substring(issuer.lastIndexOf('/') + 1);
+            realms.put(issuer, realm);
+        }
+        return realm;
+    }
+
+    /**
+     * Check the database for changed tenants and reload the registry if required.
+     */
+    public synchronized void refresh() {
+        if (index == null) {
+            index();
+            return;
+        }
+        var state = State.of(repository.fingerprint());
+        if (!state.equals(index.state())) {
+            index = load(state);
+            LOGGER.debug("Reloaded all [{}] tenants", state.count());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Stop polling for changes.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private Index index() {
+        var current = index;
+        if (current == null) {
+            synchronized (this) {
+                current = index;
+                if (current == null) {
+                    current = load(State.of(repository.fingerprint()));
+                    index = current;
+                    if (!executor.isShutdown()) {
+                        executor.scheduleWithFixedDelay(this::refreshSafely, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+                    }
+                }
+            }
+        }
+        return current;
+    }
+
+    private Index load(State state) {
+        var byHash = new HashMap<String, Registration>();
+        for (var tenant : repository.findAll()) {
+            byHash.put(tenant.getHash(), new Registration(tenant.getHash(), tenant.getName(), tenant.getRealm()));
+            Tenants.register(tenant.getHash());
+        }
+        return new Index(Map.copyOf(byHash), state);
+    }
+
+    private void refreshSafely() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            LOGGER.warn("Refreshing the tenant registry failed, keep using the current one: [{}]", e.getMessage());
+        }
+    }
+}
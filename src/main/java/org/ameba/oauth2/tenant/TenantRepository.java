@@ -16,7 +16,9 @@
 package org.ameba.oauth2.tenant;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 /**
@@ -29,4 +31,24 @@ public interface TenantRepository extends JpaRepository<TenantEO, Long> {
     Optional<TenantEO> findByHash(String hash);
 
     Optional<TenantEO> findByName(String name);
+
+    /**
+     * Return a cheap aggregate over all tenants that changes whenever a tenant is added, removed or modified.
+     *
+     * @return The fingerprint
+     */
+    @Query("select count(t) as total, max(t.lastModifiedDt) as lastModifiedDt, sum(t.ol) as versions from TenantEO t")
+    Fingerprint fingerprint();
+
+    /**
+     * A Fingerprint is a projection of aggregated tenant change information.
+     */
+    interface Fingerprint {
+
+        Long getTotal();
+
+        LocalDateTime getLastModifiedDt();
+
+        Long getVersions();
+    }
 }
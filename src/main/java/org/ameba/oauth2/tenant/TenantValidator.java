@@ -25,24 +25,34 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
-import java.util.Optional;
 
 import static org.ameba.Constants.HEADER_VALUE_X_TENANT;
 
 /**
  * A TenantValidator validates the Tenant is known, it belongs to the configured Realm and
- * it is foreseen as the token audience, that said the receiver of the token.
+ * it is foreseen as the token audience, that said the receiver of the token. Tenants are
+ * resolved from an in-memory {@link TenantRegistry}.
  *
  * @author Heiko Scherrer
  */
-public class TenantValidator implements JwtValidator {
+public class TenantValidator implements JwtValidator, AutoCloseable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TenantValidator.class);
-    private final TenantRepository repository;
+    private final TenantRegistry registry;
+    private final boolean ownsRegistry;
 
     @Inject
     public TenantValidator(TenantRepository repository) {
-        this.repository = repository;
+        this(new TenantRegistry(repository), true);
+    }
+
+    public TenantValidator(TenantRegistry registry) {
+        this(registry, false);
+    }
+
+    private TenantValidator(TenantRegistry registry, boolean ownsRegistry) {
+        this.registry = registry;
+        this.ownsRegistry = ownsRegistry;
     }
 
     /**
@@ -54,25 +64,34 @@ public class TenantValidator implements JwtValidator {
             throw new InvalidTokenException("Only signed JWT are supported");
         }
         Jws<Claims> jws = (Jws) jwt;
-        String issuer = jws.getBody().getIssuer();
-        Optional<TenantEO> tenantEO = repository.findByHash(request.getHeader(HEADER_VALUE_X_TENANT));
+        String issuer = jws.getPayload().getIssuer();
+        var tenant = registry.findByHash(request.getHeader(HEADER_VALUE_X_TENANT))
+                .orElseThrow(() -> new InvalidTokenException("Tenant not registered"));
 
-        if (!tenantEO.isPresent()){
-            throw new InvalidTokenException("Tenant not registered");
-        }
-
-        String realm = issuer.substring(issuer.lastIndexOf("/")+1);
-        if (!tenantEO.get().sameRealm(realm)) {
+        if (issuer == null || !tenant.sameRealm(registry.realmOf(issuer))) {
             throw new InvalidTokenException("The issue does not match the configured REALM for the Tenant");
         }
 
-        if (!tenantEO.get().getName().equals(jws.getBody().getAudience())) {
+        var audience = jws.getPayload().getAudience();
+        if (audience == null || !audience.contains(tenant.name())) {
             throw new InvalidTokenException("The token has been issued for some other audience, is the token leaked or replayed?");
         }
 
         if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug("{} has been translated into [{}]", HEADER_VALUE_X_TENANT, tenantEO.get().getName());
+            LOGGER.debug("{} has been translated into [{}]", HEADER_VALUE_X_TENANT, tenant.name());
+        }
+        request.setAttribute(HEADER_VALUE_X_TENANT, tenant.name());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Stop the registry if it has been created by this validator.
+     */
+    @Override
+    public void close() {
+        if (ownsRegistry) {
+            registry.close();
         }
-        request.setAttribute(HEADER_VALUE_X_TENANT, tenantEO.get().getName());
     }
 }
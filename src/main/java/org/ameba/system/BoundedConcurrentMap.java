@@ -0,0 +1,146 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.system;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * A BoundedConcurrentMap is a {@link ConcurrentHashMap} with an upper bound on its size, meant as backing store of caches on the
+ * request path. Reads never lock. When a {@code put} finds the map full, one thread purges stale entries and then evicts arbitrary
+ * entries in a batch down to 7/8 of the maximum size, so that the cost of a purge is spread over many subsequent puts. The other
+ * threads add their entry meanwhile, the map may therefore exceed the maximum size shortly.
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the values
+ * @author Heiko Scherrer
+ */
+public final class BoundedConcurrentMap<K, V> {
+
+    private final ConcurrentHashMap<K, V> entries;
+    private final int maxSize;
+    private final int evictionTarget;
+    private final Predicate<? super V> stale;
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Create a map without a notion of stale entries.
+     *
+     * @param maxSize The maximum number of entries, must be greater than 0
+     */
+    public BoundedConcurrentMap(int maxSize) {
+        this(maxSize, v -> false);
+    }
+
+    /**
+     * Create a map.
+     *
+     * @param maxSize The maximum number of entries, must be greater than 0
+     * @param stale Tests whether an entry can be dropped before arbitrary entries are evicted, e.g. because it has expired
+     */
+    public BoundedConcurrentMap(int maxSize, Predicate<? super V> stale) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be greater than 0");
+        }
+        this.maxSize = maxSize;
+        this.evictionTarget = maxSize - Math.max(1, maxSize / 8);
+        this.stale = stale;
+        this.entries = new ConcurrentHashMap<>(Math.min(maxSize, 1024));
+    }
+
+    /**
+     * Get the value of the {@code key}.
+     *
+     * @param key The key
+     * @return The value or {@literal null} if absent
+     */
+    public V get(K key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Put the {@code value}, make room before if the map is full.
+     *
+     * @param key The key
+     * @param value The value
+     */
+    public void put(K key, V value) {
+        if (entries.size() >= maxSize) {
+            makeRoom();
+        }
+        entries.put(key, value);
+    }
+
+    /**
+     * Remove the entry of the {@code key} if it is still mapped to {@code value}.
+     *
+     * @param key The key
+     * @param value The expected value
+     * @return {@literal true} if removed
+     */
+    public boolean remove(K key, V value) {
+        return entries.remove(key, value);
+    }
+
+    /**
+     * Remove all entries.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Get the current number of entries.
+     *
+     * @return The size
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Get the number of entries that have been removed to make room.
+     *
+     * @return The count
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private void makeRoom() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            entries.forEach((k, v) -> {
+                if (stale.test(v) && entries.remove(k, v)) {
+                    evictions.increment();
+                }
+            });
+            var it = entries.keySet().iterator();
+            while (entries.size() > evictionTarget && it.hasNext()) {
+                it.next();
+                it.remove();
+                evictions.increment();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.tenancy;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * A PerTenant holds one value per {@link Tenant} in an array indexed by {@link Tenant#getId()}, as a replacement of a
+ * {@code Map<String, T>} keyed by the tenant identifier. Unregistered tenants are not passed to the factory, they share a fixed
+ * value instead, so that requests with arbitrary tenant identifiers cannot make this allocate state.
+ *
+ * @param <T> The type of the values
+ * @author Heiko Scherrer
+ */
+public final class PerTenant<T> {
+
+    private final Function<Tenant, T> factory;
+    private final T unregistered;
+    private volatile AtomicReferenceArray<T> values = new AtomicReferenceArray<>(16);
+
+    /**
+     * Create an instance that returns {@literal null} for unregistered tenants.
+     *
+     * @param factory Creates the value of a registered tenant on first access
+     */
+    public PerTenant(Function<Tenant, T> factory) {
+        this(factory, null);
+    }
+
+    /**
+     * Create an instance.
+     *
+     * @param factory Creates the value of a registered tenant on first access
+     * @param unregistered The value returned for all unregistered tenants
+     */
+    public PerTenant(Function<Tenant, T> factory, T unregistered) {
+        this.factory = factory;
+        this.unregistered = unregistered;
+    }
+
+    /**
+     * Get the value of the {@code tenant}, create it on first access.
+     *
+     * @param tenant The tenant
+     * @return The value, or the value for unregistered tenants if {@code tenant} is not registered
+     */
+    public T get(Tenant tenant) {
+        var id = tenant.getId();
+        if (id == Tenant.UNREGISTERED) {
+            return unregistered;
+        }
+        var current = values;
+        if (id < current.length()) {
+            var result = current.get(id);
+            if (result != null) {
+                return result;
+            }
+        }
+        return create(tenant);
+    }
+
+    private synchronized T create(Tenant tenant) {
+        var id = tenant.getId();
+        var current = values;
+        if (id >= current.length()) {
+            var grown = new AtomicReferenceArray<T>(Math.max(id + 1, current.length() * 2));
+            for (var i = 0; i < current.length(); i++) {
+                grown.set(i, current.get(i));
+            }
+            values = current = grown;
+        }
+        var result = current.get(id);
+        if (result == null) {
+            result = factory.apply(tenant);
+            current.set(id, result);
+        }
+        return result;
+    }
+}
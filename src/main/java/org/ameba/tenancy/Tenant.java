@@ -0,0 +1,115 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.tenancy;
+
+import java.util.Objects;
+
+/**
+ * A Tenant is the canonical, interned representation of a tenant identifier, obtained from {@link Tenants#of(String)}. There is
+ * at most one registered instance per identifier, unregistered instances are transient and must be compared by name. Besides
+ * the identifier it carries the values that are derived from it on the request path: a small integer ID to index per-tenant
+ * state (see {@link PerTenant}), the value put into the MDC, the key used to discriminate log files and the database schema
+ * name.
+ *
+ * @author Heiko Scherrer
+ */
+public final class Tenant {
+
+    /** ID of tenants that have not been registered, see {@link Tenants}. */
+    public static final int UNREGISTERED = -1;
+
+    private final int id;
+    private final String name;
+    private final String logKey;
+    private volatile Schema schema;
+
+    private record Schema(String prefix, String name) { }
+
+    Tenant(int id, String name) {
+        this.id = id;
+        this.name = name;
+        this.logKey = toLogKey(name);
+    }
+
+    /**
+     * Get the small integer ID, assigned in order of registration.
+     *
+     * @return The ID or {@value #UNREGISTERED}
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Get the tenant identifier.
+     *
+     * @return The canonical String instance
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the value put into the MDC.
+     *
+     * @return The canonical String instance
+     */
+    public String getMdcValue() {
+        return name;
+    }
+
+    /**
+     * Get the key used to discriminate log files, path separators are replaced.
+     *
+     * @return The key
+     */
+    public String getLogKey() {
+        return logKey;
+    }
+
+    /**
+     * Get the database schema name of the tenant. The last result is kept, repeated calls with the same prefix do not allocate.
+     *
+     * @param tenantSchemaPrefix An optional prefix of the schema name
+     * @return The schema name
+     */
+    public String getSchema(String tenantSchemaPrefix) {
+        var current = schema;
+        if (current == null || !Objects.equals(current.prefix(), tenantSchemaPrefix)) {
+            current = new Schema(tenantSchemaPrefix, tenantSchemaPrefix == null ? name : tenantSchemaPrefix + name);
+            schema = current;
+        }
+        return current.name();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Only the name.
+     */
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    private static String toLogKey(String name) {
+        var result = name;
+        for (var c : new char[]{'/', '\\', ':'}) {
+            result = result.replace(c, '_');
+        }
+        return result.equals("..") || result.equals(".") ? "_" : result;
+    }
+}
@@ -15,18 +15,20 @@
  */
 package org.ameba.tenancy;
 
+import org.ameba.context.AmebaContext;
+import org.ameba.context.ContextSlot;
+
 import java.util.Optional;
 import java.util.function.Consumer;
 
 /**
- * A TenantHolder stores a tenant inside a thread local variable.
+ * A TenantHolder stores a tenant in the {@link AmebaContext} of the current execution. Tenant identifiers are interned by the
+ * {@link Tenants} registry, {@link #getTenant()} returns the canonical {@link Tenant} instance.
  *
  * @author Heiko Scherrer
  */
 public class TenantHolder {
 
-    private static final InheritableThreadLocal<String> TENANT_HOLDER = new InheritableThreadLocal<>();
-
     /**
      * Private Constructor.
      */
@@ -38,7 +40,16 @@ public class TenantHolder {
      * @return Tenant as String
      */
     public static String getCurrentTenant() {
-        return TENANT_HOLDER.get();
+        return AmebaContext.current().getTenant();
+    }
+
+    /**
+     * Get the current Tenant as interned instance.
+     *
+     * @return The Tenant or {@literal null} if not set
+     */
+    public static Tenant getTenant() {
+        return AmebaContext.current().getInternedTenant();
     }
 
     /**
@@ -47,10 +58,11 @@ public class TenantHolder {
      * @return Tenant as String
      */
     public static Optional<String> currentTenant() {
-        if (TENANT_HOLDER.get() == null || TENANT_HOLDER.get().isEmpty()) {
+        var tenant = getCurrentTenant();
+        if (tenant == null || tenant.isEmpty()) {
             return Optional.empty();
         }
-        return Optional.of(TENANT_HOLDER.get());
+        return Optional.of(tenant);
     }
 
     /**
@@ -59,7 +71,7 @@ public class TenantHolder {
      * @param tenant Tenant's id to set
      */
     public static void setCurrentTenant(String tenant) {
-        TENANT_HOLDER.set(tenant);
+        AmebaContext.set(AmebaContext.current().withTenant(tenant));
     }
 
     /**
@@ -68,15 +80,27 @@ public class TenantHolder {
      * @param consumer A Tenant's id consumer function
      */
     public static void setCurrentTenant(Consumer<String> consumer) {
-        if (TENANT_HOLDER.get() != null && !TENANT_HOLDER.get().isEmpty()) {
-            consumer.accept(TENANT_HOLDER.get());
-        }
+        currentTenant().ifPresent(consumer);
+    }
+
+    /**
+     * Execute the {@code call} with {@code tenant} as current Tenant.
+     *
+     * @param tenant Tenant's id to bind
+     * @param call The operation
+     * @param <R> The type of the result
+     * @param <X> The type of the exception
+     * @return The result of the operation
+     * @throws X if the operation fails
+     */
+    public static <R, X extends Throwable> R callWith(String tenant, ContextSlot.ScopedCall<R, X> call) throws X {
+        return AmebaContext.callWhere(AmebaContext.current().withTenant(tenant), call);
     }
 
     /**
      * Cleanup thread local.
      */
     public static void destroy() {
-        TENANT_HOLDER.remove();
+        AmebaContext.set(AmebaContext.current().withTenant((Tenant) null));
     }
 }
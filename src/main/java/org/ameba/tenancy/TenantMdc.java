@@ -26,6 +26,29 @@ public final class TenantMdc {
         }
     }
 
+    /**
+     * Set the {@literal tenant} and the {@literal requestID} into the current MDC context.
+     *
+     * @param tenant The tenant identifier
+     * @param requestID The request ID, may be {@literal null}
+     */
+    public static void setContext(String tenant, String requestID) {
+        MDC.put(Constants.HEADER_VALUE_X_TENANT, tenant);
+        if (requestID != null) {
+            MDC.put(Constants.HEADER_VALUE_X_REQUESTID, requestID);
+        }
+    }
+
+    /**
+     * Set the interned {@literal tenant} and the {@literal requestID} into the current MDC context.
+     *
+     * @param tenant The tenant
+     * @param requestID The request ID, may be {@literal null}
+     */
+    public static void setContext(Tenant tenant, String requestID) {
+        setContext(tenant.getMdcValue(), requestID);
+    }
+
     /**
      * Clear the whole MDC context.
      */
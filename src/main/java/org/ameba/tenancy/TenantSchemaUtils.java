@@ -20,9 +20,14 @@ public class TenantSchemaUtils {
     private TenantSchemaUtils() {}
 
     private static String getTenantSchema(String tenantId, String tenantSchemaPrefix, String defaultSchema) {
-        return tenantId == null || tenantId.equals(defaultSchema) ?
-            defaultSchema :
-            tenantSchemaPrefix == null ? tenantId : tenantSchemaPrefix + tenantId;
+        if (tenantId == null || tenantId.equals(defaultSchema)) {
+            return defaultSchema;
+        }
+        var tenant = Tenants.registered(tenantId);
+        if (tenant != null) {
+            return tenant.getSchema(tenantSchemaPrefix);
+        }
+        return tenantSchemaPrefix == null ? tenantId : tenantSchemaPrefix + tenantId;
     }
 
     /**
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.tenancy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.ameba.LoggingCategories.BOOT;
+
+/**
+ * A Tenants is the process-wide registry that interns tenant identifiers into canonical {@link Tenant} instances. The tenant
+ * String of each request is looked up once, everything downstream works with the canonical instance.
+ * <p>
+ * Tenant identifiers arrive with untrusted requests, so a lookup with {@link #of(String)} never registers anything: unknown
+ * identifiers are returned as transient instances with the ID {@value Tenant#UNREGISTERED}. Only trusted sources register
+ * tenants with {@link #register(String)}, that are the tenants listed in the system property {@code ameba.tenancy.tenants}
+ * (comma-separated) and the tenants loaded by the {@code TenantRegistry}, which the {@code TenantValidator} accepts. The number
+ * of registered tenants is additionally bounded by the system property {@code ameba.tenancy.max-tenants} (default
+ * {@value #DEFAULT_MAX_TENANTS}).
+ *
+ * @author Heiko Scherrer
+ */
+public final class Tenants {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BOOT);
+    /** Default maximum number of interned tenants. */
+    public static final int DEFAULT_MAX_TENANTS = 10_000;
+    private static final int MAX_TENANTS = Integer.getInteger("ameba.tenancy.max-tenants", DEFAULT_MAX_TENANTS);
+    private static final ConcurrentHashMap<String, Tenant> BY_NAME = new ConcurrentHashMap<>();
+    private static volatile Tenant[] byId = new Tenant[16];
+    private static int size;
+
+    static {
+        var configured = System.getProperty("ameba.tenancy.tenants");
+        if (configured != null) {
+            for (var name : configured.split(",")) {
+                if (!name.isBlank()) {
+                    register(name.trim());
+                }
+            }
+        }
+    }
+
+    private Tenants() {}
+
+    /**
+     * Get the canonical instance of the tenant {@code name} or, if it is not registered, a transient instance. Safe to call with
+     * untrusted input.
+     *
+     * @param name The tenant identifier
+     * @return The instance or {@literal null} if {@code name} is {@literal null}
+     */
+    public static Tenant of(String name) {
+        if (name == null) {
+            return null;
+        }
+        var result = BY_NAME.get(name);
+        return result == null ? new Tenant(Tenant.UNREGISTERED, name) : result;
+    }
+
+    /**
+     * Get the registered instance of the tenant {@code name} without allocating anything.
+     *
+     * @param name The tenant identifier
+     * @return The instance or {@literal null} if {@code name} is not registered
+     */
+    static Tenant registered(String name) {
+        return name == null ? null : BY_NAME.get(name);
+    }
+
+    /**
+     * Get the canonical instance of the tenant {@code name}, register it if unknown. Must only be called with tenants that are
+     * known to exist, never with an unverified identifier taken from a request.
+     *
+     * @param name The tenant identifier
+     * @return The instance or {@literal null} if {@code name} is {@literal null}
+     */
+    public static Tenant register(String name) {
+        if (name == null) {
+            return null;
+        }
+        var result = BY_NAME.get(name);
+        return result == null ? doRegister(name) : result;
+    }
+
+    /**
+     * Get the registered tenant with the {@code id}.
+     *
+     * @param id The ID of the tenant
+     * @return The instance or {@literal null} if there is none
+     */
+    public static Tenant byId(int id) {
+        var current = byId;
+        return id < 0 || id >= current.length ? null : current[id];
+    }
+
+    /**
+     * Get the number of registered tenants, which is the exclusive upper bound of all IDs.
+     *
+     * @return The number
+     */
+    public static synchronized int size() {
+        return size;
+    }
+
+    private static synchronized Tenant doRegister(String name) {
+        var result = BY_NAME.get(name);
+        if (result != null) {
+            return result;
+        }
+        if (size >= MAX_TENANTS) {
+            LOGGER.warn("Tenant registry is full, [{}] is not interned, raise ameba.tenancy.max-tenants", name);
+            return new Tenant(Tenant.UNREGISTERED, name);
+        }
+        result = new Tenant(size, name);
+        var current = byId;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, Math.min(current.length * 2, MAX_TENANTS));
+        }
+        current[size++] = result;
+        byId = current;
+        BY_NAME.put(name, result);
+        return result;
+    }
+}
@@ -1,8 +1,9 @@
 package org.ameba.tenancy.amqp;
 
-import org.ameba.amqp.MessageHeaderEnhancer;
-import org.ameba.tenancy.TenantHolder;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.ameba.amqp.ContextHeaderContributor;
+import org.ameba.context.AmebaContext;
+
+import java.util.Map;
 
 import static org.ameba.tenancy.amqp.TenantAmqpConfiguration.TENANT_AMPQ_HEADER;
 
@@ -11,21 +12,16 @@ import static org.ameba.tenancy.amqp.TenantAmqpConfiguration.TENANT_AMPQ_HEADER;
  *
  * @author matjaz
  */
-public class TenantAmpqHeaderEnhancer implements MessageHeaderEnhancer {
+public class TenantAmpqHeaderEnhancer implements ContextHeaderContributor {
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public void enhance(RabbitTemplate rabbitTemplate) {
-        rabbitTemplate.addBeforePublishPostProcessors(
-            m -> {
-                var currentTenant = TenantHolder.getCurrentTenant();
-                if (currentTenant != null) {
-                    m.getMessageProperties().getHeaders().put(TENANT_AMPQ_HEADER, currentTenant);
-                }
-                return m;
-            }
-        );
+    public void contribute(AmebaContext context, Map<String, Object> headers) {
+        var currentTenant = context.getInternedTenant();
+        if (currentTenant != null) {
+            headers.put(TENANT_AMPQ_HEADER, currentTenant.getName());
+        }
     }
 }
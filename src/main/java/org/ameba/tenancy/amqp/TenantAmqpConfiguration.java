@@ -5,6 +5,7 @@ import org.ameba.amqp.MessagePostProcessorProvider;
 import org.ameba.annotation.ExcludeFromScan;
 import org.ameba.tenancy.TenantHolder;
 import org.ameba.tenancy.TenantMdc;
+import org.aopalliance.aop.Advice;
 import org.aopalliance.intercept.MethodInterceptor;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
@@ -12,6 +13,8 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.context.annotation.Bean;
 
+import java.util.Arrays;
+
 /**
  * A TenantAmqpConfiguration is a Spring configuration class that is activated with AMQP support and bootstraps beans to propagate context
  * information over AMQP.
@@ -46,7 +49,10 @@ public class TenantAmqpConfiguration {
                 TenantMdc.clearContext();
             }
         };
-        factory.setAdviceChain(interceptor);
+        var adviceChain = factory.getAdviceChain() == null ? new Advice[0] : factory.getAdviceChain();
+        var extended = Arrays.copyOf(adviceChain, adviceChain.length + 1);
+        extended[adviceChain.length] = interceptor;
+        factory.setAdviceChain(extended);
         return interceptor;
     }
 }
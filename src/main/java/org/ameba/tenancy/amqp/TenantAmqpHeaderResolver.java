@@ -1,8 +1,8 @@
 package org.ameba.tenancy.amqp;
 
-import org.ameba.amqp.MessagePostProcessorProvider;
-import org.ameba.tenancy.TenantHolder;
-import org.springframework.amqp.core.MessagePostProcessor;
+import org.ameba.amqp.ContextHeaderResolver;
+import org.ameba.context.AmebaContext;
+import org.springframework.amqp.core.Message;
 
 import static org.ameba.tenancy.amqp.TenantAmqpConfiguration.TENANT_AMPQ_HEADER;
 
@@ -11,19 +11,14 @@ import static org.ameba.tenancy.amqp.TenantAmqpConfiguration.TENANT_AMPQ_HEADER;
  *
  * @author matjaz
  */
-public class TenantAmqpHeaderResolver implements MessagePostProcessorProvider {
+public class TenantAmqpHeaderResolver implements ContextHeaderResolver {
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public MessagePostProcessor getMessagePostProcessor() {
-        return (m -> {
-            var tenant = (String) m.getMessageProperties().getHeaders().get(TENANT_AMPQ_HEADER);
-            if (tenant != null) {
-                TenantHolder.setCurrentTenant(tenant);
-            }
-            return m;
-        });
+    public AmebaContext resolve(Message message, AmebaContext context) {
+        var tenant = (String) message.getMessageProperties().getHeaders().get(TENANT_AMPQ_HEADER);
+        return tenant == null ? context : context.withTenant(tenant);
     }
 }
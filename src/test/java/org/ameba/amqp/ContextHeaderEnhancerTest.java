@@ -0,0 +1,58 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.amqp;
+
+import org.ameba.context.AmebaContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A ContextHeaderEnhancerTest.
+ *
+ * @author Heiko Scherrer
+ */
+class ContextHeaderEnhancerTest {
+
+    private static final ContextHeaderContributor TENANT = (ctx, headers) -> headers.put("tenant", ctx.getTenant());
+    private static final ContextHeaderContributor IDENTITY = (ctx, headers) -> headers.put("identity", ctx.getIdentity());
+
+    @Test void shouldRegisterOnePostProcessorForAllContributors() {
+        var rabbitTemplate = new RabbitTemplate();
+        new RabbitTemplateConfigurerAdapter(List.of(TENANT, IDENTITY)).configure(rabbitTemplate);
+        assertThat(rabbitTemplate.getBeforePublishPostProcessors()).hasSize(1);
+
+        var message = new Message(new byte[0], new MessageProperties());
+        AmebaContext.callWhere(AmebaContext.current().withTenant("acme").withIdentity("alice"), () ->
+                rabbitTemplate.getBeforePublishPostProcessors().iterator().next().postProcessMessage(message));
+
+        assertThat(message.getMessageProperties().getHeaders()).containsEntry("tenant", "acme").containsEntry("identity", "alice");
+    }
+
+    @Test void shouldShareSnapshotAcrossBatch() {
+        var testee = new ContextHeaderEnhancer(List.of(TENANT, IDENTITY));
+        var snapshot = AmebaContext.callWhere(AmebaContext.current().withTenant("acme").withIdentity("alice"), testee::snapshot);
+
+        var message = snapshot.postProcessMessage(new Message(new byte[0], new MessageProperties()));
+
+        assertThat(message.getMessageProperties().getHeaders()).containsEntry("tenant", "acme").containsEntry("identity", "alice");
+    }
+}
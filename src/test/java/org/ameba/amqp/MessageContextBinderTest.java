@@ -0,0 +1,80 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.amqp;
+
+import org.ameba.context.AmebaContext;
+import org.ameba.tenancy.amqp.TenantAmqpHeaderResolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.ameba.tenancy.amqp.TenantAmqpConfiguration.TENANT_AMPQ_HEADER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A MessageContextBinderTest.
+ *
+ * @author Heiko Scherrer
+ */
+class MessageContextBinderTest {
+
+    private static final ContextHeaderResolver IDENTITY = (m, ctx) -> m.getMessageProperties().getHeaders().containsKey("owms_identity")
+            ? ctx.withIdentity((String) m.getMessageProperties().getHeaders().get("owms_identity"))
+            : ctx;
+    private final MessageContextBinder testee = new MessageContextBinder(List.of(new TenantAmqpHeaderResolver(), IDENTITY));
+
+    private static Message message(String tenant, String identity) {
+        var properties = new MessageProperties();
+        if (tenant != null) {
+            properties.setHeader(TENANT_AMPQ_HEADER, tenant);
+        }
+        if (identity != null) {
+            properties.setHeader("owms_identity", identity);
+        }
+        return new Message(new byte[0], properties);
+    }
+
+    @AfterEach void tearDown() {
+        AmebaContext.set(AmebaContext.empty());
+    }
+
+    @Test void shouldNotLeakContextOfFormerMessage() {
+        var postProcessor = testee.getMessagePostProcessor();
+        postProcessor.postProcessMessage(message("acme", "alice"));
+        assertThat(AmebaContext.current().getIdentity()).isEqualTo("alice");
+
+        postProcessor.postProcessMessage(message("acme", null));
+        assertThat(AmebaContext.current().getTenant()).isEqualTo("acme");
+        assertThat(AmebaContext.current().getIdentity()).isNull();
+
+        var listener = new ProxyFactory((Runnable) () -> assertThat(AmebaContext.current().getTenant()).isEqualTo("acme"));
+        listener.addAdvice(testee.getCleanupAdvice());
+        ((Runnable) listener.getProxy()).run();
+        assertThat(AmebaContext.current().getTenant()).isNull();
+    }
+
+    @Test void shouldProcessBatchPerTenant() {
+        var seen = new ArrayList<String>();
+        testee.forEachTenant(List.of(message("a", null), message("b", null), message("a", null)),
+                (tenant, messages) -> seen.add(AmebaContext.current().getTenant() + ":" + messages.size()));
+        assertThat(seen).containsExactly("a:2", "b:1");
+    }
+}
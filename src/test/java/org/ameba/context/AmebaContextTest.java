@@ -0,0 +1,80 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.context;
+
+import org.ameba.http.RequestIDHolder;
+import org.ameba.http.identity.IdentityContextHolder;
+import org.ameba.tenancy.TenantHolder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A AmebaContextTest.
+ *
+ * @author Heiko Scherrer
+ */
+class AmebaContextTest {
+
+    @AfterEach void tearDown() {
+        AmebaContext.set(null);
+        MDC.clear();
+    }
+
+    private static String describe() {
+        return TenantHolder.getCurrentTenant() + "/" + IdentityContextHolder.getCurrentIdentity() + "/"
+                + RequestIDHolder.getRequestID() + "/" + MDC.get("key");
+    }
+
+    @Test void shouldCaptureAndRestore() {
+        TenantHolder.setCurrentTenant("acme");
+        IdentityContextHolder.setCurrentIdentity("alice");
+        MDC.put("key", "value");
+        var captured = AmebaContext.capture();
+        TenantHolder.destroy();
+        IdentityContextHolder.destroy();
+        MDC.clear();
+        RequestIDHolder.setRequestID("4711");
+
+        var scope = captured.restore();
+        try {
+            assertThat(describe()).isEqualTo("acme/alice/null/value");
+        } finally {
+            scope.close();
+        }
+
+        assertThat(describe()).isEqualTo("null/null/4711/null");
+    }
+
+    @Test void shouldPropagateToPooledThreads() throws Exception {
+        try (var pool = Executors.newFixedThreadPool(1)) {
+            var executor = AmebaContext.wrap(pool);
+            TenantHolder.setCurrentTenant("acme");
+            MDC.put("key", "value");
+            var first = executor.submit(AmebaContextTest::describe).get();
+            TenantHolder.setCurrentTenant("other");
+            var second = AmebaContextFutures.supplyAsync(AmebaContextTest::describe, pool)
+                    .thenApplyAsync(s -> s + "|" + describe()).get();
+
+            assertThat(first).isEqualTo("acme/null/null/value");
+            assertThat(second).isEqualTo("other/null/null/value|other/null/null/value");
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.context;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A ContextSlotTest.
+ *
+ * @author Heiko Scherrer
+ */
+class ContextSlotTest {
+
+    @Test void shouldBindValueForTheScopeOfTheCall() {
+        ContextSlot<String> testee = ContextSlot.newSlot();
+        testee.set("outer");
+
+        var result = testee.callWhere("inner", () -> testee.get() + "/" + testee.callWhere(null, testee::get));
+
+        assertThat(result).isEqualTo("inner/null");
+        assertThat(testee.get()).isEqualTo("outer");
+        testee.remove();
+        assertThat(testee.get()).isNull();
+    }
+
+    @Test void shouldRestoreValueOnFailure() {
+        ContextSlot<String> testee = ContextSlot.newSlot();
+
+        assertThatThrownBy(() -> testee.callWhere("inner", () -> {
+            throw new IOException("failed");
+        })).isInstanceOf(IOException.class);
+
+        assertThat(testee.get()).isNull();
+    }
+
+    @Test void shouldHideBoundValueWhenRemovedWithinScope() {
+        for (var storage : ContextStorage.values()) {
+            ContextSlot<String> testee = ContextSlot.newSlot(storage);
+
+            var result = testee.callWhere("acme", () -> {
+                testee.remove();
+                var removed = testee.get();
+                var nested = testee.callWhere("other", testee::get);
+                return removed + "/" + nested + "/" + testee.get();
+            });
+
+            assertThat(result).as(storage.name()).isEqualTo("null/other/null");
+            assertThat(testee.get()).as(storage.name()).isNull();
+        }
+    }
+
+    @Test void shouldUseScopedValuesIfAvailable() {
+        ContextSlot<String> testee = ContextSlot.newSlot(ContextStorage.SCOPED_VALUE);
+        testee.set("outer");
+
+        var result = testee.callWhere("inner", () -> {
+            var bound = testee.get();
+            testee.set(null);
+            return bound + "/" + testee.get();
+        });
+
+        assertThat(result).isEqualTo("inner/null");
+        assertThat(testee.get()).isEqualTo("outer");
+        testee.remove();
+        assertThat(testee.get()).isNull();
+    }
+}
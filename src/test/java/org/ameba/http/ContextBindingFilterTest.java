@@ -0,0 +1,137 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.http;
+
+import jakarta.servlet.http.HttpServlet;
+import org.ameba.Constants;
+import org.ameba.IDGenerator;
+import org.ameba.context.AmebaContext;
+import org.ameba.http.ctx.CallContext;
+import org.ameba.http.ctx.CallContextCodec;
+import org.ameba.http.ctx.CallContextHolder;
+import org.ameba.http.ctx.CallContextProvider;
+import org.ameba.http.identity.HeaderAttributeResolverStrategy;
+import org.ameba.http.identity.IdentityContextHolder;
+import org.ameba.http.identity.IdentityResolverStrategy;
+import org.ameba.http.multitenancy.MultiTenancyConfiguration;
+import org.ameba.tenancy.TenantHolder;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.ResolvableType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A ContextBindingFilterTest.
+ *
+ * @author Heiko Scherrer
+ */
+class ContextBindingFilterTest {
+
+    private final ContextBindingFilter testee = ContextBindingFilter.newBuilder()
+            .withRequestIDGenerator(() -> "generated")
+            .withMultiTenancy(true, true)
+            .withIdentity(new HeaderAttributeResolverStrategy(), false)
+            .withCallContext(() -> new CallContext("initial"))
+            .build();
+
+    @Test void shouldBindAllHoldersForTheScopeOfTheRequest() throws Exception {
+        var request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(Constants.HEADER_VALUE_X_TENANT, "acme");
+        request.addHeader(Constants.HEADER_VALUE_X_IDENTITY, "alice");
+        request.addHeader(Constants.HEADER_VALUE_X_CALLERID, "order-service");
+        var seen = new AtomicReference<String>();
+
+        testee.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(new HttpServlet() { }, (req, res, chain) ->
+                seen.set(TenantHolder.getCurrentTenant() + "/" + IdentityContextHolder.getCurrentIdentity() + "/"
+                        + RequestIDHolder.getRequestID() + "/" + CallContextHolder.getOptionalCallContext().map(CallContext::getCaller).orElse(null)
+                        + "/" + MDC.get(Constants.HEADER_VALUE_X_TENANT))));
+
+        assertThat(seen.get()).isEqualTo("acme/alice/generated/order-service/acme");
+        assertThat(request.getAttribute(ContextBindingFilter.BOUND)).isEqualTo(Boolean.TRUE);
+        assertThat(AmebaContext.current().getTenant()).isNull();
+        assertThat(RequestIDHolder.hasRequestID()).isFalse();
+        assertThat(MDC.get(Constants.HEADER_VALUE_X_TENANT)).isNull();
+    }
+
+    @Test void shouldRejectRequestWithoutTenant() {
+        var response = new MockHttpServletResponse();
+        assertThatThrownBy(() -> testee.doFilter(new MockHttpServletRequest("GET", "/"), response, new MockFilterChain()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(response.getStatus()).isEqualTo(400);
+    }
+
+    @Test void shouldBindTenantAndIdentityOnlyForMatchingUrlPatterns() throws Exception {
+        var restricted = ContextBindingFilter.newBuilder()
+                .withMultiTenancy(true, true, "/api/*")
+                .withIdentity(new HeaderAttributeResolverStrategy(), true, "*.json", "/admin")
+                .build();
+
+        assertThat(bound(restricted, "/health")).isEqualTo("null/null");
+        assertThat(bound(restricted, "/api/orders")).isEqualTo("acme/null");
+        assertThat(bound(restricted, "/api")).isEqualTo("acme/null");
+        assertThat(bound(restricted, "/apixyz")).isEqualTo("null/null");
+        assertThat(bound(restricted, "/admin")).isEqualTo("null/alice");
+        assertThat(bound(restricted, "/api/orders.json")).isEqualTo("acme/alice");
+
+        var response = new MockHttpServletResponse();
+        assertThatThrownBy(() -> restricted.doFilter(new MockHttpServletRequest("GET", "/api/orders"), response, new MockFilterChain()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(response.getStatus()).isEqualTo(400);
+        restricted.doFilter(new MockHttpServletRequest("GET", "/health"), new MockHttpServletResponse(), new MockFilterChain());
+    }
+
+    @Test void shouldApplyConfiguredUrlPatterns() throws Exception {
+        var tenancy = MultiTenancyConfiguration.enabled;
+        var tenancyRequired = MultiTenancyConfiguration.throwIfNotPresent;
+        var tenancyPatterns = MultiTenancyConfiguration.urlPatterns;
+        try {
+            MultiTenancyConfiguration.enabled = true;
+            MultiTenancyConfiguration.throwIfNotPresent = true;
+            MultiTenancyConfiguration.urlPatterns = new String[]{"/api/*"};
+            var beans = new StaticListableBeanFactory();
+            var filter = new ContextBindingFilterConfiguration().contextBindingFilter(beans.getBeanProvider(ResolvableType.forClassWithGenerics(IDGenerator.class, String.class)),
+                    beans.getBeanProvider(IdentityResolverStrategy.class), beans.getBeanProvider(CallContextProvider.class),
+                    beans.getBeanProvider(CallContextCodec.class)).getFilter();
+
+            assertThat(bound(filter, "/api/orders")).startsWith("acme/");
+            assertThat(bound(filter, "/health")).startsWith("null/");
+            assertThatThrownBy(() -> filter.doFilter(new MockHttpServletRequest("GET", "/api/orders"), new MockHttpServletResponse(),
+                    new MockFilterChain())).isInstanceOf(IllegalArgumentException.class);
+        } finally {
+            MultiTenancyConfiguration.enabled = tenancy;
+            MultiTenancyConfiguration.throwIfNotPresent = tenancyRequired;
+            MultiTenancyConfiguration.urlPatterns = tenancyPatterns;
+        }
+    }
+
+    private static String bound(ContextBindingFilter filter, String uri) throws Exception {
+        var request = new MockHttpServletRequest("GET", uri);
+        request.addHeader(Constants.HEADER_VALUE_X_TENANT, "acme");
+        request.addHeader(Constants.HEADER_VALUE_X_IDENTITY, "alice");
+        var seen = new AtomicReference<String>();
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(new HttpServlet() { }, (req, res, chain) ->
+                seen.set(TenantHolder.getCurrentTenant() + "/" + IdentityContextHolder.getCurrentIdentity())));
+        return seen.get();
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.http.ctx;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A CallContextCodecTest.
+ *
+ * @author Heiko Scherrer
+ */
+class CallContextCodecTest {
+
+    private static CallContext callContext() {
+        var ctx = new CallContext("order-service");
+        ctx.setTraceId("4711");
+        ctx.getDetails().put("tenant", "acme");
+        ctx.getDetails().put("count", 42);
+        ctx.getDetails().put("ratio", 0.5d);
+        ctx.getDetails().put("urgent", true);
+        ctx.getDetails().put("none", null);
+        return ctx;
+    }
+
+    @Test void shouldDecodeBothFormats() throws Exception {
+        var binary = new CallContextCodec(CallContextCodec.Format.BINARY, 512, 4096);
+        var json = new CallContextCodec();
+        var ctx = callContext();
+
+        var binaryEncoded = binary.encode(ctx);
+        var jsonEncoded = json.encode(ctx);
+
+        assertThat(binaryEncoded.length()).isLessThan(jsonEncoded.length());
+        assertThat(json.decode(binaryEncoded)).isEqualTo(ctx);
+        assertThat(binary.decode(jsonEncoded)).isEqualTo(ctx);
+        assertThat(binary.decode(binaryEncoded).getEncoded()).isEqualTo(binaryEncoded);
+        assertThat(binary.decode(jsonEncoded).getEncoded()).isNull();
+    }
+
+    @Test void shouldCompressLargeDetails() throws Exception {
+        var ctx = callContext();
+        ctx.getDetails().put("payload", "x".repeat(2000));
+        ctx.getDetails().put("amount", 42L);
+        var testee = new CallContextCodec(CallContextCodec.Format.BINARY, 512, 4096);
+
+        var encoded = testee.encode(ctx);
+
+        assertThat(encoded.length()).isLessThan(200);
+        assertThat(testee.decode(encoded)).isEqualTo(ctx);
+    }
+
+    @Test void shouldTruncateLargestDetailsFirst() throws Exception {
+        var ctx = callContext();
+        ctx.getDetails().put("big", "y".repeat(300));
+        var testee = new CallContextCodec(CallContextCodec.Format.JSON, 512, 300);
+
+        var decoded = testee.decode(testee.encode(ctx));
+
+        assertThat(decoded.getCaller()).isEqualTo("order-service");
+        assertThat(decoded.getTraceId()).isEqualTo("4711");
+        assertThat(decoded.getDetails()).doesNotContainKey("big").containsEntry("tenant", "acme");
+        assertThat(ctx.getDetails()).containsKey("big");
+    }
+
+    @Test void shouldFallbackToJsonForOtherTypes() throws Exception {
+        var ctx = callContext();
+        ctx.getDetails().put("list", new ArrayList<>(java.util.List.of("a", "b")));
+        var testee = new CallContextCodec(CallContextCodec.Format.BINARY, 512, 4096);
+
+        var encoded = testee.encode(ctx);
+
+        assertThat(new CallContextCodec().decode(encoded)).isEqualTo(ctx);
+        assertThat(encoded).startsWith("ey");
+    }
+
+    @Test void shouldConfigureWireFormatIndependentOfLocale() throws Exception {
+        var locale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            var codec = new CallContextCodecConfiguration().callContextCodec("binary", 512, 4096, 0);
+
+            assertThat(codec.encode(callContext())).isEqualTo(new CallContextCodec(CallContextCodec.Format.BINARY, 512, 4096).encode(callContext()));
+        } finally {
+            Locale.setDefault(locale);
+        }
+    }
+
+    @Test void shouldHandOutIndependentCopiesFromTheBoundedCache() throws Exception {
+        var testee = new CallContextCodec(CallContextCodec.Format.JSON, 512, 4096, 8);
+        var encoded = testee.encode(callContext());
+
+        var first = testee.decodeCached(encoded);
+        first.getDetails().put("tenant", "other");
+        var second = testee.decodeCached(encoded);
+
+        assertThat(second).isEqualTo(callContext()).isNotSameAs(first);
+        assertThat(second.getDetails()).isNotSameAs(first.getDetails());
+        assertThat(second.getEncoded()).isEqualTo(encoded);
+        assertThat(first.getEncoded()).isNull();
+
+        var cache = new DecodedCallContextCache(testee, 8);
+        for (var i = 0; i < 100; i++) {
+            cache.decode(testee.encode(new CallContext("caller-" + i)));
+        }
+        assertThat(cache.size()).isLessThanOrEqualTo(8);
+        assertThat(cache.decode(encoded)).isEqualTo(callContext());
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.http.ctx;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A CallContextHolderTest.
+ *
+ * @author Heiko Scherrer
+ */
+class CallContextHolderTest {
+
+    @AfterEach void tearDown() {
+        CallContextHolder.destroy();
+    }
+
+    @Test void shouldMemoizeEncodingUntilContextChanges() {
+        CallContextHolder.setCallContext(null, new CallContext("caller"));
+        var first = CallContextHolder.getEncodedCallContext().orElseThrow();
+        assertThat(CallContextHolder.getEncodedCallContext()).containsSame(first);
+
+        CallContextHolder.getOptionalCallContext().orElseThrow().getDetails().put("tenant", "acme");
+        var second = CallContextHolder.getEncodedCallContext().orElseThrow();
+        assertThat(second).isNotEqualTo(first);
+
+        CallContextHolder.getOptionalCallContext().orElseThrow().setTraceId("4711");
+        assertThat(CallContextHolder.getEncodedCallContext()).get().isNotEqualTo(second);
+    }
+
+    @Test void shouldDecodeWhatHasBeenEncoded() {
+        var ctx = new CallContext("caller");
+        ctx.setTraceId("4711");
+        ctx.getDetails().put("tenant", "acme");
+        CallContextHolder.setCallContext(null, ctx);
+        var encoded = CallContextHolder.getEncodedCallContext().orElseThrow();
+        CallContextHolder.destroy();
+
+        CallContextHolder.setCallContext(() -> encoded, null);
+
+        assertThat(CallContextHolder.getOptionalCallContext()).contains(ctx);
+        assertThat(CallContextHolder.getEncodedCallContext()).containsSame(encoded);
+    }
+
+    @Test void shouldAnswerRepeatedHeadersWithPrivateCopies() {
+        var ctx = new CallContext("caller");
+        ctx.getDetails().put("tenant", "acme");
+        CallContextHolder.setCallContext(null, ctx);
+        var encoded = CallContextHolder.getEncodedCallContext().orElseThrow();
+
+        var first = CallContextHolder.resolve(encoded, null, null);
+        first.getDetails().put("tenant", "other");
+        var second = CallContextHolder.resolve(encoded, null, null);
+
+        assertThat(second).isNotSameAs(first).isEqualTo(ctx);
+        assertThat(second.getEncoded()).isSameAs(encoded);
+        assertThat(first.getEncoded()).isNull();
+    }
+}
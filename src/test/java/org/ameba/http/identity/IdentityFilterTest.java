@@ -0,0 +1,74 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.http.identity;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.ameba.Constants;
+import org.ameba.http.FilterSettings;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockFilterConfig;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A IdentityFilterTest.
+ *
+ * @author Heiko Scherrer
+ */
+class IdentityFilterTest {
+
+    @Test void shouldResolveSettingsOnceAndSwapThemAtRuntime() throws Exception {
+        var config = new MockFilterConfig();
+        config.addInitParameter(Constants.PARAM_IDENTITY_ENABLED, "true");
+        config.addInitParameter(Constants.PARAM_IDENTITY_THROW_IF_NOT_PRESENT, "true");
+        var testee = new IdentityFilter(new HeaderAttributeResolverStrategy());
+        testee.init(config);
+        assertThat(testee.getSettings()).isEqualTo(new FilterSettings(true, true));
+
+        assertThatThrownBy(() -> testee.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), new MockFilterChain()))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        testee.setSettings(FilterSettings.DISABLED);
+        testee.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), new MockFilterChain());
+    }
+
+    @Test void shouldBindIdentityForTheChain() throws Exception {
+        var config = new MockFilterConfig();
+        config.addInitParameter(Constants.PARAM_IDENTITY_ENABLED, "true");
+        var testee = new IdentityFilter(new HeaderAttributeResolverStrategy());
+        testee.init(config);
+        var request = new MockHttpServletRequest();
+        request.addHeader(Constants.HEADER_VALUE_X_IDENTITY, "alice");
+        var seen = new AtomicReference<String>();
+
+        testee.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) {
+                seen.set(IdentityContextHolder.getCurrentIdentity());
+            }
+        }));
+
+        assertThat(seen).hasValue("alice");
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.http.identity;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A RequestHeadersTest.
+ *
+ * @author Heiko Scherrer
+ */
+class RequestHeadersTest {
+
+    @Test void shouldReadHeadersCaseInsensitive() {
+        var request = new MockHttpServletRequest();
+        request.addHeader("x-identity", "alice");
+        assertThat(RequestHeaders.of(request).getFirst("X-Identity")).isEqualTo("alice");
+        assertThat(RequestHeaders.of(Map.of("x-identity", List.of("bob"))).getFirst("X-Identity")).isEqualTo("bob");
+        assertThat(RequestHeaders.of(request).get("X-Tenant")).isEmpty();
+    }
+
+    @Test void shouldResolveIdentityWithoutMaterializingHeaders() {
+        var request = new MockHttpServletRequest() {
+            @Override
+            public java.util.Enumeration<String> getHeaderNames() {
+                throw new AssertionError("Headers must not be materialized");
+            }
+        };
+        request.addHeader("X-Identity", "alice");
+        assertThat(new HeaderAttributeResolverStrategy().getIdentity(RequestHeaders.of(request)))
+                .map(Identity::getId).contains("alice");
+    }
+
+    @Test void shouldAdaptToMapBasedStrategies() {
+        var request = new MockHttpServletRequest();
+        request.addHeader("X-Identity", "alice");
+        IdentityResolverStrategy legacy = (headers, bodyParts, queryParams) ->
+                Optional.ofNullable(headers.get("X-Identity")).map(v -> new SimpleIdentity(v.getFirst()));
+        assertThat(legacy.getIdentity(RequestHeaders.of(request))).map(Identity::getId).contains("alice");
+    }
+}
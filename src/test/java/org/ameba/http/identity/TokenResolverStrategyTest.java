@@ -0,0 +1,129 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.http.identity;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.ameba.oauth2.ExtractionResult;
+import org.ameba.oauth2.TokenExtractor;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.ameba.Constants.HEADER_VALUE_X_IDENTITY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A TokenResolverStrategyTest.
+ *
+ * @author Heiko Scherrer
+ */
+class TokenResolverStrategyTest {
+
+    private static final class RecordingExtractor implements TokenExtractor {
+        private final List<String> canExtract = new ArrayList<>();
+        private final List<String> extracted = new ArrayList<>();
+
+        @Override
+        public ExtractionResult canExtract(String token) {
+            canExtract.add(token);
+            return new ExtractionResult();
+        }
+
+        @Override
+        public ExtractionResult extract(String token) {
+            extracted.add(token);
+            var jwt = token.startsWith("Bearer ") ? token.substring(7) : token;
+            return new ExtractionResult(Jwts.parser().unsecured().build().parseUnsecuredClaims(jwt));
+        }
+    }
+
+    private static String token(String subject, Instant exp) {
+        return Jwts.builder().subject(subject).expiration(Date.from(exp)).compact();
+    }
+
+    private static RequestHeaders headers(String identity) {
+        return RequestHeaders.of(Map.of(HEADER_VALUE_X_IDENTITY, List.of(identity)));
+    }
+
+    @Test void shouldPassTokenWithBearerSchemeOnce() {
+        var extractor = new RecordingExtractor();
+        var jwt = token("alice", Instant.now().plusSeconds(60));
+
+        var identity = new TokenResolverStrategy(extractor, true).getIdentity(headers(jwt));
+
+        assertThat(identity).map(Identity::getId).hasValue("alice");
+        assertThat(extractor.extracted).containsExactly("Bearer " + jwt);
+        assertThat(extractor.canExtract).isEmpty();
+    }
+
+    @Test void shouldStripBearerScheme() {
+        var extractor = new RecordingExtractor();
+        var jwt = token("alice", Instant.now().plusSeconds(60));
+
+        var identity = new TokenResolverStrategy(extractor, false).getIdentity(headers("bearer " + jwt));
+
+        assertThat(identity).map(Identity::getId).hasValue("alice");
+        assertThat(extractor.extracted).containsExactly(jwt);
+    }
+
+    @Test void shouldRejectExpiredToken() {
+        var jwt = token("alice", Instant.now().minusSeconds(60));
+
+        assertThat(new TokenResolverStrategy(new RecordingExtractor(), false).getIdentity(headers(jwt))).isEmpty();
+    }
+
+    @Test void shouldIgnoreMissingHeader() {
+        var extractor = new RecordingExtractor();
+
+        assertThat(new TokenResolverStrategy(extractor).getIdentity(RequestHeaders.of(Map.of()))).isEmpty();
+        assertThat(extractor.extracted).isEmpty();
+    }
+
+    @Test void shouldReadExpirationOfAnyType() {
+        assertThat(TokenResolverStrategy.getExpiration(Jwts.claims().add(Claims.EXPIRATION, 42).build())).isEqualTo(42L);
+        assertThat(TokenResolverStrategy.getExpiration(Jwts.claims().add(Claims.EXPIRATION, 42L).build())).isEqualTo(42L);
+        assertThat(TokenResolverStrategy.getExpiration(Jwts.claims().expiration(new Date(42_000)).build())).isEqualTo(42L);
+        assertThat(TokenResolverStrategy.getExpiration(Jwts.claims().build())).isNull();
+    }
+
+    @Test void shouldLookupServiceLoaderOnlyOnce() {
+        var logger = (Logger) LoggerFactory.getLogger(TokenResolverStrategy.class);
+        var appender = new ListAppender<ILoggingEvent>();
+        appender.start();
+        logger.addAppender(appender);
+        try {
+            var testee = new TokenResolverStrategy();
+            var headers = headers(token("alice", Instant.now().plusSeconds(60)));
+
+            assertThat(testee.getIdentity(headers)).isEmpty();
+            assertThat(testee.getIdentity(headers)).isEmpty();
+
+            assertThat(appender.list).filteredOn(e -> e.getLevel() == Level.ERROR).hasSize(1);
+        } finally {
+            logger.detachAppender(appender);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.oauth2;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A CompactJwtTest.
+ *
+ * @author Heiko Scherrer
+ */
+class CompactJwtTest {
+
+    @Test void shouldReadHeaderAndPayload() {
+        var exp = Instant.parse("2026-01-01T00:00:00Z");
+        var token = Jwts.builder()
+                .header().keyId("kid-1").and()
+                .issuer("https://issuer").subject("alice").claim("roles", new String[]{"a", "b"})
+                .expiration(Date.from(exp))
+                .signWith(Keys.hmacShaKeyFor("0123456789012345678901234567890123456789012345678901234567890123".getBytes()))
+                .compact();
+
+        var testee = CompactJwt.of(token);
+
+        assertThat(testee.getKid()).isEqualTo("kid-1");
+        assertThat(testee.getAlg()).isEqualTo("HS512");
+        assertThat(testee.getIssuer()).isEqualTo("https://issuer");
+        assertThat(testee.getExpiration()).isEqualTo(exp.getEpochSecond());
+        assertThat(testee.getHeaderSegment() + "." + testee.getPayloadSegment() + "." + testee.getSignatureSegment()).isEqualTo(token);
+    }
+
+    @Test void shouldDetectCompactSerialization() {
+        assertThat(CompactJwt.isCompact("a.b.c", 0)).isTrue();
+        assertThat(CompactJwt.isCompact("Bearer a.b.c", 7)).isTrue();
+        assertThat(CompactJwt.isCompact("a.b.", 0)).isFalse();
+        assertThat(CompactJwt.isCompact("a.b.c.d", 0)).isFalse();
+        assertThat(CompactJwt.isCompact("a.b", 0)).isFalse();
+        assertThatThrownBy(() -> CompactJwt.of("a.b")).isInstanceOf(InvalidTokenException.class);
+        assertThatThrownBy(() -> CompactJwt.of("a*.b.c").getAlg()).isInstanceOf(InvalidTokenException.class);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.oauth2;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A MicrometerTokenMetricsTest.
+ *
+ * @author Heiko Scherrer
+ */
+class MicrometerTokenMetricsTest {
+
+    @Test void shouldCollapseUnknownIssuersAndAlgorithms() {
+        var registry = new SimpleMeterRegistry();
+        var testee = new MicrometerTokenMetrics(registry);
+
+        testee.recordIssuerLookup("https://trusted", TokenMetrics.Outcome.SUCCESS, 10);
+        testee.recordParse("https://trusted", "RS256", TokenMetrics.Outcome.SUCCESS, 10);
+        for (var i = 0; i < 50; i++) {
+            testee.recordIssuerLookup("https://forged/" + i, TokenMetrics.Outcome.REJECTED, 10);
+            testee.recordExtraction("https://forged/" + i, "forged" + i, TokenMetrics.Outcome.REJECTED, 10);
+        }
+
+        assertThat(registry.get("ameba.oauth2.token.parse").tag("issuer", "https://trusted").tag("alg", "RS256").timer().count()).isOne();
+        assertThat(registry.get("ameba.oauth2.token.extraction").timers()).hasSize(1);
+        assertThat(registry.get("ameba.oauth2.token.extraction").tag("issuer", MicrometerTokenMetrics.UNKNOWN).timer().count()).isEqualTo(50);
+        assertThat(registry.get("ameba.oauth2.issuer.rejected").counter().count()).isEqualTo(50);
+    }
+
+    @Test void shouldExportCacheHitRatio() {
+        var registry = new SimpleMeterRegistry();
+        new MicrometerTokenMetrics(registry).monitorCache("verified-tokens", () -> 3, () -> 1, () -> 2);
+
+        assertThat(registry.get("ameba.oauth2.cache.hit.ratio").tag("cache", "verified-tokens").gauge().value()).isEqualTo(0.75);
+        assertThat(registry.get("ameba.oauth2.cache.gets").tag("result", "miss").functionCounter().count()).isOne();
+    }
+
+    @Test void shouldKeepReportingAfterGarbageCollection() {
+        var registry = new SimpleMeterRegistry();
+        var hits = new AtomicLong(3);
+        var misses = new AtomicLong(1);
+        new MicrometerTokenMetrics(registry).monitorCache("verified-tokens", hits::get, misses::get, hits::get);
+
+        for (var i = 0; i < 3; i++) {
+            System.gc();
+        }
+
+        assertThat(registry.get("ameba.oauth2.cache.hit.ratio").tag("cache", "verified-tokens").gauge().value()).isEqualTo(0.75);
+        assertThat(registry.get("ameba.oauth2.cache.size").tag("cache", "verified-tokens").gauge().value()).isEqualTo(3);
+        assertThat(registry.get("ameba.oauth2.cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(3);
+    }
+}
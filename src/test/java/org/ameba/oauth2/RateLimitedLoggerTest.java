@@ -0,0 +1,78 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.oauth2;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A RateLimitedLoggerTest.
+ *
+ * @author Heiko Scherrer
+ */
+class RateLimitedLoggerTest {
+
+    private final Logger logger = mock(Logger.class);
+
+    @Test void shouldDropMessagesAboveLimit() {
+        when(logger.isWarnEnabled()).thenReturn(true);
+        var testee = new RateLimitedLogger(logger, 2, Duration.ofHours(1));
+
+        for (var i = 0; i < 5; i++) {
+            testee.warn("Token verification failed: [{}]", i);
+        }
+
+        verify(logger, times(2)).warn(eq("Token verification failed: [{}]"), any(Object[].class));
+        assertThat(testee.getSuppressedCount()).isEqualTo(3);
+    }
+
+    @Test void shouldReportSuppressedMessagesInNextInterval() {
+        when(logger.isErrorEnabled()).thenReturn(true);
+        var now = new AtomicLong();
+        var testee = new RateLimitedLogger(logger, 1, Duration.ofMillis(10), now::get);
+        var failure = new IllegalStateException("Boom");
+        testee.error("Failed", failure);
+        testee.error("Failed", failure);
+
+        now.addAndGet(Duration.ofMillis(20).toNanos());
+        testee.error("Failed", failure);
+
+        verify(logger).warn(anyString(), eq(1L));
+        verify(logger, times(2)).error("Failed", failure);
+        assertThat(testee.getSuppressedCount()).isZero();
+    }
+
+    @Test void shouldNotCountIfLevelIsDisabled() {
+        var testee = new RateLimitedLogger(logger, 1, Duration.ofHours(1));
+
+        testee.warn("Token verification failed");
+        testee.warn("Token verification failed");
+
+        assertThat(testee.getSuppressedCount()).isZero();
+    }
+}
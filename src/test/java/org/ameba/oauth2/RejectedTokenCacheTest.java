@@ -0,0 +1,110 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.oauth2;
+
+import org.ameba.oauth2.parser.JwkPublicKeyStore;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.ResolvableType;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * A RejectedTokenCacheTest.
+ *
+ * @author Heiko Scherrer
+ */
+class RejectedTokenCacheTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    @Test void shouldRefuseRejectedToken() {
+        var testee = new RejectedTokenCache(10, Duration.ofMinutes(1), CLOCK);
+
+        assertThat(testee.getReason("a.b.c")).isEmpty();
+        testee.reject("a.b.c", "Token has expired");
+
+        assertThat(testee.getReason("a.b.c")).hasValue("Token has expired");
+        assertThat(testee.getReason("a.b.d")).isEmpty();
+        assertThat(testee.getHitCount()).isEqualTo(1);
+        assertThat(testee.getMissCount()).isEqualTo(2);
+    }
+
+    @Test void shouldForgetExpiredRejection() {
+        var testee = new RejectedTokenCache(10, Duration.ZERO, CLOCK);
+        testee.reject("a.b.c", "Token has expired");
+
+        assertThat(testee.getReason("a.b.c")).isEmpty();
+        assertThat(testee.size()).isZero();
+    }
+
+    @Test void shouldEvictBatchWhenFull() {
+        var testee = new RejectedTokenCache(16, Duration.ofMinutes(1), CLOCK);
+        for (var i = 0; i < 16; i++) {
+            testee.reject("token-" + i, "Invalid");
+        }
+        assertThat(testee.size()).isEqualTo(16);
+
+        testee.reject("token-16", "Invalid");
+
+        assertThat(testee.size()).isEqualTo(15);
+        assertThat(testee.getReason("token-16")).isPresent();
+        testee.reject("token-17", "Invalid");
+        assertThat(testee.size()).isEqualTo(16);
+    }
+
+    @Test void shouldPurgeExpiredEntriesFirst() {
+        var testee = new RejectedTokenCache(4, Duration.ZERO, CLOCK);
+        for (var i = 0; i < 4; i++) {
+            testee.reject("token-" + i, "Invalid");
+        }
+
+        testee.reject("token-4", "Invalid");
+
+        assertThat(testee.size()).isEqualTo(1);
+    }
+
+    @Test void shouldInvalidateAll() {
+        var testee = new RejectedTokenCache(10, Duration.ofMinutes(1), CLOCK);
+        testee.reject("a.b.c", "Invalid");
+
+        testee.invalidateAll();
+
+        assertThat(testee.getReason("a.b.c")).isEmpty();
+    }
+
+    @Test void shouldBeInvalidatedWhenSigningKeysChange() {
+        var keyStore = mock(JwkPublicKeyStore.class);
+        var listener = ArgumentCaptor.forClass(Runnable.class);
+        var testee = new SpringOauth2Configuration().rejectedTokenCache(10, Duration.ofMinutes(1),
+                new StaticListableBeanFactory().getBeanProvider(TokenMetrics.class), keyStore,
+                new StaticListableBeanFactory().getBeanProvider(ResolvableType.forClassWithGenerics(IssuerWhiteList.class, Issuer.class)));
+        testee.reject("a.b.c", "Issuer not accepted");
+        verify(keyStore).addKeyChangeListener(listener.capture());
+
+        listener.getValue().run();
+
+        assertThat(testee.getReason("a.b.c")).isEmpty();
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.oauth2;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A TokenDigestTest.
+ *
+ * @author Heiko Scherrer
+ */
+class TokenDigestTest {
+
+    @Test void shouldComputeSha256() {
+        var digest = TokenDigest.of("abc");
+
+        var bytes = new byte[digest.remaining()];
+        digest.duplicate().get(bytes);
+        assertThat(HexFormat.of().formatHex(bytes)).isEqualTo("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+    }
+
+    @Test void shouldBeUsableAsMapKey() {
+        assertThat(TokenDigest.of("a.b.c")).isEqualTo(TokenDigest.of("a.b.c")).hasSameHashCodeAs(TokenDigest.of("a.b.c"));
+        assertThat(TokenDigest.of("a.b.c")).isNotEqualTo(TokenDigest.of("a.b.d"));
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.oauth2;
+
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A TokenExtractorChainTest.
+ *
+ * @author Heiko Scherrer
+ */
+class TokenExtractorChainTest {
+
+    private static final class CountingExtractor implements TokenExtractor {
+        private final boolean responsible;
+        private final boolean succeeds;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        CountingExtractor(boolean succeeds) {
+            this(true, succeeds);
+        }
+
+        CountingExtractor(boolean responsible, boolean succeeds) {
+            this.responsible = responsible;
+            this.succeeds = succeeds;
+        }
+
+        @Override
+        public ExtractionResult canExtract(String token) {
+            calls.incrementAndGet();
+            return responsible ? new ExtractionResult() : new ExtractionResult("Not responsible");
+        }
+
+        @Override
+        public ExtractionResult extract(String token) {
+            if (!succeeds) {
+                throw new InvalidTokenException("Nope");
+            }
+            return new ExtractionResult(Jwts.parser().unsecured().build().parseUnsecuredClaims(token));
+        }
+    }
+
+    private static final String TOKEN = Jwts.builder().subject("alice").compact();
+
+    @Test void shouldStopAtFirstSuccess() {
+        var first = new CountingExtractor(true);
+        var second = new CountingExtractor(true);
+
+        var result = new TokenExtractorChain(List.of(first, second)).extract(TOKEN);
+
+        assertThat(result.hasJwt()).isTrue();
+        assertThat(first.calls).hasValue(1);
+        assertThat(second.calls).hasValue(0);
+    }
+
+    @Test void shouldMoveSuccessfulExtractorToFront() {
+        var failing = new CountingExtractor(false, false);
+        var succeeding = new CountingExtractor(true);
+        var testee = new TokenExtractorChain(List.of(failing, succeeding));
+
+        for (var i = 0; i < TokenExtractorChain.REORDER_INTERVAL; i++) {
+            testee.extract(TOKEN);
+        }
+
+        assertThat(testee.getStatistics()).extracting(TokenExtractorChain.Statistics::extractor).containsExactly(succeeding, failing);
+        assertThat(testee.getStatistics().getFirst().hitRate()).isEqualTo(1.0);
+        var before = failing.calls.get();
+        testee.extract(TOKEN);
+        assertThat(failing.calls).hasValue(before);
+    }
+
+    @Test void shouldRethrowIfNoExtractorSucceeds() {
+        var testee = new TokenExtractorChain(List.of(new CountingExtractor(false)));
+        assertThatThrownBy(() -> testee.extract(TOKEN)).isInstanceOf(InvalidTokenException.class).hasMessage("Nope");
+    }
+
+    @Test void shouldRejectIfAnExtractorRejects() {
+        var rejecting = new CountingExtractor(false);
+        var accepting = new CountingExtractor(true);
+        var testee = new TokenExtractorChain(List.of(rejecting, accepting));
+
+        assertThatThrownBy(() -> testee.extract(TOKEN)).isInstanceOf(InvalidTokenException.class).hasMessage("Nope");
+        assertThat(accepting.calls).hasValue(0);
+    }
+
+    @Test void shouldSkipExtractorsThatDecline() {
+        var declining = new CountingExtractor(false, false);
+        var accepting = new CountingExtractor(true);
+
+        var result = new TokenExtractorChain(List.of(declining, accepting)).extract(TOKEN);
+
+        assertThat(result.hasJwt()).isTrue();
+        assertThat(declining.calls).hasValue(1);
+    }
+}
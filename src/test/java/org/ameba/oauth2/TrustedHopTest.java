@@ -0,0 +1,74 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.oauth2;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A TrustedHopTest.
+ *
+ * @author Heiko Scherrer
+ */
+class TrustedHopTest {
+
+    private static final String KEY = Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+    private static final String OTHER_KEY = Base64.getEncoder().encodeToString("fedcba9876543210fedcba9876543210".getBytes());
+
+    private static String token(Instant exp) {
+        return Jwts.builder().issuer("http://issuer").subject("alice").expiration(Date.from(exp))
+                .signWith(Keys.hmacShaKeyFor("0123456789012345678901234567890123456789012345678901234567890123".getBytes()))
+                .compact();
+    }
+
+    @Test void shouldTrustTokenSignedWithSharedKey() {
+        var token = token(Instant.now().plusSeconds(60));
+        var header = new TrustedHop(KEY, Duration.ZERO).sign(token);
+        var testee = new TrustedHop(KEY, Duration.ZERO);
+
+        assertThat(testee.isTrusted(token, header)).isTrue();
+        var claims = (Claims) testee.extract(token).getJwt().getPayload();
+        assertThat(claims.getSubject()).isEqualTo("alice");
+        assertThat(claims.getIssuer()).isEqualTo("http://issuer");
+    }
+
+    @Test void shouldNotTrustOtherKeyOrOtherToken() {
+        var token = token(Instant.now().plusSeconds(60));
+        var header = new TrustedHop(OTHER_KEY, Duration.ZERO).sign(token);
+        var testee = new TrustedHop(KEY, Duration.ZERO);
+
+        assertThat(testee.isTrusted(token, header)).isFalse();
+        assertThat(testee.isTrusted(token(Instant.now().plusSeconds(120)), testee.sign(token))).isFalse();
+        assertThat(testee.isTrusted(token, "v1.garbage")).isFalse();
+        assertThat(testee.isTrusted(token, null)).isFalse();
+    }
+
+    @Test void shouldRejectExpiredToken() {
+        var token = token(Instant.now().minusSeconds(60));
+        var testee = new TrustedHop(KEY, Duration.ZERO);
+        assertThatThrownBy(() -> testee.extract(token)).isInstanceOf(InvalidTokenException.class);
+    }
+}
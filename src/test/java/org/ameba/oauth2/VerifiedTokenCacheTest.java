@@ -0,0 +1,131 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.oauth2;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A VerifiedTokenCacheTest.
+ *
+ * @author Heiko Scherrer
+ */
+class VerifiedTokenCacheTest {
+
+    private static final SecretKey KEY = Keys.hmacShaKeyFor("0123456789012345678901234567890123456789012345678901234567890123".getBytes());
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private static String token(String subject, Instant exp) {
+        var builder = Jwts.builder().subject(subject).issuedAt(Date.from(NOW.minusSeconds(10)));
+        if (exp != null) {
+            builder.expiration(Date.from(exp));
+        }
+        return builder.signWith(KEY).compact();
+    }
+
+    private static ExtractionResult verified(String token) {
+        var clock = Clock.fixed(NOW, ZoneOffset.UTC);
+        return new ExtractionResult(Jwts.parser().clock(() -> Date.from(clock.instant())).verifyWith(KEY).build().parseSignedClaims(token));
+    }
+
+    @Test void shouldAnswerVerifiedTokenFromCache() {
+        var testee = new VerifiedTokenCache(10, Duration.ofSeconds(5), Duration.ofMinutes(5), Clock.fixed(NOW, ZoneOffset.UTC));
+        var token = token("alice", NOW.plusSeconds(60));
+        var result = verified(token);
+
+        assertThat(testee.get(token)).isEmpty();
+        testee.put(token, result);
+
+        assertThat(testee.get(token)).containsSame(result);
+        assertThat(testee.getHitCount()).isEqualTo(1);
+        assertThat(testee.getMissCount()).isEqualTo(1);
+    }
+
+    @Test void shouldExpireEntryBeforeTokenExpiry() {
+        var clock = new MutableClock(NOW);
+        var testee = new VerifiedTokenCache(10, Duration.ofSeconds(5), Duration.ofMinutes(5), clock);
+        var token = token("alice", NOW.plusSeconds(60));
+        testee.put(token, verified(token));
+
+        clock.now = NOW.plusSeconds(54);
+        assertThat(testee.get(token)).isPresent();
+        clock.now = NOW.plusSeconds(55);
+        assertThat(testee.get(token)).isEmpty();
+        assertThat(testee.getEvictionCount()).isEqualTo(1);
+        assertThat(testee.size()).isZero();
+    }
+
+    @Test void shouldCapEntryLifetime() {
+        var clock = new MutableClock(NOW);
+        var testee = new VerifiedTokenCache(10, Duration.ofSeconds(5), Duration.ofSeconds(30), clock);
+        var token = token("alice", NOW.plusSeconds(3600));
+        testee.put(token, verified(token));
+
+        clock.now = NOW.plusSeconds(29);
+        assertThat(testee.get(token)).isPresent();
+        clock.now = NOW.plusSeconds(30);
+        assertThat(testee.get(token)).isEmpty();
+    }
+
+    @Test void shouldIgnoreResultsWithoutJwt() {
+        var testee = new VerifiedTokenCache();
+        testee.put("a.b.c", new ExtractionResult("Not valid"));
+        assertThat(testee.size()).isZero();
+    }
+
+    @Test void shouldStayBounded() {
+        var testee = new VerifiedTokenCache(2, Duration.ZERO, Duration.ofMinutes(5), Clock.fixed(NOW, ZoneOffset.UTC));
+        for (var subject : new String[]{"alice", "bob", "carol"}) {
+            var token = token(subject, null);
+            testee.put(token, verified(token));
+        }
+        assertThat(testee.size()).isEqualTo(2);
+        assertThat(testee.getEvictionCount()).isEqualTo(1);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
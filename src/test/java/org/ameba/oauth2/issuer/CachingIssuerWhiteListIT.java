@@ -0,0 +1,103 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.oauth2.issuer;
+
+import org.ameba.oauth2.InvalidTokenException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.boot.persistence.autoconfigure.EntityScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A CachingIssuerWhiteListIT.
+ *
+ * @author Heiko Scherrer
+ */
+@DataJpaTest(showSql = false)
+@ContextConfiguration(classes = CachingIssuerWhiteListIT.Config.class)
+class CachingIssuerWhiteListIT {
+
+    @Configuration
+    @EnableJpaAuditing
+    @EnableJpaRepositories(basePackageClasses = IssuerPackage.class)
+    @EntityScan(basePackageClasses = IssuerPackage.class)
+    static class Config { }
+
+    @Autowired
+    private JpaIssuerRepository repository;
+    @Autowired
+    private TestEntityManager em;
+
+    @Test void shall_resolve_issuers_from_index_and_refresh() throws Exception {
+        var issuer = new IssuerEO("keycloak", URI.create("http://localhost/realms/test").toURL());
+        issuer.setKID("kid1");
+        repository.saveAndFlush(issuer);
+        var testee = new CachingIssuerWhiteList(new PersistentIssuerWhiteList(new JwksUrlRepository(repository)), repository,
+                Duration.ofHours(1), Duration.ofMinutes(1));
+        try (testee) {
+            assertThat(testee.getIssuer("http://localhost/realms/test", "kid1").getIssuerId()).isEqualTo("http://localhost/realms/test");
+            assertThat(testee.getIssuers("http://localhost/realms/test")).hasSize(1);
+            assertThatThrownBy(() -> testee.getIssuers("http://localhost/realms/unknown")).isInstanceOf(InvalidTokenException.class);
+
+            var second = new IssuerEO("keycloak2", URI.create("http://localhost/realms/test").toURL());
+            second.setKID("kid2");
+            repository.saveAndFlush(second);
+            testee.refresh();
+            assertThat(testee.getIssuers("http://localhost/realms/test")).hasSize(2);
+            assertThat(testee.getIssuer("http://localhost/realms/test", "kid2")).isNotNull();
+
+            repository.delete(second);
+            repository.flush();
+            testee.refresh();
+            assertThat(testee.getIssuers("http://localhost/realms/test")).hasSize(1);
+        }
+    }
+
+    @Test void shall_reload_all_when_changes_are_not_visible_by_timestamp() throws Exception {
+        var issuer = new IssuerEO("keycloak", URI.create("http://localhost/realms/test").toURL());
+        issuer.setKID("kid1");
+        issuer = repository.saveAndFlush(issuer);
+        var testee = new CachingIssuerWhiteList(new PersistentIssuerWhiteList(new JwksUrlRepository(repository)), repository,
+                Duration.ofHours(1), Duration.ofMinutes(1));
+        var changes = new AtomicInteger();
+        testee.addChangeListener(changes::incrementAndGet);
+        try (testee) {
+            assertThat(testee.getIssuer("http://localhost/realms/test", "kid1")).isNotNull();
+
+            em.getEntityManager().createQuery("update IssuerEO i set i.kid = :kid, i.ol = i.ol + 1 where i.pk = :pk")
+                    .setParameter("kid", "kid2")
+                    .setParameter("pk", issuer.getPk())
+                    .executeUpdate();
+            em.clear();
+            testee.refresh();
+
+            assertThat(changes).hasValue(1);
+            assertThat(testee.getIssuers("http://localhost/realms/test")).extracting(i -> ((IssuerEO) i).getKID()).containsExactly("kid2");
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.oauth2.issuer;
+
+import org.ameba.oauth2.InvalidTokenException;
+import org.ameba.oauth2.Issuer;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A ConfigurationIssuerWhiteListTest.
+ *
+ * @author Heiko Scherrer
+ */
+class ConfigurationIssuerWhiteListTest {
+
+    @Test void shouldIndexIssuersAndKidsFromProperties() {
+        var env = new MockEnvironment()
+                .withProperty("ameba.oauth2.issuers[0].id", "https://sso/realms/acme")
+                .withProperty("ameba.oauth2.issuers[0].jwk-url", "https://sso/realms/acme/certs")
+                .withProperty("ameba.oauth2.issuers[0].skew-seconds", "30")
+                .withProperty("ameba.oauth2.issuers[0].kids", "k1,k2")
+                .withProperty("ameba.oauth2.issuers[1].id", "https://legacy")
+                .withProperty("ameba.oauth2.issuers[1].signing-key", "secret");
+
+        var testee = ConfigurationIssuerWhiteList.of(env);
+
+        var k2 = testee.getIssuer("https://sso/realms/acme", "k2");
+        assertThat(k2).isSameAs(testee.getIssuer("https://sso/realms/acme", "k2"));
+        assertThat(k2.getSkewSeconds()).isEqualTo(30);
+        assertThat(((ConfiguredIssuer) k2).getJWKURL()).hasToString("https://sso/realms/acme/certs");
+        assertThat(testee.getIssuers("https://sso/realms/acme")).extracting(i -> ((ConfiguredIssuer) i).getKID()).containsExactly("k1", "k2");
+        assertThat(testee.getIssuers("https://legacy")).singleElement()
+                .satisfies(i -> assertThat(i.getSkewSeconds()).isEqualTo(Issuer.DEFAULT_MAX_SKEW_SECONDS));
+        assertThatThrownBy(() -> testee.getIssuer("https://sso/realms/acme", "k3")).isInstanceOf(InvalidTokenException.class);
+        assertThatThrownBy(() -> testee.getIssuers("https://unknown")).isInstanceOf(InvalidTokenException.class);
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.oauth2.parser;
+
+import com.auth0.jwk.Jwk;
+import com.auth0.jwk.JwkProvider;
+import com.auth0.jwk.NetworkException;
+import com.auth0.jwk.SigningKeyNotFoundException;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A JwkPublicKeyStoreTest.
+ *
+ * @author Heiko Scherrer
+ */
+class JwkPublicKeyStoreTest {
+
+    private final Map<String, Jwk> jwks = new ConcurrentHashMap<>();
+    private final AtomicBoolean networkDown = new AtomicBoolean();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private JwkPublicKeyStore store;
+
+    private final JwkProvider provider = kid -> {
+        if (networkDown.get()) {
+            throw new NetworkException("Connection refused", null);
+        }
+        var jwk = jwks.get(kid);
+        if (jwk == null) {
+            throw new SigningKeyNotFoundException("Unknown kid " + kid, null);
+        }
+        return jwk;
+    };
+
+    @AfterEach void tearDown() {
+        release.countDown();
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    private static Jwk rsaJwk(String kid) {
+        var key = (RSAPublicKey) Jwts.SIG.RS256.keyPair().build().getPublic();
+        var encoder = Base64.getUrlEncoder().withoutPadding();
+        return Jwk.fromValues(Map.of("kid", kid, "kty", "RSA",
+                "n", encoder.encodeToString(key.getModulus().toByteArray()),
+                "e", encoder.encodeToString(key.getPublicExponent().toByteArray())));
+    }
+
+    private JwkPublicKeyStore storeOf(JwkProvider jwkProvider, Duration requestTimeout) {
+        store = new JwkPublicKeyStore(jwkProvider, Duration.ofHours(1), Duration.ofMinutes(1), Duration.ZERO, requestTimeout);
+        return store;
+    }
+
+    @Test void shouldDropKeysNoLongerProvided() {
+        jwks.put("kid-1", rsaJwk("kid-1"));
+        jwks.put("kid-2", rsaJwk("kid-2"));
+        var changes = new AtomicInteger();
+        var testee = storeOf(provider, Duration.ofSeconds(5));
+        testee.addKeyChangeListener(changes::incrementAndGet);
+        assertThat(testee.getPublicKey(null, "kid-1")).isNotNull();
+        assertThat(testee.getPublicKey(null, "kid-2")).isNotNull();
+
+        jwks.remove("kid-2");
+        assertThat(testee.getPublicKey(null, "kid-3")).isNull();
+
+        assertThat(testee.getPublicKey(null, "kid-2")).isNull();
+        assertThat(testee.getPublicKey(null, "kid-1")).isNotNull();
+        assertThat(changes).hasPositiveValue();
+    }
+
+    @Test void shouldKeepKeysOnNetworkFailure() {
+        jwks.put("kid-1", rsaJwk("kid-1"));
+        var changes = new AtomicInteger();
+        var testee = storeOf(provider, Duration.ofSeconds(5));
+        testee.addKeyChangeListener(changes::incrementAndGet);
+        var key = testee.getPublicKey(null, "kid-1");
+
+        networkDown.set(true);
+        assertThat(testee.getPublicKey(null, "kid-2")).isNull();
+
+        assertThat(testee.getPublicKey(null, "kid-1")).isSameAs(key);
+        assertThat(changes).hasValue(0);
+    }
+
+    @Test void shouldNotWaitLongerThanRequestTimeout() {
+        JwkProvider blocking = kid -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rsaJwk(kid);
+        };
+        var testee = storeOf(blocking, Duration.ofMillis(100));
+
+        var start = System.nanoTime();
+        assertThatThrownBy(() -> testee.getPublicKey(null, "kid-1"))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+    }
+
+    @Test void shouldRateLimitConcurrentRefetches() throws Exception {
+        var fetches = new AtomicInteger();
+        JwkProvider counting = kid -> {
+            fetches.incrementAndGet();
+            return provider.get(kid);
+        };
+        store = new JwkPublicKeyStore(counting, Duration.ofHours(1), Duration.ofMinutes(1), Duration.ofHours(1), Duration.ofSeconds(5));
+        var start = new CountDownLatch(1);
+        var threads = new Thread[16];
+        for (var i = 0; i < threads.length; i++) {
+            var kid = "forged-" + i;
+            threads[i] = Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                    store.getPublicKey(null, kid);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        assertThat(fetches).hasValue(1);
+    }
+}
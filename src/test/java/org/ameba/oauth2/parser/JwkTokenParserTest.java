@@ -0,0 +1,139 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.oauth2.parser;
+
+import com.auth0.jwk.Jwk;
+import com.auth0.jwk.JwkProvider;
+import com.auth0.jwk.NetworkException;
+import com.auth0.jwk.SigningKeyNotFoundException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import org.ameba.exception.TechnicalRuntimeException;
+import org.ameba.oauth2.InvalidTokenException;
+import org.ameba.oauth2.issuer.ConfiguredIssuer;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A JwkTokenParserTest.
+ *
+ * @author Heiko Scherrer
+ */
+class JwkTokenParserTest {
+
+    private static final ConfiguredIssuer ISSUER = new ConfiguredIssuer("https://issuer", 0, null, null, null, "kid-1");
+
+    private static String b64(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String b64(BigInteger value, int length) {
+        var bytes = value.toByteArray();
+        return b64(Arrays.copyOfRange(bytes, bytes.length - length, bytes.length));
+    }
+
+    private static JwkPublicKeyStore storeOf(Map<String, Object> values) {
+        var jwk = new HashMap<>(values);
+        jwk.put("kid", "kid-1");
+        JwkProvider provider = kid -> {
+            if (!"kid-1".equals(kid)) {
+                throw new SigningKeyNotFoundException("Unknown kid " + kid, null);
+            }
+            return Jwk.fromValues(jwk);
+        };
+        return new JwkPublicKeyStore(provider);
+    }
+
+    private static String token(KeyPair keyPair, io.jsonwebtoken.security.SignatureAlgorithm alg) {
+        return Jwts.builder().header().keyId("kid-1").and().issuer("https://issuer").subject("alice")
+                .signWith(keyPair.getPrivate(), alg).compact();
+    }
+
+    @Test void shouldVerifyES256() {
+        var keyPair = Jwts.SIG.ES256.keyPair().build();
+        var point = ((ECPublicKey) keyPair.getPublic()).getW();
+        var store = storeOf(Map.of("kty", "EC", "crv", "P-256",
+                "x", b64(point.getAffineX(), 32), "y", b64(point.getAffineY(), 32)));
+
+        var jws = new ES256TokenParser(store).parse(token(keyPair, Jwts.SIG.ES256), ISSUER);
+
+        assertThat(jws.getPayload().getSubject()).isEqualTo("alice");
+    }
+
+    @Test void shouldVerifyPS256() {
+        var keyPair = Jwts.SIG.PS256.keyPair().build();
+        var key = (RSAPublicKey) keyPair.getPublic();
+        var store = storeOf(Map.of("kty", "RSA",
+                "n", b64(key.getModulus().toByteArray()), "e", b64(key.getPublicExponent().toByteArray())));
+
+        var jws = new PS256TokenParser(store).parse(token(keyPair, Jwts.SIG.PS256), ISSUER);
+
+        assertThat(jws.getPayload().getSubject()).isEqualTo("alice");
+    }
+
+    @Test void shouldVerifyEd25519() {
+        var keyPair = Jwks.CRV.Ed25519.keyPair().build();
+        var encoded = keyPair.getPublic().getEncoded();
+        var store = storeOf(Map.of("kty", "OKP", "crv", "Ed25519", "x", b64(Arrays.copyOfRange(encoded, 12, encoded.length))));
+        var testee = new EdDSATokenParser(store);
+
+        assertThat(testee.supportAlgorithm()).isEqualTo("EdDSA");
+        assertThat(testee.parse(token(keyPair, Jwts.SIG.EdDSA), ISSUER).getPayload().getSubject()).isEqualTo("alice");
+    }
+
+    @Test void shouldRejectForeignSignature() {
+        var keyPair = Jwts.SIG.ES256.keyPair().build();
+        var point = ((ECPublicKey) keyPair.getPublic()).getW();
+        var store = storeOf(Map.of("kty", "EC", "crv", "P-256",
+                "x", b64(point.getAffineX(), 32), "y", b64(point.getAffineY(), 32)));
+        var forged = token(Jwts.SIG.ES256.keyPair().build(), Jwts.SIG.ES256);
+
+        assertThatThrownBy(() -> new ES256TokenParser(store).parse(forged, ISSUER)).isInstanceOf(InvalidTokenException.class);
+    }
+
+    @Test void shouldNotTreatUnavailableKeysAsInvalidToken() {
+        JwkProvider provider = kid -> {
+            throw new NetworkException("Connection refused", null);
+        };
+        var token = token(Jwts.SIG.ES256.keyPair().build(), Jwts.SIG.ES256);
+
+        assertThatThrownBy(() -> new ES256TokenParser(new JwkPublicKeyStore(provider)).parse(token, ISSUER))
+                .isInstanceOf(TechnicalRuntimeException.class);
+    }
+
+    @Test void shouldReuseParserUntilKeyMaterialChanges() {
+        var testee = new JwtParserCache();
+        var key = Base64.getEncoder().encodeToString(Jwts.SIG.HS512.key().build().getEncoded());
+        var parser = testee.forSigningKey(new ConfiguredIssuer("https://issuer", 0, null, key, null, null));
+
+        assertThat(testee.forSigningKey(new ConfiguredIssuer("https://issuer", 0, null, key, null, null))).isSameAs(parser);
+        assertThat(testee.forSigningKey(new ConfiguredIssuer("https://issuer", 5, null, key, null, null))).isNotSameAs(parser);
+        var rotated = Base64.getEncoder().encodeToString(Jwts.SIG.HS512.key().build().getEncoded());
+        assertThat(testee.forSigningKey(new ConfiguredIssuer("https://issuer", 5, null, rotated, null, null))).isNotSameAs(parser);
+        assertThat(testee.size()).isOne();
+    }
+}
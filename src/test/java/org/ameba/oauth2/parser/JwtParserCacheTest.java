@@ -0,0 +1,50 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.oauth2.parser;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Encoders;
+import org.ameba.oauth2.issuer.ConfiguredIssuer;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A JwtParserCacheTest.
+ *
+ * @author Heiko Scherrer
+ */
+class JwtParserCacheTest {
+
+    private static ConfiguredIssuer symmetric(String kid) {
+        var signingKey = Encoders.BASE64.encode(Jwts.SIG.HS512.key().build().getEncoded());
+        return new ConfiguredIssuer("https://issuer", 30, null, signingKey, null, kid);
+    }
+
+    @Test void shouldCacheParsersOfSymmetricIssuersPerKid() {
+        var testee = new JwtParserCache();
+        var first = symmetric("kid-1");
+        var second = symmetric("kid-2");
+
+        var parser = testee.forSigningKey(first);
+        testee.forSigningKey(second);
+
+        assertThat(testee.forSigningKey(first)).isSameAs(parser);
+        assertThat(testee.forSigningKey(second)).isNotSameAs(parser);
+        assertThat(testee.getMissCount()).isEqualTo(2);
+        assertThat(testee.getHitCount()).isEqualTo(2);
+    }
+}
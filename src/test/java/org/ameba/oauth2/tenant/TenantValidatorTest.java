@@ -0,0 +1,145 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.oauth2.tenant;
+
+import io.jsonwebtoken.Jwt;
+import io.jsonwebtoken.Jwts;
+import org.ameba.oauth2.InvalidTokenException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import javax.crypto.SecretKey;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.ameba.Constants.HEADER_VALUE_X_TENANT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * A TenantValidatorTest.
+ *
+ * @author Heiko Scherrer
+ */
+class TenantValidatorTest {
+
+    private static final String ISSUER = "http://localhost/realms/acme";
+    private static final SecretKey KEY = Jwts.SIG.HS512.key().build();
+    private final TenantRepository repository = mock(TenantRepository.class);
+    private final TenantRegistry registry = new TenantRegistry(repository);
+
+    @AfterEach void tearDown() {
+        registry.close();
+    }
+
+    private static TenantEO tenant(String hash, String name, String realm) {
+        var tenant = new TenantEO(hash);
+        tenant.setName(name);
+        tenant.setRealm(realm);
+        return tenant;
+    }
+
+    private static TenantRepository.Fingerprint fingerprint(long total, long versions) {
+        var now = LocalDateTime.of(2026, 1, 1, 0, 0);
+        return new TenantRepository.Fingerprint() {
+            @Override
+            public Long getTotal() {
+                return total;
+            }
+
+            @Override
+            public LocalDateTime getLastModifiedDt() {
+                return now;
+            }
+
+            @Override
+            public Long getVersions() {
+                return versions;
+            }
+        };
+    }
+
+    private static Jwt<?, ?> token(String issuer, String audience) {
+        var compact = Jwts.builder().issuer(issuer).audience().add(audience).and().signWith(KEY).compact();
+        return Jwts.parser().verifyWith(KEY).build().parseSignedClaims(compact);
+    }
+
+    private static MockHttpServletRequest request(String hash) {
+        var request = new MockHttpServletRequest();
+        request.addHeader(HEADER_VALUE_X_TENANT, hash);
+        return request;
+    }
+
+    private void givenTenants(TenantEO... tenants) {
+        when(repository.fingerprint()).thenReturn(fingerprint(tenants.length, 0));
+        when(repository.findAll()).thenReturn(List.of(tenants));
+    }
+
+    @Test void shouldNotLoadTenantsOnConstruction() {
+        var testee = new TenantValidator(repository);
+
+        verifyNoInteractions(repository);
+        testee.close();
+    }
+
+    @Test void shouldResolveTenantByHash() {
+        givenTenants(tenant("h1", "acme", "acme"));
+        var request = request("h1");
+
+        new TenantValidator(registry).validate(token(ISSUER, "acme"), request);
+
+        assertThat(request.getAttribute(HEADER_VALUE_X_TENANT)).isEqualTo("acme");
+    }
+
+    @Test void shouldRejectUnknownTenant() {
+        givenTenants(tenant("h1", "acme", "acme"));
+
+        assertThatThrownBy(() -> new TenantValidator(registry).validate(token(ISSUER, "acme"), request("h2")))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Tenant not registered");
+    }
+
+    @Test void shouldRejectRealmMismatch() {
+        givenTenants(tenant("h1", "acme", "other"));
+
+        assertThatThrownBy(() -> new TenantValidator(registry).validate(token(ISSUER, "acme"), request("h1")))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessageContaining("REALM");
+    }
+
+    @Test void shouldRejectAudienceMismatch() {
+        givenTenants(tenant("h1", "acme", "acme"));
+
+        assertThatThrownBy(() -> new TenantValidator(registry).validate(token(ISSUER, "other"), request("h1")))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessageContaining("audience");
+    }
+
+    @Test void shouldPickUpChangesOnRefresh() {
+        givenTenants(tenant("h1", "acme", "acme"));
+        assertThat(registry.findByHash("h2")).isEmpty();
+
+        when(repository.fingerprint()).thenReturn(fingerprint(2, 1));
+        when(repository.findAll()).thenReturn(List.of(tenant("h1", "acme", "acme"), tenant("h2", "beta", "acme")));
+        registry.refresh();
+
+        assertThat(registry.findByHash("h2")).hasValueSatisfying(r -> assertThat(r.name()).isEqualTo("beta"));
+    }
+}
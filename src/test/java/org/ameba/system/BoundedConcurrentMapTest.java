@@ -0,0 +1,63 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.system;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A BoundedConcurrentMapTest.
+ *
+ * @author Heiko Scherrer
+ */
+class BoundedConcurrentMapTest {
+
+    @Test void shouldEvictInBatchesWhenFull() {
+        var testee = new BoundedConcurrentMap<Integer, Integer>(16);
+        for (var i = 0; i < 16; i++) {
+            testee.put(i, i);
+        }
+        assertThat(testee.size()).isEqualTo(16);
+
+        testee.put(16, 16);
+
+        assertThat(testee.size()).isEqualTo(15);
+        assertThat(testee.get(16)).isEqualTo(16);
+        assertThat(testee.getEvictionCount()).isEqualTo(2);
+
+        testee.put(17, 17);
+        assertThat(testee.getEvictionCount()).isEqualTo(2);
+    }
+
+    @Test void shouldPurgeStaleEntriesFirst() {
+        var testee = new BoundedConcurrentMap<Integer, Integer>(16, v -> v % 2 == 0);
+        for (var i = 0; i < 16; i++) {
+            testee.put(i, i);
+        }
+
+        testee.put(17, 17);
+
+        assertThat(testee.size()).isEqualTo(9);
+        assertThat(testee.get(1)).isEqualTo(1);
+        assertThat(testee.get(2)).isNull();
+    }
+
+    @Test void shouldRejectInvalidSize() {
+        assertThatThrownBy(() -> new BoundedConcurrentMap<>(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
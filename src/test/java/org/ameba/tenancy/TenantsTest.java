@@ -0,0 +1,90 @@
+/*
+ * Copyright 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ameba.tenancy;
+
+import org.ameba.context.AmebaContext;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * A TenantsTest.
+ *
+ * @author Heiko Scherrer
+ */
+class TenantsTest {
+
+    @Test void shouldInternTenants() {
+        var tenant = Tenants.register(new String("tenants-test"));
+        assertThat(Tenants.of(new String("tenants-test"))).isSameAs(tenant);
+        assertThat(Tenants.byId(tenant.getId())).isSameAs(tenant);
+        assertThat(tenant.getSchema("t_")).isEqualTo("t_tenants-test").isSameAs(tenant.getSchema("t_"));
+        assertThat(Tenants.of("../x").getLogKey()).isEqualTo(".._x");
+
+        TenantHolder.callWith("tenants-test", () -> {
+            assertThat(TenantHolder.getTenant()).isSameAs(tenant);
+            return null;
+        });
+    }
+
+    @Test void shouldKeepStatePerTenant() {
+        var created = new AtomicInteger();
+        var testee = new PerTenant<>(t -> created.incrementAndGet());
+        var a = Tenants.register("per-tenant-a");
+        var b = Tenants.register("per-tenant-b");
+
+        assertThat(testee.get(a)).isEqualTo(testee.get(a));
+        assertThat(testee.get(b)).isNotEqualTo(testee.get(a));
+        assertThat(created).hasValue(2);
+    }
+
+    @Test void shouldNotRegisterTenantsOfRequests() {
+        var size = Tenants.size();
+        var tenant = Tenants.of("forged-tenant");
+
+        assertThat(tenant.getId()).isEqualTo(Tenant.UNREGISTERED);
+        assertThat(Tenants.of("forged-tenant")).isNotSameAs(tenant);
+        assertThat(AmebaContext.current().withTenant("forged-tenant").getInternedTenant().getId()).isEqualTo(Tenant.UNREGISTERED);
+        assertThat(Tenants.size()).isEqualTo(size);
+    }
+
+    @Test void shouldNotCreateStateForUnregisteredTenants() {
+        var created = new AtomicInteger();
+        var testee = new PerTenant<>(t -> created.incrementAndGet(), -1);
+
+        assertThat(testee.get(Tenants.of("unregistered-tenant"))).isEqualTo(-1);
+        assertThat(new PerTenant<>(t -> created.incrementAndGet()).get(Tenants.of("unregistered-tenant"))).isNull();
+        assertThat(created).hasValue(0);
+    }
+
+    @Test void shouldApplySchemaOfRegisteredAndUnregisteredTenants() throws Exception {
+        var connection = mock(Connection.class);
+        var size = Tenants.size();
+
+        TenantSchemaUtils.applyTenantSchema(connection, "schema-unregistered", "t_", "public");
+        Tenants.register("schema-registered");
+        TenantSchemaUtils.applyTenantSchema(connection, "schema-registered", "t_", "public");
+
+        verify(connection).setSchema("t_schema-unregistered");
+        verify(connection).setSchema("t_schema-registered");
+        assertThat(Tenants.size()).isEqualTo(size + 1);
+    }
+}